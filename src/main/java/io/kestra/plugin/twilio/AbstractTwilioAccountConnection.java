@@ -0,0 +1,56 @@
+package io.kestra.plugin.twilio;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Account credentials of the tasks calling the Twilio REST APIs with basic authentication.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class AbstractTwilioAccountConnection extends AbstractTwilioConnection {
+    private static final String ACCOUNT_SID_PATTERN = "AC[0-9a-fA-F]{32}";
+
+    @NotNull
+    @Schema(
+        title = "Twilio Account SID",
+        description = "The Account SID used for basic authentication and to construct the API URLs"
+    )
+    @PluginProperty(group = "connection")
+    private Property<String> accountSID;
+
+    @NotNull
+    @Schema(
+        title = "Twilio Auth Token",
+        description = "The Auth Token paired with the Account SID; store as a Kestra secret"
+    )
+    @PluginProperty(secret = true, group = "connection")
+    private Property<String> authToken;
+
+    protected String renderAccountSID(RunContext runContext) throws Exception {
+        var rAccountSID = runContext.render(accountSID).as(String.class).orElseThrow(() -> new IllegalArgumentException("accountSID is required"));
+        if (!rAccountSID.matches(ACCOUNT_SID_PATTERN)) {
+            throw new IllegalArgumentException("accountSID must be a valid Twilio Account SID (AC followed by 32 hex characters)");
+        }
+
+        return rAccountSID;
+    }
+
+    protected String authorizationHeader(RunContext runContext, String rAccountSID) throws Exception {
+        var rAuthToken = runContext.render(authToken).as(String.class).orElseThrow(() -> new IllegalArgumentException("authToken is required"));
+
+        return "Basic " + Base64.getEncoder().encodeToString((rAccountSID + ":" + rAuthToken).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package io.kestra.plugin.twilio;
 
+import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
@@ -66,6 +67,11 @@ public abstract class AbstractTwilioConnection extends Task {
         return builder;
     }
 
+    // Encodes a single form field; repeated keys (e.g. MediaUrl, ToBinding) are added as separate pairs.
+    protected static String formPair(String key, String value) {
+        return URLEncoder.encode(key, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
     @Getter
     @Builder
     public static class RequestOptions {
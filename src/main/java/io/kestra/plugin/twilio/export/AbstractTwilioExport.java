@@ -0,0 +1,147 @@
+package io.kestra.plugin.twilio.export;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.twilio.AbstractTwilioAccountConnection;
+import io.kestra.plugin.twilio.utils.AdaptiveConcurrencyLimiter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Reads a list resource of the Twilio REST API page by page, following {@code next_page_uri}.
+ * The next page is requested as soon as a page arrives, so that writing the rows of a page overlaps with fetching the next one,
+ * and pages are requested gzip-encoded; only two pages of a list are in memory at once.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class AbstractTwilioExport extends AbstractTwilioAccountConnection {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final String DEFAULT_BASE_URL = "https://api.twilio.com";
+    private static final int MAX_RETRIES = 5;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    // Twilio REST API base URL. Not a flow property; overridden only by tests via a subclass.
+    protected String baseUrl() {
+        return DEFAULT_BASE_URL;
+    }
+
+    /**
+     * Calls {@code consumer} with the rows of every page, in order, starting from {@code path} and its query.
+     *
+     * @param listKey field of the page holding the rows, e.g. {@code messages}
+     * @param prefetch runs the request of the next page while the current one is consumed
+     * @return the number of pages read
+     */
+    protected long forEachPage(
+        RunContext runContext,
+        HttpClient client,
+        String authHeader,
+        String path,
+        String listKey,
+        ExecutorService prefetch,
+        PageConsumer consumer
+    ) throws Exception {
+        Page page = fetch(runContext, client, authHeader, path, listKey);
+        long pages = 0;
+
+        while (page != null) {
+            pages++;
+
+            String next = page.nextPageUri();
+            CompletableFuture<Page> nextPage = next == null ? null : CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return fetch(runContext, client, authHeader, next, listKey);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                },
+                prefetch
+            );
+
+            try {
+                consumer.accept(page.rows());
+            } catch (Exception e) {
+                if (nextPage != null) {
+                    nextPage.cancel(true);
+                }
+                throw e;
+            }
+
+            try {
+                page = nextPage == null ? null : nextPage.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        return pages;
+    }
+
+    private Page fetch(RunContext runContext, HttpClient client, String authHeader, String path, String listKey) throws Exception {
+        var request = createRequestBuilder(runContext)
+            .addHeader("Authorization", authHeader)
+            .addHeader("Accept-Encoding", "gzip")
+            .uri(URI.create(baseUrl() + path))
+            .method("GET")
+            .build();
+
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(Math.min(MAX_BACKOFF.toMillis(), 1000L << Math.min(attempt - 1, 10)));
+            }
+
+            try {
+                HttpResponse<String> response = client.request(request, String.class);
+                Map<String, Object> body = MAPPER.readValue(response.getBody(), new TypeReference<>() {});
+
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> rows = (List<Map<String, Object>>) body.getOrDefault(listKey, List.of());
+                Object next = body.get("next_page_uri");
+
+                return new Page(rows, next == null ? null : next.toString());
+            } catch (HttpClientResponseException e) {
+                int statusCode = e.getResponse() != null ? e.getResponse().getStatus().getCode() : 0;
+
+                if (!AdaptiveConcurrencyLimiter.isOverload(statusCode) || attempt >= MAX_RETRIES) {
+                    throw new RuntimeException(
+                        "Twilio API returned HTTP " + statusCode + " for " + path + ": " + (e.getResponse() != null ? e.getResponse().getBody() : e.getMessage()),
+                        e
+                    );
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    protected interface PageConsumer {
+        void accept(List<Map<String, Object>> rows) throws Exception;
+    }
+
+    private record Page(List<Map<String, Object>> rows, String nextPageUri) {
+    }
+}
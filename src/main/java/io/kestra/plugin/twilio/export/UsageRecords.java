@@ -0,0 +1,333 @@
+package io.kestra.plugin.twilio.export;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Export the Twilio usage and costs of a date range to internal storage",
+    description = """
+        Reads the daily usage records of the account with the Twilio Usage Records API, page by page, and writes one row per category and day,
+        or per category over the whole range, with the summed `count`, `usage` and `price`, e.g. to track what campaigns cost every day.
+        Twilio reports both detailed categories, such as `sms-outbound`, and categories rolling them up, such as `sms` or `totalprice`,
+        so list the categories of interest in `categories` to avoid counting the same cost twice in the rows.
+        The `totalPrice` output is the price of the `totalprice` category when it is exported, e.g. when no `categories` are set, and the sum of the rows otherwise.
+        Records with no usage are left out unless `includeEmpty` is set.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Export yesterday's SMS and MMS costs every morning.",
+            full = true,
+            code = """
+                id: twilio_costs
+                namespace: company.team
+
+                tasks:
+                  - id: usage
+                    type: io.kestra.plugin.twilio.export.UsageRecords
+                    accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                    authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                    startDate: "{{ trigger.date | dateAdd(-1, 'DAYS') | date('yyyy-MM-dd') }}"
+                    categories:
+                      - sms-outbound
+                      - mms-outbound
+                      - lookups
+
+                triggers:
+                  - id: daily
+                    type: io.kestra.plugin.core.trigger.Schedule
+                    cron: "0 6 * * *"
+                """
+        ),
+        @Example(
+            title = "Sum the costs of each category over a month, and log the total cost of the account.",
+            full = true,
+            code = """
+                id: twilio_monthly_costs
+                namespace: company.team
+
+                tasks:
+                  - id: usage
+                    type: io.kestra.plugin.twilio.export.UsageRecords
+                    accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                    authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                    startDate: "2024-05-01"
+                    endDate: "2024-05-31"
+                    groupBy: CATEGORY
+
+                  - id: log
+                    type: io.kestra.plugin.core.log.Log
+                    message: "May cost {{ outputs.usage.totalPrice }} {{ outputs.usage.priceUnit }}"
+                """
+        )
+    }
+)
+public class UsageRecords extends AbstractTwilioExport implements RunnableTask<UsageRecords.Output> {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_DAYS = 366;
+    // rolls up the price of every other category
+    private static final String TOTAL_PRICE_CATEGORY = "totalprice";
+
+    @Schema(
+        title = "First day",
+        description = "First day of usage, as `yyyy-MM-dd` in the time zone of the account"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> startDate;
+
+    @Schema(
+        title = "Last day",
+        description = "Last day of usage, as `yyyy-MM-dd`; defaults to `startDate`"
+    )
+    @PluginProperty(group = "main")
+    private Property<String> endDate;
+
+    @Schema(
+        title = "Usage categories",
+        description = "Twilio usage categories to export, e.g. `sms-outbound` or `totalprice`; defaults to every category"
+    )
+    @PluginProperty(group = "main")
+    private Property<List<String>> categories;
+
+    @Schema(
+        title = "Aggregation",
+        description = "`CATEGORY_AND_DAY` writes one row per category and day, `CATEGORY` one row per category for the whole range"
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<GroupBy> groupBy = Property.ofValue(GroupBy.CATEGORY_AND_DAY);
+
+    @Schema(
+        title = "Include empty records",
+        description = "Also writes the categories with no usage and no cost"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> includeEmpty = Property.ofValue(false);
+
+    @Schema(
+        title = "Page size",
+        description = "Number of records per request; capped at 1,000"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> pageSize = Property.ofValue(MAX_PAGE_SIZE);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rAccountSID = renderAccountSID(runContext);
+        var authHeader = authorizationHeader(runContext, rAccountSID);
+        var rStartDate = LocalDate.parse(runContext.render(startDate).as(String.class).orElseThrow());
+        var rEndDate = runContext.render(endDate).as(String.class).map(LocalDate::parse).orElse(rStartDate);
+        var rCategories = runContext.render(categories).asList(String.class);
+        var rGroupBy = runContext.render(groupBy).as(GroupBy.class).orElse(GroupBy.CATEGORY_AND_DAY);
+        var rIncludeEmpty = runContext.render(includeEmpty).as(Boolean.class).orElse(false);
+        var rPageSize = Math.max(1, Math.min(runContext.render(pageSize).as(Integer.class).orElse(MAX_PAGE_SIZE), MAX_PAGE_SIZE));
+
+        long days = ChronoUnit.DAYS.between(rStartDate, rEndDate) + 1;
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("endDate must be between startDate and " + MAX_DAYS + " days after it");
+        }
+
+        List<String> paths = new ArrayList<>();
+        for (String category : rCategories.isEmpty() ? List.<String>of("") : rCategories) {
+            List<String> query = new ArrayList<>();
+            query.add(formPair("StartDate", rStartDate.toString()));
+            query.add(formPair("EndDate", rEndDate.toString()));
+            query.add(formPair("PageSize", String.valueOf(rPageSize)));
+            if (!category.isEmpty()) {
+                query.add(formPair("Category", category));
+            }
+            paths.add("/2010-04-01/Accounts/" + rAccountSID + "/Usage/Records/Daily.json?" + String.join("&", query));
+        }
+
+        // a key per category and day at most, i.e. a few thousand rows a year, so aggregates are kept in memory while records stream by
+        Map<String, Aggregate> aggregates = new TreeMap<>();
+        AtomicLong records = new AtomicLong();
+        long pages = 0;
+
+        ExecutorService prefetch = Executors.newSingleThreadExecutor();
+        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
+            for (String path : paths) {
+                pages += forEachPage(runContext, client, authHeader, path, "usage_records", prefetch, usageRecords -> {
+                    for (Map<String, Object> usageRecord : usageRecords) {
+                        String category = String.valueOf(usageRecord.get("category"));
+                        String day = rGroupBy == GroupBy.CATEGORY ? rStartDate.toString() : String.valueOf(usageRecord.get("start_date"));
+
+                        aggregates
+                            .computeIfAbsent(category + "|" + day, key -> new Aggregate(category, day, rGroupBy == GroupBy.CATEGORY ? rEndDate.toString() : day))
+                            .add(usageRecord);
+                    }
+                    records.addAndGet(usageRecords.size());
+                });
+            }
+        } finally {
+            prefetch.shutdownNow();
+        }
+
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+        long rows = 0;
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        BigDecimal rolledUpPrice = null;
+        String priceUnit = null;
+
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+            for (Aggregate aggregate : aggregates.values()) {
+                if (!rIncludeEmpty && aggregate.isEmpty()) {
+                    continue;
+                }
+
+                FileSerde.write(output, aggregate.row());
+                rows++;
+                totalPrice = totalPrice.add(aggregate.price);
+                if (TOTAL_PRICE_CATEGORY.equals(aggregate.category)) {
+                    rolledUpPrice = (rolledUpPrice == null ? BigDecimal.ZERO : rolledUpPrice).add(aggregate.price);
+                }
+                if (priceUnit == null) {
+                    priceUnit = aggregate.priceUnit;
+                }
+            }
+        }
+
+        // rows of every category include roll-ups such as sms or totalprice, which would count the same cost several times
+        if (rolledUpPrice != null) {
+            totalPrice = rolledUpPrice;
+        }
+
+        runContext.metric(Counter.of("records", records.get()));
+        runContext.metric(Counter.of("pages", pages));
+        runContext.metric(Counter.of("rows", rows));
+        runContext.metric(Counter.of("price", totalPrice.doubleValue(), "unit", String.valueOf(priceUnit)));
+        runContext.logger().info("Exported {} usage rows from {} records between {} and {}, total price {} {}", rows, records.get(), rStartDate, rEndDate, totalPrice, priceUnit);
+
+        return Output.builder()
+            .uri(runContext.storage().putFile(file))
+            .rows(rows)
+            .records(records.get())
+            .totalPrice(totalPrice.doubleValue())
+            .priceUnit(priceUnit)
+            .build();
+    }
+
+    public enum GroupBy {
+        CATEGORY_AND_DAY,
+        CATEGORY
+    }
+
+    private static final class Aggregate {
+        private final String category;
+        private final String startDate;
+        private final String endDate;
+        private BigDecimal count = BigDecimal.ZERO;
+        private BigDecimal usage = BigDecimal.ZERO;
+        private BigDecimal price = BigDecimal.ZERO;
+        private String countUnit;
+        private String usageUnit;
+        private String priceUnit;
+
+        private Aggregate(String category, String startDate, String endDate) {
+            this.category = category;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        // Twilio sends amounts as strings, e.g. "1.58000"
+        void add(Map<String, Object> usageRecord) {
+            count = count.add(decimal(usageRecord.get("count")));
+            usage = usage.add(decimal(usageRecord.get("usage")));
+            price = price.add(decimal(usageRecord.get("price")));
+            countUnit = unit(countUnit, usageRecord.get("count_unit"));
+            usageUnit = unit(usageUnit, usageRecord.get("usage_unit"));
+            priceUnit = unit(priceUnit, usageRecord.get("price_unit"));
+        }
+
+        boolean isEmpty() {
+            return count.signum() == 0 && usage.signum() == 0 && price.signum() == 0;
+        }
+
+        Map<String, Object> row() {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("category", category);
+            row.put("start_date", startDate);
+            row.put("end_date", endDate);
+            row.put("count", count);
+            row.put("count_unit", countUnit);
+            row.put("usage", usage);
+            row.put("usage_unit", usageUnit);
+            row.put("price", price);
+            row.put("price_unit", priceUnit);
+
+            return row;
+        }
+
+        private static BigDecimal decimal(Object value) {
+            return value == null || value.toString().isBlank() ? BigDecimal.ZERO : new BigDecimal(value.toString());
+        }
+
+        private static String unit(String current, Object value) {
+            return current != null || value == null ? current : value.toString();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Usage file",
+            description = "ION file with one row per category and day, or per category: `category`, `start_date`, `end_date`, `count`, `usage`, `price` and their units"
+        )
+        private final URI uri;
+
+        @Schema(title = "Number of rows written")
+        private final Long rows;
+
+        @Schema(title = "Number of usage records read")
+        private final Long records;
+
+        @Schema(title = "Total price", description = "Price of the `totalprice` category when it is exported, the sum of the prices of the rows written otherwise")
+        private final Double totalPrice;
+
+        @Schema(title = "Price currency", description = "Currency of the prices, e.g. usd")
+        private final String priceUnit;
+    }
+}
@@ -0,0 +1,10 @@
+@PluginSubGroup(
+    description = "Tasks that export Twilio account data, such as message logs and usage records, to Kestra internal storage.",
+    categories = {
+        PluginSubGroup.PluginCategory.BUSINESS,
+        PluginSubGroup.PluginCategory.DATA
+    }
+)
+package io.kestra.plugin.twilio.export;
+
+import io.kestra.core.models.annotations.PluginSubGroup;
\ No newline at end of file
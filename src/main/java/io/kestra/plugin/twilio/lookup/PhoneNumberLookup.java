@@ -0,0 +1,392 @@
+package io.kestra.plugin.twilio.lookup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.plugin.twilio.AbstractTwilioAccountConnection;
+import io.kestra.plugin.twilio.utils.AdaptiveConcurrencyLimiter;
+import io.kestra.plugin.twilio.utils.DistributedRateLimiter;
+import io.kestra.plugin.twilio.utils.PhoneNumbers;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Look up every phone number of a file with the Twilio Lookup API",
+    description = """
+        Reads phone numbers from an ION file in Kestra internal storage and queries the Twilio Lookup v2 API for each of them, concurrently,
+        e.g. to keep only mobile numbers before an SMS campaign with the `line_type_intelligence` field.
+        Each row is either a phone number or an object with a `to` field; numbers are normalized to E.164 first, and malformed ones, as well as channel addresses such as `whatsapp:+15555550100`, are reported without a lookup.
+        Results are cached per number and fields in the namespace KV store for `cacheTtl`, so repeated campaigns only pay for numbers not looked up recently.
+        The result of every number is written to the output file, with the Lookup API fields, `cached`, and an `error` when the lookup failed.
+        See the <a href="https://www.twilio.com/docs/lookup/v2-api">Twilio documentation</a> for the available fields.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Find the line type of every recipient of a campaign, at most 20 lookups per second.",
+            full = true,
+            code = """
+                id: lookup_recipients
+                namespace: company.team
+
+                inputs:
+                  - id: recipients
+                    type: FILE
+
+                tasks:
+                  - id: lookup
+                    type: io.kestra.plugin.twilio.lookup.PhoneNumberLookup
+                    accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                    authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                    from: "{{ inputs.recipients }}"
+                    fields:
+                      - line_type_intelligence
+                    concurrency: 8
+                    maxLookupsPerSecond: 20
+                """
+        )
+    }
+)
+public class PhoneNumberLookup extends AbstractTwilioAccountConnection implements RunnableTask<PhoneNumberLookup.Output> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final String DEFAULT_BASE_URL = "https://lookups.twilio.com";
+    private static final String CACHE_KV_PREFIX = "twilio-lookup_";
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    @Schema(
+        title = "Phone numbers file",
+        description = "URI of an ION file in Kestra internal storage holding one phone number per row"
+    )
+    @NotNull
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Data packages",
+        description = "Lookup v2 `Fields` to request, e.g. `line_type_intelligence` or `caller_name`; only the basic validation, which is free, is returned when empty"
+    )
+    @PluginProperty(group = "main")
+    private Property<List<String>> fields;
+
+    @Schema(
+        title = "Default country code",
+        description = "Calling code of numbers written without an international prefix, e.g. `1` or `+44`; such numbers are reported as invalid when not set"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> defaultCountryCode;
+
+    @Schema(
+        title = "Concurrency",
+        description = "Number of lookups kept in flight; defaults to 8"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> concurrency = Property.ofValue(8);
+
+    @Schema(
+        title = "Maximum lookups per second",
+        description = "Caps the rate of Lookup API requests of the account across every worker of the cluster; cache hits don't count. No limit is applied when not set."
+    )
+    @PluginProperty(group = "execution")
+    private Property<Double> maxLookupsPerSecond;
+
+    @Schema(
+        title = "Maximum retries",
+        description = "Number of times a lookup rejected with HTTP 429 or 5xx is retried, with exponential backoff; defaults to 3"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxRetries = Property.ofValue(3);
+
+    @Schema(
+        title = "Cache TTL",
+        description = "How long a lookup result is reused from the namespace KV store; defaults to 30 days. Set to `PT0S` to always query the API."
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Duration> cacheTtl = Property.ofValue(Duration.ofDays(30));
+
+    // Twilio Lookup API base URL. Not a flow property; overridden only by tests via a subclass.
+    protected String baseUrl() {
+        return DEFAULT_BASE_URL;
+    }
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rAccountSID = renderAccountSID(runContext);
+        var authHeader = authorizationHeader(runContext, rAccountSID);
+        var rFrom = URI.create(runContext.render(from).as(String.class).orElseThrow());
+        var rFields = runContext.render(fields).asList(String.class).stream().sorted().toList();
+        var rDefaultCountryCode = runContext.render(defaultCountryCode).as(String.class).orElse(null);
+        var rConcurrency = Math.max(1, runContext.render(concurrency).as(Integer.class).orElse(8));
+        var rMaxRetries = runContext.render(maxRetries).as(Integer.class).orElse(3);
+        var rCacheTtl = runContext.render(cacheTtl).as(Duration.class).orElse(Duration.ofDays(30));
+        var rateLimiter = runContext.render(maxLookupsPerSecond).as(Double.class)
+            .map(rate -> new DistributedRateLimiter(runContext, "lookup_" + rAccountSID, rate));
+
+        KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+        String cachePrefix = CACHE_KV_PREFIX + (rFields.isEmpty() ? "basic" : String.join("-", rFields).replaceAll("[^a-zA-Z0-9._-]", "-")) + "_";
+        String query = rFields.isEmpty() ? "" : "?Fields=" + URLEncoder.encode(String.join(",", rFields), StandardCharsets.UTF_8);
+
+        ExecutorService executor = Executors.newFixedThreadPool(rConcurrency);
+        Semaphore inFlight = new Semaphore(rConcurrency);
+        BlockingQueue<HttpClient> clients = new ArrayBlockingQueue<>(rConcurrency);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong lookups = new AtomicLong();
+        AtomicLong cacheHits = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long rows = 0;
+
+        File results = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new FileOutputStream(results)) {
+            for (int i = 0; i < rConcurrency; i++) {
+                clients.add(new HttpClient(runContext, super.httpClientConfigurationWithOptions()));
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rFrom), StandardCharsets.UTF_8))) {
+                for (Object row : FileSerde.readAll(reader).toIterable()) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+
+                    long index = rows++;
+                    String input = number(row);
+                    PhoneNumbers.Normalized number = PhoneNumbers.normalize(input, rDefaultCountryCode);
+
+                    // normalize keeps channel addresses such as whatsapp:+15555550100, which aren't phone numbers to the Lookup API
+                    OptionalLong digits = number.valid() ? PhoneNumbers.e164(number.number()) : OptionalLong.empty();
+                    if (digits.isEmpty()) {
+                        String error = number.valid() ? "channel addresses can't be looked up, use the phone number alone" : number.error();
+                        synchronized (output) {
+                            FileSerde.write(output, result(index, input, null, false, "Invalid number: " + error));
+                        }
+                        failed.incrementAndGet();
+                        continue;
+                    }
+
+                    inFlight.acquire();
+                    executor.submit(() -> {
+                        HttpClient client = null;
+                        try {
+                            String cacheKey = cachePrefix + digits.getAsLong();
+                            Optional<Map<String, Object>> cached = rCacheTtl.isZero() ? Optional.empty() : cached(kvStore, cacheKey);
+
+                            Map<String, Object> result;
+                            if (cached.isPresent()) {
+                                cacheHits.incrementAndGet();
+                                result = result(index, input, cached.get(), true, null);
+                            } else {
+                                client = clients.take();
+                                result = lookup(runContext, client, rateLimiter, authHeader, number.number(), query, rMaxRetries, index, input, kvStore, cacheKey, rCacheTtl);
+                                lookups.incrementAndGet();
+                                if (result.get("error") != null) {
+                                    failed.incrementAndGet();
+                                }
+                            }
+
+                            synchronized (output) {
+                                FileSerde.write(output, result);
+                            }
+                        } catch (Exception e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            if (client != null) {
+                                clients.add(client);
+                            }
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+
+            inFlight.acquire(rConcurrency);
+        } finally {
+            executor.shutdownNow();
+            for (HttpClient client : clients) {
+                client.close();
+            }
+        }
+
+        runContext.metric(Counter.of("rows", rows));
+        runContext.metric(Counter.of("lookups", lookups.get()));
+        runContext.metric(Counter.of("cache.hits", cacheHits.get()));
+        runContext.metric(Counter.of("failed", failed.get()));
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        runContext.logger().info("Looked up {} numbers: {} from the cache, {} API requests, {} failed", rows, cacheHits.get(), lookups.get(), failed.get());
+
+        return Output.builder()
+            .uri(runContext.storage().putFile(results))
+            .rows(rows)
+            .lookups(lookups.get())
+            .cacheHits(cacheHits.get())
+            .failed(failed.get())
+            .build();
+    }
+
+    private Map<String, Object> lookup(
+        RunContext runContext,
+        HttpClient client,
+        Optional<DistributedRateLimiter> rateLimiter,
+        String authHeader,
+        String number,
+        String query,
+        int maxRetries,
+        long index,
+        String input,
+        KVStore kvStore,
+        String cacheKey,
+        Duration cacheTtl
+    ) throws Exception {
+        var request = createRequestBuilder(runContext)
+            .addHeader("Authorization", authHeader)
+            .uri(URI.create(baseUrl() + "/v2/PhoneNumbers/" + number + query))
+            .method("GET")
+            .build();
+
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(Math.min(MAX_BACKOFF.toMillis(), 1000L << Math.min(attempt - 1, 10)));
+            }
+
+            if (rateLimiter.isPresent()) {
+                rateLimiter.get().acquire();
+            }
+
+            try {
+                HttpResponse<String> response = client.request(request, String.class);
+                Map<String, Object> lookup = MAPPER.readValue(response.getBody(), new TypeReference<>() {});
+                lookup.remove("url");
+
+                if (!cacheTtl.isZero()) {
+                    kvStore.put(cacheKey, new KVValueAndMetadata(new KVMetadata("Twilio Lookup of " + number, cacheTtl), MAPPER.writeValueAsString(lookup)));
+                }
+
+                return result(index, input, lookup, false, null);
+            } catch (HttpClientResponseException e) {
+                int statusCode = e.getResponse() != null ? e.getResponse().getStatus().getCode() : 0;
+
+                if (!AdaptiveConcurrencyLimiter.isOverload(statusCode) || attempt >= maxRetries) {
+                    String body = e.getResponse() != null ? e.getResponse().getBody() : e.getMessage();
+                    return result(index, input, null, false, "HTTP " + statusCode + ": " + body);
+                }
+            }
+        }
+    }
+
+    private static Optional<Map<String, Object>> cached(KVStore kvStore, String cacheKey) throws Exception {
+        Optional<KVValue> value = kvStore.getValue(cacheKey);
+        if (value.isEmpty() || value.get().value() == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(MAPPER.readValue(value.get().value().toString(), new TypeReference<>() {}));
+    }
+
+    private static String number(Object row) {
+        if (row instanceof Map<?, ?> map) {
+            Object to = map.get("to");
+            if (to == null) {
+                throw new IllegalArgumentException("Rows must be a phone number or have a `to` field: " + row);
+            }
+
+            return to.toString();
+        }
+
+        if (row == null) {
+            throw new IllegalArgumentException("Rows can't be null");
+        }
+
+        return row.toString();
+    }
+
+    private static Map<String, Object> result(long index, String input, Map<String, Object> lookup, boolean cached, String error) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("input", input);
+        if (lookup != null) {
+            result.putAll(lookup);
+        }
+        result.put("cached", cached);
+        result.put("error", error);
+
+        return result;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Results file",
+            description = "ION file with one row per number, in completion order: `index`, `input`, the Lookup API fields such as `phone_number`, `valid` and `line_type_intelligence`, `cached` and `error`"
+        )
+        private final URI uri;
+
+        @Schema(title = "Number of rows read")
+        private final Long rows;
+
+        @Schema(title = "Number of Lookup API requests")
+        private final Long lookups;
+
+        @Schema(title = "Number of results read from the cache")
+        private final Long cacheHits;
+
+        @Schema(title = "Number of numbers that couldn't be looked up", description = "Malformed numbers and lookups rejected by Twilio")
+        private final Long failed;
+    }
+}
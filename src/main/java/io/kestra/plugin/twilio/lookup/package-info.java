@@ -0,0 +1,10 @@
+@PluginSubGroup(
+    description = "Tasks that look up phone numbers with the Twilio Lookup API, e.g. to check line types before a campaign.",
+    categories = {
+        PluginSubGroup.PluginCategory.BUSINESS,
+        PluginSubGroup.PluginCategory.DATA
+    }
+)
+package io.kestra.plugin.twilio.lookup;
+
+import io.kestra.core.models.annotations.PluginSubGroup;
\ No newline at end of file
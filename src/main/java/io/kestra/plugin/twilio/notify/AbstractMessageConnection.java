@@ -0,0 +1,295 @@
+package io.kestra.plugin.twilio.notify;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.twilio.AbstractTwilioAccountConnection;
+import io.kestra.plugin.twilio.utils.DistributedRateLimiter;
+import io.kestra.plugin.twilio.utils.PhoneNumbers;
+import io.kestra.plugin.twilio.utils.SuppressionIndex;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Connection and message settings shared by the tasks creating messages through the Twilio Messages API,
+ * whether they send a single message or one per recipient of a file.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class AbstractMessageConnection extends AbstractTwilioAccountConnection {
+
+    private static final String DEFAULT_BASE_URL = "https://api.twilio.com";
+    private static final String SUPPRESSIONS_KV_PREFIX = "twilio-suppressions_";
+
+    @Schema(
+        title = "Sender phone number or Messaging Service SID",
+        description = "The Twilio number or Messaging Service SID to send from; required unless `fromPool` is set"
+    )
+    @PluginProperty(group = "main")
+    private Property<String> from;
+
+    @Schema(
+        title = "Sender number pool",
+        description = """
+            Twilio numbers to spread messages over instead of a single `from`, so that throughput grows with the numbers owned. \
+            The pool is shared by every task of the worker sending from the same numbers, and `maxMessagesPerSecond` applies to each number."""
+    )
+    @PluginProperty(group = "main")
+    private Property<List<String>> fromPool;
+
+    @Schema(
+        title = "Sender selection strategy",
+        description = """
+            How a number of `fromPool` is picked for each message: `ROUND_ROBIN` cycles through the numbers, \
+            `LEAST_RECENTLY_USED` picks the number idle for the longest, and `STICKY` always sends to the same recipient from the same number."""
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<SenderPool.Strategy> fromPoolStrategy = Property.ofValue(SenderPool.Strategy.ROUND_ROBIN);
+
+    @NotNull
+    @Schema(
+        title = "Message body",
+        description = "The text content of the message"
+    )
+    @PluginProperty(group = "main")
+    private Property<String> body;
+
+    @Schema(
+        title = "Maximum messages per second",
+        description = """
+            Caps the rate of messages sent through `rateLimitKey` across every worker of the cluster, e.g. 1 for a long code; \
+            with `fromPool`, each number gets its own rate. \
+            Tokens are shared through the KV store of the flow namespace and leased in small batches; no limit is applied when not set."""
+    )
+    @PluginProperty(group = "execution")
+    private Property<Double> maxMessagesPerSecond;
+
+    @Schema(
+        title = "Rate limit key",
+        description = "Name of the shared rate applied by `maxMessagesPerSecond`; defaults to the account SID and sender, and is suffixed with the number when `fromPool` is set"
+    )
+    @PluginProperty(group = "execution")
+    private Property<String> rateLimitKey;
+
+    @Schema(
+        title = "Priority",
+        description = """
+            Lane of the messages within the rate of `maxMessagesPerSecond`: `CRITICAL` messages, e.g. alerts, always go first \
+            and hold back the other lanes of every worker, while `NORMAL` messages get four permits for each `BULK` permit. \
+            Defaults to `NORMAL`, or `BULK` for bulk tasks."""
+    )
+    @PluginProperty(group = "execution")
+    private Property<DistributedRateLimiter.Priority> priority;
+
+    @Schema(
+        title = "Normalize recipient numbers",
+        description = """
+            Normalizes recipients to E.164 before sending, e.g. `(555) 555-0100` to `+15555550100` with `defaultCountryCode: 1`, \
+            and rejects numbers that are malformed, too short or too long without calling Twilio, so they cost neither a request nor a rate-limit token."""
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> normalizeNumbers = Property.ofValue(false);
+
+    @Schema(
+        title = "Default country code",
+        description = "Calling code of recipients written without an international prefix, e.g. `1` or `+44`, when `normalizeNumbers` is enabled; such numbers are rejected when not set"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> defaultCountryCode;
+
+    @Schema(
+        title = "Suppression list",
+        description = """
+            Name of a list maintained by `notify.sms.UpdateSuppressions`: recipients in the list, e.g. numbers that replied STOP, \
+            are skipped without a request instead of being rejected by Twilio with error 21610."""
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> suppressionList;
+
+    // Twilio Messages API base URL. Not a flow property; overridden only by tests via a subclass.
+    protected String baseUrl() {
+        return DEFAULT_BASE_URL;
+    }
+
+    // Subclasses add extra form parameters (e.g. MediaUrl). Default: none.
+    protected void additionalFormParameters(RunContext runContext, List<String> formParameters) throws Exception {
+    }
+
+    protected String messagesUrl(String rAccountSID) {
+        return baseUrl() + "/2010-04-01/Accounts/" + rAccountSID + "/Messages.json";
+    }
+
+    // Lane used when `priority` isn't set.
+    protected DistributedRateLimiter.Priority defaultPriority() {
+        return DistributedRateLimiter.Priority.NORMAL;
+    }
+
+    protected Function<String, PhoneNumbers.Normalized> recipientNormalizer(RunContext runContext) throws Exception {
+        if (!runContext.render(normalizeNumbers).as(Boolean.class).orElse(false)) {
+            return to -> new PhoneNumbers.Normalized(to, null);
+        }
+
+        var rDefaultCountryCode = runContext.render(defaultCountryCode).as(String.class).orElse(null);
+
+        return to -> PhoneNumbers.normalize(to, rDefaultCountryCode);
+    }
+
+    // Loaded suppression list, or null when `suppressionList` isn't set.
+    protected SuppressionIndex suppressionIndex(RunContext runContext) throws Exception {
+        var rSuppressionList = runContext.render(suppressionList).as(String.class);
+        if (rSuppressionList.isEmpty()) {
+            return null;
+        }
+
+        return SuppressionIndex.load(runContext, suppressionKvKey(rSuppressionList.get()));
+    }
+
+    public static String suppressionKvKey(String suppressionList) {
+        return SUPPRESSIONS_KV_PREFIX + suppressionList.replaceAll("[^a-zA-Z0-9._-]", "-");
+    }
+
+    protected Senders senders(RunContext runContext, String rAccountSID) throws Exception {
+        var rFromPool = runContext.render(fromPool).asList(String.class);
+        var rMaxMessagesPerSecond = runContext.render(maxMessagesPerSecond).as(Double.class);
+        var rRateLimitKey = runContext.render(rateLimitKey).as(String.class);
+        var rPriority = runContext.render(priority).as(DistributedRateLimiter.Priority.class).orElse(defaultPriority());
+
+        if (rFromPool.isEmpty()) {
+            var rFrom = runContext.render(from).as(String.class).orElseThrow(() -> new IllegalArgumentException("from or fromPool is required"));
+
+            return new Senders(runContext, null, null, rFrom, rMaxMessagesPerSecond.orElse(null), rPriority, number -> rRateLimitKey.orElse(rAccountSID + "_" + number));
+        }
+
+        return new Senders(
+            runContext,
+            SenderPool.of(rFromPool),
+            runContext.render(fromPoolStrategy).as(SenderPool.Strategy.class).orElse(SenderPool.Strategy.ROUND_ROBIN),
+            null,
+            rMaxMessagesPerSecond.orElse(null),
+            rPriority,
+            number -> rRateLimitKey.orElse(rAccountSID) + "_" + number
+        );
+    }
+
+    /**
+     * Creates a message; HTTP errors are thrown as {@link io.kestra.core.http.client.HttpClientResponseException} so that callers can inspect the status.
+     */
+    protected MessageResponse createMessage(RunContext runContext, HttpClient client, String url, String authHeader, List<String> formParameters) throws Exception {
+        HttpResponse<String> response = postMessage(runContext, client, url, authHeader, formParameters);
+
+        var statusCode = response.getStatus().getCode();
+        if (statusCode != 201) {
+            throw new RuntimeException(
+                "Twilio Messages API returned HTTP " + statusCode + ": " + response.getBody()
+            );
+        }
+
+        return JacksonMapper.ofJson().readValue(response.getBody(), MessageResponse.class);
+    }
+
+    /**
+     * Posts a message and returns the raw response, for callers handling unexpected 2xx statuses themselves.
+     */
+    protected HttpResponse<String> postMessage(RunContext runContext, HttpClient client, String url, String authHeader, List<String> formParameters) throws Exception {
+        var request = createRequestBuilder(runContext)
+            .addHeader("Authorization", authHeader)
+            .uri(URI.create(url))
+            .method("POST")
+            .body(HttpRequest.StringRequestBody.builder()
+                .contentType("application/x-www-form-urlencoded")
+                .charset(StandardCharsets.UTF_8)
+                .content(String.join("&", formParameters))
+                .build())
+            .build();
+
+        return client.request(request, String.class);
+    }
+
+    /**
+     * Senders of one task run: picks the number of each message and applies its rate, one limiter per number.
+     */
+    protected static final class Senders {
+        private final RunContext runContext;
+        private final SenderPool pool;
+        private final SenderPool.Strategy strategy;
+        private final String from;
+        private final Double maxMessagesPerSecond;
+        private final DistributedRateLimiter.Priority priority;
+        private final Function<String, String> rateLimitKey;
+        private final Map<String, DistributedRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+        private Senders(
+            RunContext runContext,
+            SenderPool pool,
+            SenderPool.Strategy strategy,
+            String from,
+            Double maxMessagesPerSecond,
+            DistributedRateLimiter.Priority priority,
+            Function<String, String> rateLimitKey
+        ) {
+            this.runContext = runContext;
+            this.pool = pool;
+            this.strategy = strategy;
+            this.from = from;
+            this.maxMessagesPerSecond = maxMessagesPerSecond;
+            this.priority = priority;
+            this.rateLimitKey = rateLimitKey;
+        }
+
+        public String select(String recipient) {
+            return pool == null ? from : pool.select(strategy, recipient);
+        }
+
+        public void acquire(String sender) throws Exception {
+            if (maxMessagesPerSecond == null) {
+                return;
+            }
+
+            rateLimiters
+                .computeIfAbsent(sender, number -> new DistributedRateLimiter(runContext, rateLimitKey.apply(number), maxMessagesPerSecond))
+                .acquire(priority);
+        }
+    }
+
+    @Getter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    protected static class MessageResponse {
+        private String sid;
+        private String status;
+
+        // Twilio sends numbers as strings, e.g. "2" and "-0.01580", and the price as null until the message is sent
+        @JsonProperty("num_segments")
+        private Integer numSegments;
+
+        private Double price;
+
+        @JsonProperty("price_unit")
+        private String priceUnit;
+    }
+}
@@ -0,0 +1,204 @@
+package io.kestra.plugin.twilio.notify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVEntry;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+/**
+ * Coalescing buffer stored in the namespace KV store, shared by every notification of the same group.
+ * Each notification is written to a KV key of its own, named after the group and the time it was buffered, so that concurrent notifications never overwrite each other.
+ * The group head, a KV key of its own too, names the entry of the notification leading the current window along with the number of notifications buffered in it:
+ * the leader waits for the window to elapse, then takes the buffered entries and sends one digest. It holds its worker thread for the whole window.
+ * Later notifications are only buffered and counted in the head, unless they fill the group up to {@code maxCount} in which case they take the entries themselves.
+ * The head is only trusted while the entry of its leader exists, so a head left behind by a crashed leader or by a count written after a take is replaced
+ * by the next notification; the count is not atomic, so concurrent notifications can push a window past {@code maxCount} before it's taken.
+ * No call lists the namespace except taking the entries: they are taken by deleting the keys that were read, and the group is listed again until it is empty,
+ * so an entry buffered while a digest is taken is either part of it or leads the next window.
+ */
+final class NotificationDigest {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final String KV_PREFIX = "twilio-digest_";
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final RunContext runContext;
+    private final KVStore kvStore;
+    private final String prefix;
+    private final String headKey;
+    private final Duration window;
+    private final int maxCount;
+
+    NotificationDigest(RunContext runContext, String groupKey, Duration window, int maxCount) {
+        this.runContext = runContext;
+        this.kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+        String group = KV_PREFIX + groupKey.replaceAll("[^a-zA-Z0-9.-]", "-");
+        // '_' separates the group from the entry, so it can't be part of the group, and the head doesn't share the prefix of the entries
+        this.prefix = group + "_";
+        this.headKey = group + "-head";
+        this.window = window;
+        this.maxCount = Math.max(1, maxCount);
+    }
+
+    /**
+     * Buffers an execution summary.
+     *
+     * @return the buffered summaries when this call is responsible for sending the digest, empty when another run will send it
+     */
+    Optional<Buffer> append(Map<String, Object> summary) throws Exception {
+        String entryId = UUID.randomUUID().toString();
+        long bufferedAt = System.currentTimeMillis();
+        // zero-padded so that keys sort by time
+        String key = prefix + String.format("%013d", bufferedAt) + "_" + entryId;
+
+        Map<String, Object> entry = new LinkedHashMap<>(summary);
+        entry.put("entryId", entryId);
+        entry.put("bufferedAt", bufferedAt);
+        put(key, "Twilio notification digest entry", MAPPER.writeValueAsString(entry));
+
+        Optional<Head> head = readHead();
+        if (head.isEmpty() || !exists(head.get().leader())) {
+            writeHead(new Head(key, 1));
+
+            // the KV store has no compare-and-set, so the claim is read back
+            if (readHead().map(claimed -> key.equals(claimed.leader())).orElse(false)) {
+                return maxCount <= 1 ? takeWindow(key, entryId) : awaitWindow(key, entryId, bufferedAt);
+            }
+
+            head = readHead();
+        }
+
+        if (head.isPresent()) {
+            int count = head.get().count() + 1;
+            if (count >= maxCount) {
+                kvStore.delete(headKey);
+                return take(entryId);
+            }
+
+            writeHead(new Head(head.get().leader(), count));
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Buffer> awaitWindow(String key, String entryId, long openedAt) throws Exception {
+        long deadline = openedAt + window.toMillis();
+
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return takeWindow(key, entryId);
+            }
+
+            Thread.sleep(Math.min(remaining, POLL_INTERVAL.toMillis()));
+
+            if (!exists(key)) {
+                // taken early by a run that reached maxCount, or by the take of an earlier window; what was buffered since is still sent
+                return takeWindow(key, entryId);
+            }
+        }
+    }
+
+    /**
+     * Closes the window led by {@code key} before taking its entries, so that a notification buffered meanwhile leads the next window.
+     */
+    private Optional<Buffer> takeWindow(String key, String entryId) throws Exception {
+        if (readHead().map(head -> key.equals(head.leader())).orElse(false)) {
+            kvStore.delete(headKey);
+        }
+
+        return take(entryId);
+    }
+
+    /**
+     * Takes every buffered entry of the group: each listed key is read then deleted, and the group is listed again until no entry is left.
+     * An entry deleted by a concurrent run between the listing and the read is left to that run.
+     */
+    private Optional<Buffer> take(String leaderId) throws Exception {
+        List<Map<String, Object>> entries = new ArrayList<>();
+
+        for (List<String> keys = keys(); !keys.isEmpty(); keys = keys()) {
+            for (String key : keys) {
+                Optional<Map<String, Object>> entry = read(key);
+                if (entry.isPresent() && kvStore.delete(key)) {
+                    entries.add(entry.get());
+                }
+            }
+        }
+
+        if (entries.isEmpty()) {
+            runContext.logger().debug("Digest entries of '{}' were taken by another run", prefix);
+            return Optional.empty();
+        }
+
+        long openedAt = ((Number) entries.getFirst().get("bufferedAt")).longValue();
+
+        return Optional.of(new Buffer(leaderId, openedAt, entries));
+    }
+
+    private Optional<Head> readHead() throws Exception {
+        Optional<KVValue> value = kvStore.getValue(headKey);
+        if (value.isEmpty() || value.get().value() == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(MAPPER.readValue(value.get().value().toString(), Head.class));
+    }
+
+    private void writeHead(Head head) throws Exception {
+        put(headKey, "Twilio notification digest head", MAPPER.writeValueAsString(head));
+    }
+
+    private void put(String key, String description, String value) throws Exception {
+        kvStore.put(
+            key,
+            new KVValueAndMetadata(
+                // outlives the window so that a crashed leader doesn't leave entries behind forever
+                new KVMetadata(description, window.multipliedBy(2).plusMinutes(5)),
+                value
+            )
+        );
+    }
+
+    private boolean exists(String key) throws Exception {
+        Optional<KVValue> value = kvStore.getValue(key);
+
+        return value.isPresent() && value.get().value() != null;
+    }
+
+    private List<String> keys() throws Exception {
+        return kvStore.list().stream()
+            .map(KVEntry::key)
+            .filter(key -> key.startsWith(prefix))
+            .sorted()
+            .toList();
+    }
+
+    private Optional<Map<String, Object>> read(String key) throws Exception {
+        Optional<KVValue> value = kvStore.getValue(key);
+        if (value.isEmpty() || value.get().value() == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(MAPPER.readValue(value.get().value().toString(), new TypeReference<>() {}));
+    }
+
+    record Head(String leader, int count) {
+    }
+
+    record Buffer(String leaderId, long openedAt, List<Map<String, Object>> entries) {
+    }
+}
@@ -0,0 +1,196 @@
+package io.kestra.plugin.twilio.notify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.kestra.core.http.client.HttpClientResponseException;
+
+/**
+ * Worker-wide batcher merging concurrent Notify requests that only differ by their recipients.
+ * The first request for a key opens a batch and sends it once the window elapses or a recipient limit is reached,
+ * on behalf of every request that joined meanwhile; each caller then receives the response of the combined request.
+ * When Twilio rejects the combined request with a 4xx, every caller sends its own request so that one invalid recipient doesn't fail the others.
+ */
+final class NotifyMicroBatcher {
+    private static final Map<String, Batch> OPEN = new HashMap<>();
+
+    private NotifyMicroBatcher() {
+    }
+
+    /**
+     * @param key identifies requests that can be merged, i.e. same service, credentials and shared parameters
+     * @param sharedForm the form-encoded parameters common to all merged requests
+     * @param recipients the form-encoded recipient pairs of this request by parameter name, e.g. {@code Identity} or {@code ToBinding}
+     * @param limits the maximum number of values per request for each recipient parameter
+     * @param sender posts a form-encoded body and returns the response body
+     */
+    static String submit(
+        String key,
+        Duration window,
+        String sharedForm,
+        Map<String, List<String>> recipients,
+        Map<String, Integer> limits,
+        Sender sender
+    ) throws Exception {
+        Member member = new Member(recipients, new CompletableFuture<>());
+        if (!member.fitsAlone(limits)) {
+            return sender.send(form(sharedForm, List.of(member)));
+        }
+
+        Batch batch;
+        boolean owner = false;
+
+        synchronized (OPEN) {
+            batch = OPEN.get(key);
+
+            if (batch != null && !batch.accepts(member, limits)) {
+                close(key, batch);
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = new Batch();
+                OPEN.put(key, batch);
+                owner = true;
+            }
+
+            batch.add(member);
+
+            if (batch.isFull(limits)) {
+                close(key, batch);
+            }
+        }
+
+        if (owner) {
+            flush(key, window, sharedForm, batch, sender);
+        }
+
+        Optional<String> response = await(member.result());
+        if (response.isPresent()) {
+            return response.get();
+        }
+
+        return sender.send(form(sharedForm, List.of(member)));
+    }
+
+    private static void flush(String key, Duration window, String sharedForm, Batch batch, Sender sender) throws InterruptedException {
+        try {
+            batch.closed.await(window.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            synchronized (OPEN) {
+                close(key, batch);
+            }
+            batch.members.forEach(member -> member.result().complete(Optional.empty()));
+            throw e;
+        }
+
+        synchronized (OPEN) {
+            // once removed, no other request can join, so the member list below is final
+            close(key, batch);
+        }
+
+        if (batch.members.size() == 1) {
+            batch.members.getFirst().result().complete(Optional.empty());
+            return;
+        }
+
+        try {
+            String response = sender.send(form(sharedForm, batch.members));
+            batch.members.forEach(member -> member.result().complete(Optional.of(response)));
+        } catch (HttpClientResponseException e) {
+            if (e.getResponse() != null && e.getResponse().getStatus().getCode() >= 400 && e.getResponse().getStatus().getCode() < 500) {
+                batch.members.forEach(member -> member.result().complete(Optional.empty()));
+            } else {
+                batch.members.forEach(member -> member.result().completeExceptionally(e));
+            }
+        } catch (Exception e) {
+            batch.members.forEach(member -> member.result().completeExceptionally(e));
+        }
+    }
+
+    private static void close(String key, Batch batch) {
+        OPEN.remove(key, batch);
+        batch.closed.countDown();
+    }
+
+    private static String form(String sharedForm, List<Member> members) {
+        List<String> pairs = new ArrayList<>();
+        if (!sharedForm.isEmpty()) {
+            pairs.add(sharedForm);
+        }
+
+        members.forEach(member -> member.recipients().values().forEach(pairs::addAll));
+
+        return String.join("&", pairs);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    interface Sender {
+        String send(String form) throws Exception;
+    }
+
+    private record Member(Map<String, List<String>> recipients, CompletableFuture<Optional<String>> result) {
+        boolean fitsAlone(Map<String, Integer> limits) {
+            return recipients.entrySet().stream()
+                .allMatch(entry -> entry.getValue().size() <= limits.getOrDefault(entry.getKey(), Integer.MAX_VALUE));
+        }
+    }
+
+    private static final class Batch {
+        private final List<Member> members = new ArrayList<>();
+        private final Map<String, Integer> counts = new HashMap<>();
+        private final Set<String> recipients = new HashSet<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        void add(Member member) {
+            members.add(member);
+            member.recipients().forEach((name, values) -> {
+                counts.merge(name, values.size(), Integer::sum);
+                recipients.addAll(values);
+            });
+        }
+
+        boolean accepts(Member member, Map<String, Integer> limits) {
+            for (Map.Entry<String, List<String>> entry : member.recipients().entrySet()) {
+                int count = counts.getOrDefault(entry.getKey(), 0) + entry.getValue().size();
+                if (count > limits.getOrDefault(entry.getKey(), Integer.MAX_VALUE)) {
+                    return false;
+                }
+
+                // a recipient already in the batch would only be notified once, so the duplicate waits for the next batch
+                if (entry.getValue().stream().anyMatch(recipients::contains)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        boolean isFull(Map<String, Integer> limits) {
+            return counts.entrySet().stream()
+                .anyMatch(entry -> entry.getValue() >= limits.getOrDefault(entry.getKey(), Integer.MAX_VALUE));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.kestra.plugin.twilio.notify;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selection state of a pool of sender numbers, kept per worker so that the single sends of concurrent tasks
+ * spread over the pool just like the messages of one bulk send.
+ */
+public final class SenderPool {
+    private static final int MAX_POOLS = 64;
+
+    private static final Map<List<String>, SenderPool> POOLS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, SenderPool> eldest) {
+            return size() > MAX_POOLS;
+        }
+    };
+
+    private final List<String> numbers;
+    private final long[] lastUsed;
+    private long clock;
+
+    private SenderPool(List<String> numbers) {
+        this.numbers = numbers;
+        this.lastUsed = new long[numbers.size()];
+    }
+
+    public static SenderPool of(List<String> numbers) {
+        if (numbers.isEmpty()) {
+            throw new IllegalArgumentException("A sender pool needs at least one number");
+        }
+
+        synchronized (POOLS) {
+            return POOLS.computeIfAbsent(List.copyOf(numbers), SenderPool::new);
+        }
+    }
+
+    public synchronized String select(Strategy strategy, String recipient) {
+        int index = switch (strategy) {
+            case ROUND_ROBIN -> (int) (clock % numbers.size());
+            case LEAST_RECENTLY_USED -> leastRecentlyUsed();
+            case STICKY -> sticky(recipient);
+        };
+
+        lastUsed[index] = ++clock;
+
+        return numbers.get(index);
+    }
+
+    private int leastRecentlyUsed() {
+        int index = 0;
+        for (int i = 1; i < lastUsed.length; i++) {
+            if (lastUsed[i] < lastUsed[index]) {
+                index = i;
+            }
+        }
+
+        return index;
+    }
+
+    // rendezvous hashing: adding or removing a number only moves the recipients of that number
+    private int sticky(String recipient) {
+        int index = 0;
+        long best = Long.MIN_VALUE;
+        for (int i = 0; i < numbers.size(); i++) {
+            long score = mix(((long) numbers.get(i).hashCode() << 32) ^ (recipient.hashCode() & 0xffffffffL));
+            if (score > best) {
+                best = score;
+                index = i;
+            }
+        }
+
+        return index;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_RECENTLY_USED,
+        STICKY
+    }
+}
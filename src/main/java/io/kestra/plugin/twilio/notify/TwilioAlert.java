@@ -2,7 +2,15 @@ package io.kestra.plugin.twilio.notify;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
@@ -84,6 +92,8 @@ import lombok.experimental.SuperBuilder;
     aliases = "io.kestra.plugin.notifications.twilio.TwilioAlert"
 )
 public class TwilioAlert extends AbstractTwilioConnection implements io.kestra.core.models.tasks.RunnableTask<VoidOutput> {
+    private static final int MAX_IDENTITIES_PER_REQUEST = 20;
+    private static final int MAX_BINDINGS_PER_REQUEST = 10_000;
 
     @Schema(
         title = "Twilio Notify service URL",
@@ -116,17 +126,42 @@ public class TwilioAlert extends AbstractTwilioConnection implements io.kestra.c
     @PluginProperty(secret = true, dynamic = true, group = "connection")
     protected String authToken;
 
+    @Schema(
+        title = "Micro-batching window",
+        description = """
+            When set, e.g. to `PT0.05S`, concurrent alerts of the worker sent to the same service with the same parameters are held for this long \
+            and merged into a single Notify request carrying all their `Identity` and `ToBinding` values.
+            Every merged alert gets the response of the merged request, and fails with it on a 5xx or network error; \
+            if Twilio rejects the merged request with a 4xx, every alert is sent again on its own.
+            An alert that no other alert joins still waits for the whole window before it is sent."""
+    )
+    @PluginProperty(group = "execution")
+    protected Property<Duration> batchWindow;
+
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
+        String payload = runContext.render(this.payload).as(String.class).orElse(null);
+
+        runContext.logger().debug("Send Twilio notification: {}", payload);
+
+        return send(runContext, JacksonMapper.toMap(payload));
+    }
+
+    // Posts an already structured payload; templated subclasses call this directly instead of round-tripping through `payload`.
+    protected VoidOutput send(RunContext runContext, Map<String, Object> payload) throws Exception {
+        Optional<Duration> rBatchWindow = runContext.render(this.batchWindow).as(Duration.class)
+            .filter(window -> !window.isZero() && !window.isNegative());
+        if (rBatchWindow.isPresent() && payload != null && payload.keySet().stream().anyMatch(TwilioAlert::isRecipient)) {
+            return sendBatched(runContext, payload, rBatchWindow.get());
+        }
+
         String url = runContext.render(this.url);
 
         try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
-            String payload = runContext.render(this.payload).as(String.class).orElse(null);
             String authHeader = Base64.getEncoder().encodeToString(
                 (runContext.render(accountSID) + ":" + runContext.render(authToken)).getBytes(StandardCharsets.UTF_8)
             );
 
-            runContext.logger().debug("Send Twilio notification: {}", payload);
             HttpRequest.HttpRequestBuilder requestBuilder = createRequestBuilder(runContext)
                 .addHeader("Content-Type", "application/x-www-form-urlencoded")
                 .addHeader("Authorization", "Basic " + authHeader)
@@ -134,7 +169,7 @@ public class TwilioAlert extends AbstractTwilioConnection implements io.kestra.c
                 .method("POST")
                 .body(
                     HttpRequest.UrlEncodedRequestBody.builder()
-                        .content(JacksonMapper.toMap(payload))
+                        .content(payload)
                         .build()
                 );
 
@@ -150,4 +185,82 @@ public class TwilioAlert extends AbstractTwilioConnection implements io.kestra.c
         }
         return null;
     }
+
+    private VoidOutput sendBatched(RunContext runContext, Map<String, Object> payload, Duration window) throws Exception {
+        String url = runContext.render(this.url);
+        String authHeader = "Basic " + Base64.getEncoder().encodeToString(
+            (runContext.render(accountSID) + ":" + runContext.render(authToken)).getBytes(StandardCharsets.UTF_8)
+        );
+
+        Map<String, List<String>> recipients = new LinkedHashMap<>();
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        List<String> shared = new ArrayList<>();
+
+        // sorted so that payloads listing the same parameters in another order still share a batch
+        for (Map.Entry<String, Object> entry : new TreeMap<>(payload).entrySet()) {
+            if (isRecipient(entry.getKey())) {
+                recipients.put(entry.getKey(), formPairs(entry.getKey(), entry.getValue()));
+                limits.put(entry.getKey(), entry.getKey().equalsIgnoreCase("Identity") ? MAX_IDENTITIES_PER_REQUEST : MAX_BINDINGS_PER_REQUEST);
+            } else {
+                shared.addAll(formPairs(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        String sharedForm = String.join("&", shared);
+        Map<String, String> headers = this.options != null && this.options.getHeaders() != null ?
+            runContext.render(this.options.getHeaders()).asMap(String.class, String.class) :
+            Map.of();
+
+        String response = NotifyMicroBatcher.submit(
+            url + "|" + authHeader + "|" + new TreeMap<>(headers) + "|" + sharedForm,
+            window,
+            sharedForm,
+            recipients,
+            limits,
+            form -> post(runContext, url, authHeader, form)
+        );
+
+        runContext.logger().debug("Response: {}", response);
+
+        return null;
+    }
+
+    private String post(RunContext runContext, String url, String authHeader, String form) throws Exception {
+        try (HttpClient client = new HttpClient(runContext, super.httpClientConfigurationWithOptions())) {
+            HttpRequest request = createRequestBuilder(runContext)
+                .addHeader("Authorization", authHeader)
+                .uri(URI.create(url))
+                .method("POST")
+                .body(HttpRequest.StringRequestBody.builder()
+                    .contentType("application/x-www-form-urlencoded")
+                    .charset(StandardCharsets.UTF_8)
+                    .content(form)
+                    .build())
+                .build();
+
+            return client.request(request, String.class).getBody();
+        }
+    }
+
+    private static boolean isRecipient(String key) {
+        return key.equalsIgnoreCase("Identity") || key.equalsIgnoreCase("ToBinding");
+    }
+
+    private static List<String> formPairs(String key, Object value) throws Exception {
+        List<String> pairs = new ArrayList<>();
+
+        if (value instanceof Collection<?> values) {
+            for (Object item : values) {
+                pairs.add(formPair(key, formValue(item)));
+            }
+        } else {
+            pairs.add(formPair(key, formValue(value)));
+        }
+
+        return pairs;
+    }
+
+    private static String formValue(Object value) throws Exception {
+        return value instanceof Map<?, ?> ? JacksonMapper.ofJson().writeValueAsString(value) : String.valueOf(value);
+    }
 }
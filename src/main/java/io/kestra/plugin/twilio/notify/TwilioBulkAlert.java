@@ -0,0 +1,371 @@
+package io.kestra.plugin.twilio.notify;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.twilio.AbstractTwilioConnection;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Send a Twilio Notify message to many recipients",
+    description = """
+        Reads recipients from a file in Kestra internal storage and sends them a notification through the Twilio Notify API, packing as many recipients per request as Notify accepts: up to 10,000 `ToBinding` values, or 20 `Identity` values.
+        Requests are form-encoded with one repeated parameter per recipient and sent concurrently.
+        With `recipientType: BINDING`, each row is either an address string (sent with `bindingType`) or an object with `binding_type` and `address`; with `recipientType: IDENTITY`, each row is an identity string or an object with an `identity` field.
+        See the <a href="https://www.twilio.com/docs/notify/api/notification-resource">Twilio documentation</a> for details.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send an SMS through Notify to every phone number of a file.",
+            full = true,
+            code = """
+                id: twilio_bulk_notify
+                namespace: company.team
+
+                inputs:
+                  - id: recipients
+                    type: FILE
+
+                tasks:
+                  - id: notify_all
+                    type: io.kestra.plugin.twilio.notify.TwilioBulkAlert
+                    url: "{{ secret('TWILIO_NOTIFICATION_URL') }}"
+                    accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                    authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                    from: "{{ inputs.recipients }}"
+                    recipientType: BINDING
+                    bindingType: sms
+                    body: "Scheduled maintenance tonight from 10pm to 11pm UTC."
+                """
+        )
+    }
+)
+public class TwilioBulkAlert extends AbstractTwilioConnection implements RunnableTask<TwilioBulkAlert.Output> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+
+    private static final int MAX_BINDINGS_PER_REQUEST = 10_000;
+    private static final int MAX_IDENTITIES_PER_REQUEST = 20;
+
+    @Schema(
+        title = "Twilio Notify service URL",
+        description = "Format: https://notify.twilio.com/v1/Services/ISXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX/Notifications"
+    )
+    @NotNull
+    @PluginProperty(group = "connection")
+    private Property<String> url;
+
+    @Schema(
+        title = "Twilio Account SID",
+        description = "Used with `authToken` for HTTP basic authentication"
+    )
+    @NotNull
+    @PluginProperty(group = "connection")
+    private Property<String> accountSID;
+
+    @Schema(
+        title = "Twilio Auth Token",
+        description = "Secret token paired with the Account SID; store as a secret"
+    )
+    @NotNull
+    @PluginProperty(secret = true, group = "connection")
+    private Property<String> authToken;
+
+    @Schema(
+        title = "Recipients file",
+        description = "URI of an ION file in Kestra internal storage holding one recipient per row"
+    )
+    @NotNull
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Recipient type",
+        description = "Whether rows are Notify bindings (sent as `ToBinding`) or identities of registered bindings (sent as `Identity`)"
+    )
+    @NotNull
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<RecipientType> recipientType = Property.ofValue(RecipientType.BINDING);
+
+    @Schema(
+        title = "Default binding type",
+        description = "Binding type used for rows that only carry an address, e.g. `sms`, `facebook-messenger` or `apn`; defaults to `sms`"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<String> bindingType = Property.ofValue("sms");
+
+    @Schema(
+        title = "Notification body",
+        description = "The text sent to every recipient"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> body;
+
+    @Schema(
+        title = "Additional notification parameters",
+        description = "Extra form parameters added to every request, e.g. `Title`, `Sound` or `Priority`"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Map<String, String>> parameters;
+
+    @Schema(
+        title = "Recipients per request",
+        description = "Number of recipients sent per Notify request, at least 1; capped at 10,000 bindings or 20 identities"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> chunkSize;
+
+    @Schema(
+        title = "Concurrency",
+        description = "Number of Notify requests kept in flight; defaults to 4"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rUrl = URI.create(runContext.render(url).as(String.class).orElseThrow());
+        var rFrom = URI.create(runContext.render(from).as(String.class).orElseThrow());
+        var rRecipientType = runContext.render(recipientType).as(RecipientType.class).orElse(RecipientType.BINDING);
+        var rBindingType = runContext.render(bindingType).as(String.class).orElse("sms");
+        var rConcurrency = Math.max(1, runContext.render(concurrency).as(Integer.class).orElse(4));
+        var maxChunkSize = rRecipientType == RecipientType.BINDING ? MAX_BINDINGS_PER_REQUEST : MAX_IDENTITIES_PER_REQUEST;
+        var rChunkSize = Math.min(runContext.render(chunkSize).as(Integer.class).orElse(maxChunkSize), maxChunkSize);
+        if (rChunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1, got " + rChunkSize);
+        }
+        var authHeader = "Basic " + Base64.getEncoder().encodeToString(
+            (runContext.render(accountSID).as(String.class).orElseThrow() + ":" + runContext.render(authToken).as(String.class).orElseThrow())
+                .getBytes(StandardCharsets.UTF_8)
+        );
+
+        // parameters shared by every chunk are encoded once
+        List<String> commonParameters = new ArrayList<>();
+        commonParameters.add(formPair("Body", runContext.render(body).as(String.class).orElseThrow()));
+        if (parameters != null) {
+            runContext.render(parameters).asMap(String.class, String.class)
+                .forEach((key, value) -> commonParameters.add(formPair(key, value)));
+        }
+        String commonForm = String.join("&", commonParameters);
+
+        ExecutorService executor = Executors.newFixedThreadPool(rConcurrency);
+        Semaphore inFlight = new Semaphore(rConcurrency);
+        BlockingQueue<HttpClient> clients = new ArrayBlockingQueue<>(rConcurrency);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong recipients = new AtomicLong();
+        List<String> sids = Collections.synchronizedList(new ArrayList<>());
+        long requests = 0;
+
+        try {
+            for (int i = 0; i < rConcurrency; i++) {
+                clients.add(new HttpClient(runContext, super.httpClientConfigurationWithOptions()));
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rFrom), StandardCharsets.UTF_8))) {
+                List<String> chunk = new ArrayList<>(rChunkSize);
+
+                for (Object row : FileSerde.readAll(reader).toIterable()) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+
+                    chunk.add(rRecipientType == RecipientType.BINDING ? formPair("ToBinding", binding(row, rBindingType)) : formPair("Identity", identity(row)));
+
+                    if (chunk.size() == rChunkSize) {
+                        submit(runContext, executor, inFlight, clients, rUrl, authHeader, commonForm, chunk, recipients, sids, failure);
+                        requests++;
+                        chunk = new ArrayList<>(rChunkSize);
+                    }
+                }
+
+                if (!chunk.isEmpty() && failure.get() == null) {
+                    submit(runContext, executor, inFlight, clients, rUrl, authHeader, commonForm, chunk, recipients, sids, failure);
+                    requests++;
+                }
+            }
+
+            inFlight.acquire(rConcurrency);
+        } finally {
+            executor.shutdownNow();
+            for (HttpClient client : clients) {
+                client.close();
+            }
+        }
+
+        runContext.metric(Counter.of("recipients", recipients.get()));
+        runContext.metric(Counter.of("requests", requests));
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        runContext.logger().info("Sent Twilio notifications to {} recipients in {} requests", recipients.get(), requests);
+
+        return Output.builder()
+            .recipients(recipients.get())
+            .requests(requests)
+            .notificationSids(List.copyOf(sids))
+            .build();
+    }
+
+    private void submit(
+        RunContext runContext,
+        ExecutorService executor,
+        Semaphore inFlight,
+        BlockingQueue<HttpClient> clients,
+        URI url,
+        String authHeader,
+        String commonForm,
+        List<String> chunk,
+        AtomicLong recipients,
+        List<String> sids,
+        AtomicReference<Exception> failure
+    ) throws InterruptedException {
+        inFlight.acquire();
+
+        executor.submit(() -> {
+            HttpClient client = null;
+            try {
+                client = clients.take();
+
+                var request = createRequestBuilder(runContext)
+                    .addHeader("Authorization", authHeader)
+                    .uri(url)
+                    .method("POST")
+                    .body(HttpRequest.StringRequestBody.builder()
+                        .contentType("application/x-www-form-urlencoded")
+                        .charset(StandardCharsets.UTF_8)
+                        .content(commonForm + "&" + String.join("&", chunk))
+                        .build())
+                    .build();
+
+                HttpResponse<String> response;
+                try {
+                    response = client.request(request, String.class);
+                } catch (HttpClientResponseException e) {
+                    throw new RuntimeException(
+                        "Twilio Notify API returned HTTP " + e.getResponse().getStatus().getCode() + ": " + e.getResponse().getBody(),
+                        e
+                    );
+                }
+
+                var parsed = MAPPER.readValue(response.getBody(), NotificationResponse.class);
+                if (parsed.getSid() != null) {
+                    sids.add(parsed.getSid());
+                }
+                recipients.addAndGet(chunk.size());
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                if (client != null) {
+                    clients.add(client);
+                }
+                inFlight.release();
+            }
+        });
+    }
+
+    private static String binding(Object row, String defaultBindingType) throws Exception {
+        Map<String, Object> binding = new LinkedHashMap<>();
+
+        if (row instanceof Map<?, ?> map) {
+            Object address = map.get("address");
+            if (address == null) {
+                throw new IllegalArgumentException("Binding rows must have an `address` field: " + row);
+            }
+
+            binding.put("binding_type", map.get("binding_type") != null ? map.get("binding_type").toString() : defaultBindingType);
+            binding.put("address", address.toString());
+        } else if (row != null) {
+            binding.put("binding_type", defaultBindingType);
+            binding.put("address", row.toString());
+        } else {
+            throw new IllegalArgumentException("Recipient rows can't be null");
+        }
+
+        return MAPPER.writeValueAsString(binding);
+    }
+
+    private static String identity(Object row) {
+        Object identity = row instanceof Map<?, ?> map ? map.get("identity") : row;
+
+        if (identity == null) {
+            throw new IllegalArgumentException("Identity rows must be a string or have an `identity` field: " + row);
+        }
+
+        return identity.toString();
+    }
+
+    public enum RecipientType {
+        BINDING,
+        IDENTITY
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Number of recipients accepted by Twilio")
+        private final Long recipients;
+
+        @Schema(title = "Number of Notify requests sent")
+        private final Long requests;
+
+        @Schema(title = "SIDs of the notifications created by Twilio")
+        private final List<String> notificationSids;
+    }
+
+    @Getter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class NotificationResponse {
+        private String sid;
+    }
+}
@@ -1,18 +1,25 @@
 package io.kestra.plugin.twilio.notify;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.plugins.notifications.ExecutionInterface;
-import io.kestra.core.plugins.notifications.ExecutionService;
 import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.twilio.utils.ExecutionMapCache;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
 import io.kestra.core.models.annotations.PluginProperty;
 
 @SuperBuilder
@@ -54,6 +61,35 @@ import io.kestra.core.models.annotations.PluginProperty;
                         namespace: prod
                         prefix: true
                 """
+        ),
+        @Example(
+            title = "Coalesce failures of a namespace into at most one Twilio notification per 5 minutes.",
+            full = true,
+            code = """
+                id: failure_digest
+                namespace: company.team
+
+                tasks:
+                  - id: send_digest
+                    type: io.kestra.plugin.twilio.notify.TwilioExecution
+                    url: "{{ secret('TWILIO_NOTIFICATION_URL') }}"
+                    accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                    authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                    identity: 0000001
+                    executionId: "{{ trigger.executionId }}"
+                    digest:
+                      groupKey: "{{ trigger.namespace }}"
+                      window: PT5M
+                      maxCount: 100
+
+                triggers:
+                  - id: failed_prod_workflows
+                    type: io.kestra.plugin.core.trigger.Flow
+                    conditions:
+                      - type: io.kestra.plugin.core.condition.ExecutionStatus
+                        in:
+                          - FAILED
+                """
         )
     },
     aliases = "io.kestra.plugin.notifications.twilio.TwilioExecution"
@@ -81,11 +117,129 @@ public class TwilioExecution extends TwilioTemplate implements ExecutionInterfac
     @PluginProperty(group = "advanced")
     private Property<String> customMessage;
 
+    @Schema(
+        title = "Maximum task runs",
+        description = """
+            When set, only the last task runs are kept in the template context, as `execution.taskRunList` and as the failed ones in `failedTasks`; \
+            `taskRunCount` holds the total, and the kept task runs don't include their outputs. \
+            This only caps the template context, the execution is still fetched in full. By default every task run is kept."""
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxTaskRuns;
+
+    @Schema(
+        title = "Digest",
+        description = """
+            Coalesces notifications sharing the same group key into one summarized message per window, to avoid alert storms.
+            The first notification of a window waits for it to elapse before sending the digest, holding a worker thread meanwhile, so keep windows short; \
+            a digest is sent earlier once `maxCount` notifications are buffered.
+            Each buffered notification is kept under a key of its own in the KV store of the flow namespace, so concurrent notifications are never lost."""
+    )
+    @PluginProperty(group = "advanced")
+    private Digest digest;
+
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
-        this.templateUri = Property.ofValue("twilio-template.peb");
-        this.templateRenderMap = Property.ofValue(ExecutionService.executionMap(runContext, this));
+        if (digest == null) {
+            return super.run(runContext);
+        }
 
-        return super.run(runContext);
+        String rGroupKey = runContext.render(digest.getGroupKey()).as(String.class).orElseThrow();
+        Duration rWindow = runContext.render(digest.getWindow()).as(Duration.class).orElse(Duration.ofMinutes(1));
+        int rMaxCount = runContext.render(digest.getMaxCount()).as(Integer.class).orElse(50);
+        int rMaxLines = runContext.render(digest.getMaxLines()).as(Integer.class).orElse(10);
+
+        Map<String, Object> executionMap = renderTemplateMap(runContext);
+
+        Optional<NotificationDigest.Buffer> buffer = new NotificationDigest(runContext, rGroupKey, rWindow, rMaxCount)
+            .append(summary(executionMap));
+
+        if (buffer.isEmpty()) {
+            runContext.logger().info("Notification buffered in digest '{}'", rGroupKey);
+            return null;
+        }
+
+        List<Map<String, Object>> entries = buffer.get().entries();
+        if (entries.size() == 1) {
+            // nothing else happened during the window, send the regular notification
+            return send(runContext, renderPayload(runContext, renderTemplateUri(runContext), executionMap));
+        }
+
+        Map<String, Object> digestMap = new LinkedHashMap<>();
+        digestMap.put("groupKey", rGroupKey);
+        digestMap.put("openedAt", Instant.ofEpochMilli(buffer.get().openedAt()).toString());
+        digestMap.put("count", entries.size());
+        digestMap.put("entries", entries.subList(0, Math.min(entries.size(), rMaxLines)));
+        digestMap.put("omitted", Math.max(0, entries.size() - rMaxLines));
+
+        runContext.logger().info("Sending digest '{}' of {} notifications", rGroupKey, entries.size());
+
+        return send(runContext, renderPayload(runContext, Optional.of("twilio-digest-template.peb"), digestMap));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> summary(Map<String, Object> executionMap) {
+        Map<String, Object> execution = (Map<String, Object>) executionMap.getOrDefault("execution", Map.of());
+        Object state = execution.get("state") instanceof Map<?, ?> stateMap ? stateMap.get("current") : null;
+        Object failedTaskId = executionMap.get("firstFailed") instanceof Map<?, ?> firstFailed ? firstFailed.get("taskId") : null;
+
+        // every key is always present so that the template can be rendered with strict variables
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", String.valueOf(execution.getOrDefault("id", "")));
+        summary.put("namespace", String.valueOf(execution.getOrDefault("namespace", "")));
+        summary.put("flowId", String.valueOf(execution.getOrDefault("flowId", "")));
+        summary.put("state", state != null ? state.toString() : "");
+        summary.put("failedTaskId", failedTaskId != null ? failedTaskId.toString() : "");
+        summary.put("duration", String.valueOf(executionMap.getOrDefault("duration", "")));
+        summary.put("link", String.valueOf(executionMap.getOrDefault("link", "")));
+
+        return summary;
+    }
+
+    @Override
+    protected Optional<String> renderTemplateUri(RunContext runContext) {
+        return Optional.of("twilio-template.peb");
+    }
+
+    @Override
+    protected Map<String, Object> renderTemplateMap(RunContext runContext) throws Exception {
+        return ExecutionMapCache.executionMap(runContext, this, runContext.render(maxTaskRuns).as(Integer.class).orElse(null));
+    }
+
+    @Getter
+    @Builder
+    @Jacksonized
+    public static class Digest {
+        @Schema(
+            title = "Group key",
+            description = "Notifications rendering the same key are coalesced together, e.g. `{{ trigger.namespace }}`"
+        )
+        @NotNull
+        @PluginProperty(group = "main")
+        private Property<String> groupKey;
+
+        @Schema(
+            title = "Window",
+            description = "How long notifications are buffered before the digest is sent; defaults to 1 minute"
+        )
+        @Builder.Default
+        @PluginProperty(group = "main")
+        private Property<Duration> window = Property.ofValue(Duration.ofMinutes(1));
+
+        @Schema(
+            title = "Maximum count",
+            description = "Number of buffered notifications that triggers the digest before the window elapses; defaults to 50"
+        )
+        @Builder.Default
+        @PluginProperty(group = "advanced")
+        private Property<Integer> maxCount = Property.ofValue(50);
+
+        @Schema(
+            title = "Maximum lines",
+            description = "Number of executions listed in the digest body, the others are only counted; defaults to 10"
+        )
+        @Builder.Default
+        @PluginProperty(group = "advanced")
+        private Property<Integer> maxLines = Property.ofValue(10);
     }
 }
@@ -4,6 +4,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 import org.apache.commons.io.IOUtils;
 
@@ -62,39 +63,52 @@ public abstract class TwilioTemplate extends TwilioAlert {
     @PluginProperty(group = "advanced")
     protected Property<String> tag;
 
-    @SuppressWarnings("unchecked")
     @Override
     public VoidOutput run(RunContext runContext) throws Exception {
+        return send(runContext, renderPayload(runContext, renderTemplateUri(runContext), renderTemplateMap(runContext)));
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Map<String, Object> renderPayload(RunContext runContext, Optional<String> templateUri, Map<String, Object> templateMap) throws Exception {
         Map<String, Object> map = new HashMap<>();
 
-        final var renderedTemplateUri = runContext.render(this.templateUri).as(String.class);
-        if (renderedTemplateUri.isPresent()) {
+        if (templateUri.isPresent()) {
             String template = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTemplateUri.get())),
+                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(templateUri.get())),
                 StandardCharsets.UTF_8
             );
 
-            String render = runContext.render(
-                template, templateRenderMap != null ? runContext.render(templateRenderMap).asMap(String.class, Object.class) : Map.of()
-            );
+            String render = runContext.render(template, templateMap);
             map = (Map<String, Object>) JacksonMapper.ofJson().readValue(render, Object.class);
         }
 
-        if (runContext.render(this.body).as(String.class).isPresent()) {
-            map.put("Body", runContext.render(this.body).as(String.class).get());
+        final var renderedBody = runContext.render(this.body).as(String.class);
+        if (renderedBody.isPresent()) {
+            map.put("Body", renderedBody.get());
         }
 
-        if (runContext.render(this.identity).as(String.class).isPresent()) {
-            map.put("Identity", runContext.render(this.identity).as(String.class).get());
+        final var renderedIdentity = runContext.render(this.identity).as(String.class);
+        if (renderedIdentity.isPresent()) {
+            map.put("Identity", renderedIdentity.get());
         }
 
-        if (runContext.render(this.tag).as(String.class).isPresent()) {
-            map.put("Tag", runContext.render(this.tag).as(String.class).get());
+        final var renderedTag = runContext.render(this.tag).as(String.class);
+        if (renderedTag.isPresent()) {
+            map.put("Tag", renderedTag.get());
         }
 
-        this.payload = Property.ofValue(JacksonMapper.ofJson().writeValueAsString(map));
+        runContext.logger().debug("Send Twilio notification: {}", map);
+
+        return map;
+    }
+
+    // Resolved per run rather than stored on the task, so a single instance can run concurrently; subclasses supply their bundled template here.
+    protected Optional<String> renderTemplateUri(RunContext runContext) throws Exception {
+        return runContext.render(this.templateUri).as(String.class);
+    }
 
-        return super.run(runContext);
+    protected Map<String, Object> renderTemplateMap(RunContext runContext) throws Exception {
+        return templateRenderMap != null ? runContext.render(templateRenderMap).asMap(String.class, Object.class) : Map.of();
     }
 
 }
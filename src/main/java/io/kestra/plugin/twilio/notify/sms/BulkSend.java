@@ -0,0 +1,577 @@
+package io.kestra.plugin.twilio.notify.sms;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.http.client.HttpClientException;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.twilio.notify.AbstractMessageConnection;
+import io.kestra.plugin.twilio.notify.AbstractMessageSend;
+import io.kestra.plugin.twilio.utils.AdaptiveConcurrencyLimiter;
+import io.kestra.plugin.twilio.utils.BulkCheckpoint;
+import io.kestra.plugin.twilio.utils.DistributedRateLimiter;
+import io.kestra.plugin.twilio.utils.LongHashSet;
+import io.kestra.plugin.twilio.utils.PhoneNumbers;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Send an SMS to every recipient of a file via Twilio Programmable Messaging",
+    description = """
+        Reads recipients from an ION file in Kestra internal storage and creates one message per recipient through the Twilio Messages API.
+        Each row is either a phone number or an object with a `to` field and an optional `body` overriding the task `body`.
+        Requests are sent concurrently; set `maxConcurrency` to let the number of requests in flight adapt to the capacity Twilio actually grants,
+        growing while responses are fast and healthy and halving on HTTP 429, 5xx or latency spikes.
+        The outcome of every recipient is written to the output file; rejected recipients don't fail the task.
+        Progress is checkpointed in the namespace KV store, so a retried or restarted task skips the recipients already handled.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send an SMS to every phone number of a file, adapting concurrency up to 32 requests in flight.",
+            full = true,
+            code = """
+                id: sms_campaign
+                namespace: company.team
+
+                inputs:
+                  - id: recipients
+                    type: FILE
+
+                tasks:
+                  - id: send_sms
+                    type: io.kestra.plugin.twilio.notify.sms.BulkSend
+                    accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                    authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                    from: "{{ secret('TWILIO_MESSAGING_SERVICE_SID') }}"
+                    recipients: "{{ inputs.recipients }}"
+                    body: "Our store opens at 9am tomorrow."
+                    concurrency: 4
+                    maxConcurrency: 32
+                """
+        ),
+        @Example(
+            title = "Spread an SMS campaign over several long codes, each sending at most one message per second.",
+            full = true,
+            code = """
+                id: sms_campaign_pool
+                namespace: company.team
+
+                inputs:
+                  - id: recipients
+                    type: FILE
+
+                tasks:
+                  - id: send_sms
+                    type: io.kestra.plugin.twilio.notify.sms.BulkSend
+                    accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                    authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                    fromPool:
+                      - "+15005550001"
+                      - "+15005550002"
+                      - "+15005550003"
+                    fromPoolStrategy: STICKY
+                    maxMessagesPerSecond: 1
+                    recipients: "{{ inputs.recipients }}"
+                    body: "Your appointment is confirmed for tomorrow."
+                """
+        )
+    }
+)
+public class BulkSend extends AbstractMessageConnection implements RunnableTask<BulkSend.Output> {
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    @Schema(
+        title = "Recipients file",
+        description = "URI of an ION file in Kestra internal storage holding one recipient per row"
+    )
+    @NotNull
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> recipients;
+
+    @Schema(
+        title = "Concurrency",
+        description = "Number of requests kept in flight, or the starting point when `maxConcurrency` is set; defaults to 4"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Maximum concurrency",
+        description = "Enables adaptive concurrency: the number of requests in flight then varies between 1 and this value"
+    )
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxConcurrency;
+
+    @Schema(
+        title = "Maximum retries",
+        description = "Number of times a message rejected with HTTP 429 or 5xx, or failing with a network error, is retried with exponential backoff; defaults to 3"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxRetries = Property.ofValue(3);
+
+    @Schema(
+        title = "Checkpoint interval",
+        description = """
+            How often progress is saved to the namespace KV store, so that a retried or restarted task resumes where the previous attempt stopped \
+            instead of sending again; after a worker crash, at most this interval of messages is sent twice. Defaults to 10 seconds."""
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Duration> checkpointInterval = Property.ofValue(Duration.ofSeconds(10));
+
+    @Schema(
+        title = "Checkpoint key",
+        description = "Identifies the send across attempts; defaults to the execution and task run, set it to resume a send from another execution"
+    )
+    @PluginProperty(group = "execution")
+    private Property<String> checkpointKey;
+
+    @Schema(
+        title = "Deduplicate recipients",
+        description = """
+            Sends one message per phone number, whatever its formatting, e.g. `+1 (555) 555-0100` and `+15555550100`; later rows of a number are dropped. \
+            Numbers are kept off-heap as 7-byte integers, about 90 MB for 10 million recipients."""
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<Boolean> deduplicate = Property.ofValue(false);
+
+    @Schema(
+        title = "Store dropped duplicates",
+        description = "Writes the rows dropped by `deduplicate` to the `duplicatesUri` output file"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> storeDuplicates = Property.ofValue(false);
+
+    @Override
+    protected DistributedRateLimiter.Priority defaultPriority() {
+        return DistributedRateLimiter.Priority.BULK;
+    }
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rAccountSID = renderAccountSID(runContext);
+        var authHeader = authorizationHeader(runContext, rAccountSID);
+        var rBody = runContext.render(getBody()).as(String.class).orElseThrow(() -> new IllegalArgumentException("body is required"));
+        var rRecipients = URI.create(runContext.render(recipients).as(String.class).orElseThrow());
+        var rConcurrency = Math.max(1, runContext.render(concurrency).as(Integer.class).orElse(4));
+        var rMaxConcurrency = runContext.render(maxConcurrency).as(Integer.class);
+        var rMaxRetries = runContext.render(maxRetries).as(Integer.class).orElse(3);
+        var url = messagesUrl(rAccountSID);
+        var rCheckpointKey = runContext.render(checkpointKey).as(String.class)
+            .or(() -> BulkCheckpoint.defaultName(runContext))
+            .orElse(rRecipients.toString());
+        var rDeduplicate = runContext.render(deduplicate).as(Boolean.class).orElse(false);
+        var rStoreDuplicates = rDeduplicate && runContext.render(storeDuplicates).as(Boolean.class).orElse(false);
+        var checkpoint = BulkCheckpoint.load(runContext, rCheckpointKey, runContext.render(checkpointInterval).as(Duration.class).orElse(Duration.ofSeconds(10)));
+
+        List<String> extraParameters = new ArrayList<>();
+        additionalFormParameters(runContext, extraParameters);
+
+        AdaptiveConcurrencyLimiter limiter = rMaxConcurrency
+            .map(max -> new AdaptiveConcurrencyLimiter(rConcurrency, 1, max))
+            .orElseGet(() -> AdaptiveConcurrencyLimiter.fixed(rConcurrency));
+        Senders senders = senders(runContext, rAccountSID);
+        var normalizer = recipientNormalizer(runContext);
+        var suppressions = suppressionIndex(runContext);
+        Map<String, AtomicLong> sentBySender = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(rConcurrency, rMaxConcurrency.orElse(rConcurrency)));
+        BlockingQueue<HttpClient> clients = new LinkedBlockingQueue<>();
+        List<HttpClient> allClients = new ArrayList<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong retries = new AtomicLong();
+        AtomicLong segments = new AtomicLong();
+
+        File results = runContext.workingDir().createTempFile(".ion").toFile();
+        File duplicates = rStoreDuplicates ? runContext.workingDir().createTempFile(".ion").toFile() : null;
+        LongHashSet seen = rDeduplicate ? new LongHashSet(countRows(runContext, rRecipients)) : null;
+        long duplicateCount = 0;
+        long invalidCount = 0;
+        long suppressedCount = 0;
+
+        try (
+            OutputStream output = new FileOutputStream(results);
+            OutputStream duplicatesOutput = duplicates != null ? new BufferedOutputStream(new FileOutputStream(duplicates)) : OutputStream.nullOutputStream();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rRecipients), StandardCharsets.UTF_8))
+        ) {
+            ResultSink sink = result -> {
+                synchronized (output) {
+                    FileSerde.write(output, result);
+                }
+            };
+
+            try {
+                long index = 0;
+                for (Object row : FileSerde.readAll(reader).toIterable()) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+
+                    long rowHash = BulkCheckpoint.hash(index, row);
+                    String to = Recipient.to(row);
+                    var number = to != null ? normalizer.apply(to) : null;
+                    if (checkpoint.skip(index, rowHash)) {
+                        // rows sent by an earlier attempt still count as seen
+                        if (seen != null && number != null && number.valid()) {
+                            seen.add(PhoneNumbers.key(number.number()));
+                        }
+                        index++;
+                        continue;
+                    }
+
+                    if (to == null) {
+                        String text = row != null ? row.toString() : null;
+                        sink.write(new Recipient(index, rowHash, text, null, null).result(null, null, "Invalid row: recipient rows must be a phone number or have a `to` field"));
+                        checkpoint.drop(index++, rowHash);
+                        invalidCount++;
+                        continue;
+                    }
+
+                    // rejected locally, so it costs neither a request nor a rate-limit token
+                    if (!number.valid()) {
+                        sink.write(new Recipient(index, rowHash, to, null, null).result(null, null, "Invalid number: " + number.error()));
+                        checkpoint.drop(index++, rowHash);
+                        invalidCount++;
+                        continue;
+                    }
+
+                    if (suppressions != null && suppressions.contains(PhoneNumbers.key(number.number()))) {
+                        sink.write(new Recipient(index, rowHash, number.number(), null, null).result(null, AbstractMessageSend.SUPPRESSED, null));
+                        checkpoint.drop(index++, rowHash);
+                        suppressedCount++;
+                        continue;
+                    }
+
+                    if (seen != null && !seen.add(PhoneNumbers.key(number.number()))) {
+                        if (rStoreDuplicates) {
+                            FileSerde.write(duplicatesOutput, row);
+                        }
+                        checkpoint.drop(index++, rowHash);
+                        duplicateCount++;
+                        continue;
+                    }
+
+                    Recipient recipient = Recipient.of(index++, rowHash, row, number.number(), rBody, senders);
+                    List<String> form = new ArrayList<>();
+                    form.add(formPair("From", recipient.from()));
+                    form.add(formPair("To", recipient.to()));
+                    form.add(formPair("Body", recipient.body()));
+                    form.addAll(extraParameters);
+
+                    limiter.acquire();
+                    executor.submit(() -> {
+                        try {
+                            HttpClient client = clients.poll();
+                            if (client == null) {
+                                client = new HttpClient(runContext, httpClientConfigurationWithOptions());
+                                synchronized (allClients) {
+                                    allClients.add(client);
+                                }
+                            }
+
+                            try {
+                                send(runContext, client, url, authHeader, form, recipient, limiter, senders, rMaxRetries, sink, checkpoint, sentBySender, failed, retries, segments);
+                            } finally {
+                                clients.add(client);
+                            }
+                        } catch (Exception e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            limiter.release();
+                        }
+                    });
+                }
+            } finally {
+                executor.shutdown();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        } catch (Exception e) {
+            checkpoint.save();
+            throw e;
+        } finally {
+            executor.shutdownNow();
+            for (HttpClient client : allClients) {
+                client.close();
+            }
+        }
+
+        for (Map.Entry<String, AtomicLong> entry : sentBySender.entrySet()) {
+            runContext.metric(Counter.of("sent", entry.getValue().get(), "from", entry.getKey()));
+        }
+        runContext.metric(Counter.of("failed", failed.get()));
+        runContext.metric(Counter.of("invalid", invalidCount));
+        if (suppressions != null) {
+            runContext.metric(Counter.of("suppressed", suppressedCount));
+        }
+        if (seen != null) {
+            runContext.metric(Counter.of("duplicates", duplicateCount));
+        }
+        runContext.metric(Counter.of("retries", retries.get()));
+        runContext.metric(Counter.of("segments", segments.get()));
+
+        if (failure.get() != null) {
+            checkpoint.save();
+            throw failure.get();
+        }
+
+        checkpoint.clear();
+
+        runContext.logger().info(
+            "Sent {} messages, {} rejected, {} invalid numbers, {} suppressed, {} duplicates dropped, {} retries, {} rows resumed from an earlier attempt; final concurrency {}",
+            checkpoint.sent(), checkpoint.failed(), invalidCount, suppressedCount, duplicateCount, retries.get(), checkpoint.resumedRows(), limiter.limit()
+        );
+
+        return Output.builder()
+            .uri(runContext.storage().putFile(results))
+            .sent(checkpoint.sent())
+            .failed(checkpoint.failed())
+            .resumed(checkpoint.resumedRows())
+            .invalid(invalidCount)
+            .suppressed(suppressions != null ? suppressedCount : null)
+            .duplicates(seen != null ? duplicateCount : null)
+            .duplicatesUri(duplicates != null ? runContext.storage().putFile(duplicates) : null)
+            .build();
+    }
+
+    private void send(
+        RunContext runContext,
+        HttpClient client,
+        String url,
+        String authHeader,
+        List<String> form,
+        Recipient recipient,
+        AdaptiveConcurrencyLimiter limiter,
+        Senders senders,
+        int maxRetries,
+        ResultSink sink,
+        BulkCheckpoint checkpoint,
+        Map<String, AtomicLong> sentBySender,
+        AtomicLong failed,
+        AtomicLong retries,
+        AtomicLong segments
+    ) throws Exception {
+        // the slot acquired by the caller is kept during retries, so that backing off never waits on other recipients
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(Math.min(MAX_BACKOFF.toMillis(), 1000L << Math.min(attempt - 1, 10)));
+            }
+
+            boolean overloaded = false;
+            String error;
+            long start = System.nanoTime();
+
+            try {
+                acquireSender(senders, recipient.from());
+                start = System.nanoTime();
+
+                HttpResponse<String> response = postMessage(runContext, client, url, authHeader, form);
+                if (response.getStatus().getCode() != 201) {
+                    // the message may still have been created, so it isn't sent again
+                    fail(recipient, "HTTP " + response.getStatus().getCode() + ": " + response.getBody(), sink, checkpoint, failed);
+                    return;
+                }
+
+                MessageResponse message;
+                try {
+                    message = JacksonMapper.ofJson().readValue(response.getBody(), MessageResponse.class);
+                } catch (JsonProcessingException e) {
+                    fail(recipient, "Unreadable response of a created message: " + e.getOriginalMessage(), sink, checkpoint, failed);
+                    return;
+                }
+
+                Map<String, Object> result = recipient.result(message.getSid(), message.getStatus(), null);
+                result.put("segments", message.getNumSegments());
+                sink.write(result);
+                if (message.getNumSegments() != null) {
+                    segments.addAndGet(message.getNumSegments());
+                }
+                sentBySender.computeIfAbsent(recipient.from(), from -> new AtomicLong()).incrementAndGet();
+                checkpoint.complete(recipient.index(), recipient.hash(), true);
+                return;
+            } catch (HttpClientResponseException e) {
+                int statusCode = e.getResponse() != null ? e.getResponse().getStatus().getCode() : 0;
+                overloaded = AdaptiveConcurrencyLimiter.isOverload(statusCode);
+                error = "HTTP " + statusCode + ": " + (e.getResponse() != null ? e.getResponse().getBody() : e.getMessage());
+
+                if (!overloaded) {
+                    fail(recipient, error, sink, checkpoint, failed);
+                    return;
+                }
+            } catch (HttpClientException | IOException e) {
+                // network errors, and errors of the KV store behind the rate limit, are retried like an overload
+                overloaded = true;
+                error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            } finally {
+                limiter.onResponse(System.nanoTime() - start, overloaded);
+            }
+
+            if (attempt >= maxRetries) {
+                fail(recipient, error, sink, checkpoint, failed);
+                return;
+            }
+
+            retries.incrementAndGet();
+        }
+    }
+
+    private static void fail(Recipient recipient, String error, ResultSink sink, BulkCheckpoint checkpoint, AtomicLong failed) throws Exception {
+        sink.write(recipient.result(null, null, error));
+        failed.incrementAndGet();
+        checkpoint.complete(recipient.index(), recipient.hash(), false);
+    }
+
+    private static void acquireSender(Senders senders, String from) throws Exception {
+        try {
+            senders.acquire(from);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Rate limit unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    // number of lines, i.e. of rows in ION files written by Kestra, to size the deduplication set without parsing the file twice
+    private static long countRows(RunContext runContext, URI uri) throws Exception {
+        long rows = 0;
+        byte[] buffer = new byte[64 * 1024];
+
+        try (InputStream input = runContext.storage().getFile(uri)) {
+            for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        rows++;
+                    }
+                }
+            }
+        }
+
+        return rows + 1;
+    }
+
+    private record Recipient(long index, long hash, String to, String body, String from) {
+        static Recipient of(long index, long hash, Object row, String to, String defaultBody, Senders senders) {
+            String body = row instanceof Map<?, ?> map && map.get("body") != null ? map.get("body").toString() : defaultBody;
+
+            return new Recipient(index, hash, to, body, senders.select(to));
+        }
+
+        // null for rows that aren't a recipient, e.g. null rows or objects without `to`
+        static String to(Object row) {
+            if (row instanceof Map<?, ?> map) {
+                return map.get("to") != null ? map.get("to").toString() : null;
+            }
+
+            return row != null ? row.toString() : null;
+        }
+
+        Map<String, Object> result(String sid, String status, String error) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", index);
+            result.put("to", to);
+            result.put("from", from);
+            result.put("sid", sid);
+            result.put("status", status);
+            result.put("error", error);
+
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultSink {
+        void write(Map<String, Object> result) throws Exception;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Results file",
+            description = "ION file with one row per recipient: `index`, `to`, `from`, `sid`, `status`, `error` for rejected recipients and `segments` for sent ones"
+        )
+        private final URI uri;
+
+        @Schema(title = "Number of messages accepted by Twilio")
+        private final Long sent;
+
+        @Schema(title = "Number of recipients rejected by Twilio", description = "Including recipients still failing with a network error or HTTP 429 or 5xx once `maxRetries` is reached")
+        private final Long failed;
+
+        @Schema(
+            title = "Number of resumed rows",
+            description = "Rows handled by an earlier attempt and skipped; they are counted in `sent` and `failed` but not in the results file"
+        )
+        private final Long resumed;
+
+        @Schema(
+            title = "Number of invalid numbers",
+            description = "Rows without a recipient, and recipients rejected by `normalizeNumbers`, skipped without calling Twilio; they are in the results file with their `error`"
+        )
+        private final Long invalid;
+
+        @Schema(
+            title = "Number of suppressed recipients",
+            description = "Recipients of the `suppressionList` skipped without a request, with the `suppressed` status in the results file; only set when `suppressionList` is"
+        )
+        private final Long suppressed;
+
+        @Schema(title = "Number of duplicate recipients dropped", description = "Only set when `deduplicate` is enabled")
+        private final Long duplicates;
+
+        @Schema(title = "Dropped duplicates file", description = "ION file with the rows dropped as duplicates, when `storeDuplicates` is enabled")
+        private final URI duplicatesUri;
+    }
+}
@@ -0,0 +1,224 @@
+package io.kestra.plugin.twilio.notify.sms;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.plugin.twilio.notify.AbstractMessageConnection;
+import io.kestra.plugin.twilio.utils.PhoneNumbers;
+import io.kestra.plugin.twilio.utils.SuppressionIndex;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Add or remove opted-out phone numbers of an SMS suppression list",
+    description = """
+        Maintains a named list of phone numbers that the SMS and MMS tasks skip when their `suppressionList` is set,
+        so numbers that replied STOP don't cost a request answered by Twilio error 21610.
+        Numbers are added from a file in Kestra internal storage or from `add`, e.g. the sender of an inbound STOP message, and removed with `remove`, e.g. on START.
+        The list is saved as an index in the namespace KV store, so it outlives the execution that updated it;
+        run updates of a list one at a time, e.g. with a flow concurrency limit of 1, as concurrent updates overwrite each other.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Add the sender of an inbound STOP message to the suppression list, and remove it on any other keyword such as START.",
+            full = true,
+            code = """
+                id: sms_opt_out
+                namespace: company.team
+
+                concurrency:
+                  limit: 1
+
+                inputs:
+                  - id: from
+                    type: STRING
+                  - id: keyword
+                    type: STRING
+
+                tasks:
+                  - id: keyword
+                    type: io.kestra.plugin.core.flow.If
+                    condition: "{{ inputs.keyword | trim | upper == 'STOP' }}"
+                    then:
+                      - id: opt_out
+                        type: io.kestra.plugin.twilio.notify.sms.UpdateSuppressions
+                        suppressionList: marketing
+                        add:
+                          - "{{ inputs.from }}"
+                    else:
+                      - id: opt_in
+                        type: io.kestra.plugin.twilio.notify.sms.UpdateSuppressions
+                        suppressionList: marketing
+                        remove:
+                          - "{{ inputs.from }}"
+                """
+        ),
+        @Example(
+            title = "Rebuild the suppression list from an export of opted-out numbers.",
+            full = true,
+            code = """
+                id: sms_opt_out_import
+                namespace: company.team
+
+                inputs:
+                  - id: opt_outs
+                    type: FILE
+
+                tasks:
+                  - id: import
+                    type: io.kestra.plugin.twilio.notify.sms.UpdateSuppressions
+                    suppressionList: marketing
+                    from: "{{ inputs.opt_outs }}"
+                    defaultCountryCode: "1"
+                    replace: true
+                """
+        )
+    }
+)
+public class UpdateSuppressions extends Task implements RunnableTask<UpdateSuppressions.Output> {
+    @Schema(
+        title = "Suppression list",
+        description = "Name of the list, as set in the `suppressionList` property of the sending tasks"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> suppressionList;
+
+    @Schema(
+        title = "Numbers file",
+        description = "URI of an ION file in Kestra internal storage holding one phone number per row, or objects with a `to` field, to add to the list"
+    )
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(title = "Numbers to add")
+    @PluginProperty(group = "main")
+    private Property<List<String>> add;
+
+    @Schema(title = "Numbers to remove", description = "Applied after the numbers added, so a number both added and removed is not in the list")
+    @PluginProperty(group = "main")
+    private Property<List<String>> remove;
+
+    @Schema(
+        title = "Replace the list",
+        description = "Starts from an empty list instead of the latest version, e.g. to rebuild it from a full export"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> replace = Property.ofValue(false);
+
+    @Schema(
+        title = "Default country code",
+        description = "Calling code of numbers written without an international prefix, e.g. `1` or `+44`; numbers are matched in their international format"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> defaultCountryCode;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rSuppressionList = runContext.render(suppressionList).as(String.class).orElseThrow();
+        var rAdd = runContext.render(add).asList(String.class);
+        var rRemove = runContext.render(remove).asList(String.class);
+        var rReplace = runContext.render(replace).as(Boolean.class).orElse(false);
+        var rDefaultCountryCode = runContext.render(defaultCountryCode).as(String.class).orElse(null);
+        var kvKey = AbstractMessageConnection.suppressionKvKey(rSuppressionList);
+
+        long[] added = new long[Math.max(16, rAdd.size())];
+        int addedCount = 0;
+
+        if (from != null) {
+            var rFrom = URI.create(runContext.render(from).as(String.class).orElseThrow());
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rFrom), StandardCharsets.UTF_8))) {
+                for (Object row : FileSerde.readAll(reader).toIterable()) {
+                    Object number = row instanceof Map<?, ?> map ? map.get("to") : row;
+                    if (number == null) {
+                        continue;
+                    }
+
+                    if (addedCount == added.length) {
+                        added = Arrays.copyOf(added, added.length * 2);
+                    }
+                    added[addedCount++] = key(number.toString(), rDefaultCountryCode);
+                }
+            }
+        }
+
+        for (String number : rAdd) {
+            if (addedCount == added.length) {
+                added = Arrays.copyOf(added, added.length * 2);
+            }
+            added[addedCount++] = key(number, rDefaultCountryCode);
+        }
+
+        long[] removed = rRemove.stream().mapToLong(number -> key(number, rDefaultCountryCode)).toArray();
+
+        SuppressionIndex previous = rReplace ? SuppressionIndex.empty() : SuppressionIndex.load(runContext, kvKey);
+        SuppressionIndex merged = previous.with(Arrays.copyOf(added, addedCount));
+        SuppressionIndex index = removed.length > 0 ? merged.without(removed) : merged;
+
+        URI uri = index.save(runContext, kvKey, "Twilio SMS suppression list " + rSuppressionList);
+
+        long newNumbers = merged.size() - previous.size();
+        long removedNumbers = merged.size() - index.size();
+
+        runContext.metric(Counter.of("size", index.size()));
+        runContext.metric(Counter.of("added", newNumbers));
+        runContext.metric(Counter.of("removed", removedNumbers));
+        runContext.logger().info("Suppression list '{}' has {} numbers: {} added, {} removed", rSuppressionList, index.size(), newNumbers, removedNumbers);
+
+        return Output.builder()
+            .uri(uri)
+            .size((long) index.size())
+            .added(newNumbers)
+            .removed(removedNumbers)
+            .build();
+    }
+
+    // same key as the sending tasks, whatever the formatting of the number
+    private static long key(String number, String defaultCountryCode) {
+        PhoneNumbers.Normalized normalized = PhoneNumbers.normalize(number, defaultCountryCode);
+
+        return PhoneNumbers.key(normalized.valid() ? normalized.number() : number);
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Index file", description = "Copy of the latest version of the list in internal storage; the sending tasks read the list from the namespace KV store")
+        private final URI uri;
+
+        @Schema(title = "Number of phone numbers in the list")
+        private final Long size;
+
+        @Schema(title = "Number of phone numbers added", description = "Numbers that weren't in the list yet")
+        private final Long added;
+
+        @Schema(title = "Number of phone numbers removed")
+        private final Long removed;
+    }
+}
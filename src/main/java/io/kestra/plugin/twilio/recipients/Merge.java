@@ -0,0 +1,139 @@
+package io.kestra.plugin.twilio.recipients;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Merge the result files of sharded bulk sends",
+    description = """
+        Concatenates ION files from Kestra internal storage, in the given order, into one ION file,
+        e.g. the result files of the `notify.sms.BulkSend` task runs that each sent a shard made by `recipients.Split`.
+        Files are copied as is, without parsing their rows.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Merge the results of the SMS sends of a `ForEach` over shards.",
+            full = true,
+            code = """
+                id: merge_results
+                namespace: company.team
+
+                inputs:
+                  - id: recipients
+                    type: FILE
+
+                tasks:
+                  - id: split
+                    type: io.kestra.plugin.twilio.recipients.Split
+                    from: "{{ inputs.recipients }}"
+                    shards: 8
+
+                  - id: each_shard
+                    type: io.kestra.plugin.core.flow.ForEach
+                    values: "{{ outputs.split.uris }}"
+                    concurrencyLimit: 8
+                    tasks:
+                      - id: send_sms
+                        type: io.kestra.plugin.twilio.notify.sms.BulkSend
+                        accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                        authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                        from: "{{ secret('TWILIO_MESSAGING_SERVICE_SID') }}"
+                        recipients: "{{ taskrun.value }}"
+                        body: "Your order has shipped."
+
+                  - id: merge
+                    type: io.kestra.plugin.twilio.recipients.Merge
+                    from: "{{ outputs.send_sms | jq('.[].uri') }}"
+                """
+        )
+    }
+)
+public class Merge extends Task implements RunnableTask<Merge.Output> {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Schema(
+        title = "Files to merge",
+        description = "URIs of ION files in Kestra internal storage"
+    )
+    @NotNull
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<List<String>> from;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rFrom = runContext.render(from).asList(String.class);
+
+        File merged = runContext.workingDir().createTempFile(".ion").toFile();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long rows = 0;
+
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(merged))) {
+            for (String uri : rFrom) {
+                int last = '\n';
+
+                try (InputStream input = runContext.storage().getFile(URI.create(uri))) {
+                    for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+                        output.write(buffer, 0, read);
+
+                        // ION files written by Kestra hold one row per line
+                        for (int i = 0; i < read; i++) {
+                            if (buffer[i] == '\n') {
+                                rows++;
+                            }
+                        }
+                        last = buffer[read - 1];
+                    }
+                }
+
+                if (last != '\n') {
+                    output.write('\n');
+                    rows++;
+                }
+            }
+        }
+
+        runContext.metric(Counter.of("files", rFrom.size()));
+        runContext.metric(Counter.of("rows", rows));
+
+        return Output.builder()
+            .uri(runContext.storage().putFile(merged))
+            .rows(rows)
+            .build();
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Merged file")
+        private final URI uri;
+
+        @Schema(title = "Number of rows merged")
+        private final Long rows;
+    }
+}
@@ -0,0 +1,258 @@
+package io.kestra.plugin.twilio.recipients;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.twilio.sendgrid.AbstractSendGridMail;
+import io.kestra.plugin.twilio.utils.PhoneNumbers;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Split a recipient file into shards",
+    description = """
+        Splits an ION file of recipients from Kestra internal storage into balanced shards, so that one campaign can be sent by several task runs,
+        e.g. one `notify.sms.BulkSend` or `sendgrid.SendGridBulkMailSend` per shard in a `ForEach` spread across the workers.
+        With the `COUNT` strategy, rows are dealt to the shards in turn, so shard sizes differ by at most one row.
+        With the `HASH` strategy, a recipient always lands in the same shard as long as the number of shards doesn't change,
+        so duplicates of a recipient end up in the same shard, however the number or the case of the address is written, and a rerun assigns recipients like the previous run.
+        Empty shards are left out of the outputs.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send an SMS campaign from four task runs and merge their results.",
+            full = true,
+            code = """
+                id: sharded_sms_campaign
+                namespace: company.team
+
+                inputs:
+                  - id: recipients
+                    type: FILE
+
+                tasks:
+                  - id: split
+                    type: io.kestra.plugin.twilio.recipients.Split
+                    from: "{{ inputs.recipients }}"
+                    shards: 4
+                    strategy: HASH
+
+                  - id: each_shard
+                    type: io.kestra.plugin.core.flow.ForEach
+                    values: "{{ outputs.split.uris }}"
+                    concurrencyLimit: 4
+                    tasks:
+                      - id: send_sms
+                        type: io.kestra.plugin.twilio.notify.sms.BulkSend
+                        accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                        authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                        from: "{{ secret('TWILIO_MESSAGING_SERVICE_SID') }}"
+                        recipients: "{{ taskrun.value }}"
+                        body: "Our store opens at 9am tomorrow."
+
+                  - id: merge
+                    type: io.kestra.plugin.twilio.recipients.Merge
+                    from: "{{ outputs.send_sms | jq('.[].uri') }}"
+                """
+        )
+    }
+)
+public class Split extends Task implements RunnableTask<Split.Output> {
+    private static final int MAX_SHARDS = 1000;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @Schema(
+        title = "Recipients file",
+        description = "URI of an ION file in Kestra internal storage holding one recipient per row"
+    )
+    @NotNull
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Number of shards",
+        description = "Between 1 and 1,000"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<Integer> shards;
+
+    @Schema(
+        title = "Split strategy",
+        description = "`COUNT` deals the rows in turn for equal shard sizes; `HASH` assigns each recipient to a shard from a hash of its key for a stable assignment"
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<Strategy> strategy = Property.ofValue(Strategy.COUNT);
+
+    @Schema(
+        title = "Key field",
+        description = "Field of object rows hashed by the `HASH` strategy; defaults to `to` or `email`, whichever the row has, and to the whole row otherwise"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> keyField;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rFrom = URI.create(runContext.render(from).as(String.class).orElseThrow());
+        var rShards = runContext.render(shards).as(Integer.class).orElseThrow();
+        var rStrategy = runContext.render(strategy).as(Strategy.class).orElse(Strategy.COUNT);
+        var rKeyField = runContext.render(keyField).as(String.class);
+
+        if (rShards < 1 || rShards > MAX_SHARDS) {
+            throw new IllegalArgumentException("shards must be between 1 and " + MAX_SHARDS);
+        }
+
+        File[] files = new File[rShards];
+        OutputStream[] outputs = new OutputStream[rShards];
+        long[] counts = new long[rShards];
+        long rows = 0;
+
+        try {
+            for (int i = 0; i < rShards; i++) {
+                files[i] = runContext.workingDir().createTempFile(".ion").toFile();
+                outputs[i] = new BufferedOutputStream(new FileOutputStream(files[i]));
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rFrom), StandardCharsets.UTF_8))) {
+                for (Object row : FileSerde.readAll(reader).toIterable()) {
+                    int shard = rStrategy == Strategy.HASH
+                        ? (int) Math.floorMod(mix(key(row, rKeyField.orElse(null))), (long) rShards)
+                        : (int) (rows % rShards);
+
+                    FileSerde.write(outputs[shard], row);
+                    counts[shard]++;
+                    rows++;
+                }
+            }
+        } finally {
+            for (OutputStream output : outputs) {
+                if (output != null) {
+                    output.close();
+                }
+            }
+        }
+
+        List<URI> uris = new ArrayList<>();
+        File manifest = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(manifest))) {
+            for (int i = 0; i < rShards; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+
+                URI uri = runContext.storage().putFile(files[i]);
+                uris.add(uri);
+
+                Map<String, Object> shard = new LinkedHashMap<>();
+                shard.put("shard", i);
+                shard.put("uri", uri.toString());
+                shard.put("rows", counts[i]);
+                FileSerde.write(output, shard);
+            }
+        }
+
+        runContext.metric(Counter.of("rows", rows));
+        runContext.metric(Counter.of("shards", uris.size()));
+        runContext.logger().info("Split {} rows into {} shards", rows, uris.size());
+
+        return Output.builder()
+            .uris(uris)
+            .manifest(runContext.storage().putFile(manifest))
+            .rows(rows)
+            .build();
+    }
+
+    /**
+     * Hashes the recipient the way the sending tasks compare them, so that duplicates land in the same shard however they're written:
+     * email addresses case-insensitively, phone numbers on their E.164 form, and rows without a key field on their JSON.
+     */
+    private static long key(Object row, String keyField) throws Exception {
+        if (row instanceof Map<?, ?> map) {
+            Object key = keyField != null ? map.get(keyField) : map.get("to") != null ? map.get("to") : map.get("email");
+            if (key != null) {
+                return recipientKey(key.toString());
+            }
+
+            return hash(JacksonMapper.ofJson().writeValueAsString(row));
+        }
+
+        return recipientKey(String.valueOf(row));
+    }
+
+    private static long recipientKey(String recipient) {
+        return recipient.contains("@") ? AbstractSendGridMail.suppressionKey(recipient) : PhoneNumbers.key(recipient);
+    }
+
+    private static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    // phone number keys are the numbers themselves, mixed so that consecutive numbers spread over the shards
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    public enum Strategy {
+        COUNT,
+        HASH
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Shard files",
+            description = "URIs of the non-empty shards, to iterate over with `ForEach`"
+        )
+        private final List<URI> uris;
+
+        @Schema(
+            title = "Manifest",
+            description = "ION file with one row per non-empty shard: `shard`, `uri` and `rows`, to iterate over with `ForEachItem`"
+        )
+        private final URI manifest;
+
+        @Schema(title = "Number of rows split")
+        private final Long rows;
+    }
+}
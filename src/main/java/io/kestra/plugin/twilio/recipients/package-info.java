@@ -0,0 +1,10 @@
+@PluginSubGroup(
+    description = "Tasks that split recipient files into shards and merge the results of bulk sends, to spread a campaign across workers.",
+    categories = {
+        PluginSubGroup.PluginCategory.BUSINESS,
+        PluginSubGroup.PluginCategory.DATA
+    }
+)
+package io.kestra.plugin.twilio.recipients;
+
+import io.kestra.core.models.annotations.PluginSubGroup;
\ No newline at end of file
@@ -2,6 +2,10 @@ package io.kestra.plugin.twilio.segment;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -31,7 +35,7 @@ public abstract class AbstractSegmentConnection extends Task {
 
     @Schema(
         title = "Segment API token",
-        description = "Bearer token for Segment Public API calls; must include Reverse ETL scopes for these tasks"
+        description = "Bearer token for Segment Public API calls, which must include Reverse ETL scopes for Reverse ETL tasks; Profiles API tasks use the space access token instead"
     )
     @NotNull
     @PluginProperty(group = "main", secret = true)
@@ -39,35 +43,63 @@ public abstract class AbstractSegmentConnection extends Task {
 
     @Schema(
         title = "Segment API URL",
-        description = "Base URL for Segment API requests; defaults to https://api.segmentapis.com"
+        description = "Base URL for Segment API requests; defaults to https://api.segmentapis.com, or https://profiles.segment.com for Profiles API tasks"
     )
-    @Builder.Default
     @PluginProperty(group = "advanced")
-    protected Property<String> uri = Property.ofValue(BASE_URL);
+    protected Property<String> uri;
+
+    // Base URL used when `uri` is not set; Profiles API tasks target a different host than the Public API.
+    protected String defaultUri() {
+        return BASE_URL;
+    }
+
+    protected String authorization(String token) {
+        return "Bearer " + token;
+    }
+
+    // Identifies the Segment workspace or space the task talks to in cache keys, without keeping the token itself.
+    protected String credentialsHash(RunContext runContext) throws IllegalVariableEvaluationException {
+        String credentials = runContext.render(uri).as(String.class).orElse(defaultUri()) + "\n" + runContext.render(token).as(String.class).orElseThrow();
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(credentials.getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
     protected <T> HttpResponse<T> request(RunContext runContext, String method, String path, Object body, Class<T> responseType)
+        throws IOException, IllegalVariableEvaluationException, HttpClientException {
+        try (HttpClient client = httpClient(runContext)) {
+            return request(client, runContext, method, path, body, responseType);
+        }
+    }
+
+    // Opens a client that callers issuing several requests (e.g. paginated listings) can reuse across calls.
+    protected HttpClient httpClient(RunContext runContext) throws IllegalVariableEvaluationException {
+        return new HttpClient(runContext, HttpConfiguration.builder().build());
+    }
+
+    protected <T> HttpResponse<T> request(HttpClient client, RunContext runContext, String method, String path, Object body, Class<T> responseType)
         throws IOException, IllegalVariableEvaluationException, HttpClientException {
         HttpRequest.HttpRequestBuilder builder = HttpRequest.builder()
-            .uri(URI.create(runContext.render(uri).as(String.class).orElse(BASE_URL) + path))
+            .uri(URI.create(runContext.render(uri).as(String.class).orElse(defaultUri()) + path))
             .method(method)
-            .addHeader(
-                "Authorization", "Bearer " +
-                    runContext.render(token).as(String.class).orElseThrow()
-            )
+            .addHeader("Authorization", authorization(runContext.render(token).as(String.class).orElseThrow()))
             .addHeader("Content-Type", "application/vnd.segment.v1alpha+json");
 
         if (body != null) {
             builder.body(HttpRequest.JsonRequestBody.builder().content(body).build());
         }
 
-        try (HttpClient client = new HttpClient(runContext, HttpConfiguration.builder().build())) {
-            HttpResponse<String> response = client.request(builder.build(), String.class);
+        HttpResponse<String> response = client.request(builder.build(), String.class);
 
-            return HttpResponse.<T> builder()
-                .status(response.getStatus())
-                .headers(response.getHeaders())
-                .body(MAPPER.readValue(response.getBody(), responseType))
-                .build();
-        }
+        return HttpResponse.<T> builder()
+            .status(response.getStatus())
+            .headers(response.getHeaders())
+            .body(MAPPER.readValue(response.getBody(), responseType))
+            .build();
     }
 }
@@ -0,0 +1,53 @@
+package io.kestra.plugin.twilio.segment.profiles;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Worker-wide TTL cache of profile traits, shared by every task run on the worker.
+ * Entries are dropped lazily on read, and expired entries are purged when the cache reaches its size bound.
+ */
+final class ProfileTraitsCache {
+    private static final int MAX_ENTRIES = 50_000;
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private ProfileTraitsCache() {
+    }
+
+    static Optional<Map<String, Object>> get(String key) {
+        Entry entry = ENTRIES.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        if (entry.expiresAt() < System.nanoTime()) {
+            ENTRIES.remove(key, entry);
+            return Optional.empty();
+        }
+
+        return Optional.of(entry.traits());
+    }
+
+    static void put(String key, Map<String, Object> traits, Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+
+        if (ENTRIES.size() >= MAX_ENTRIES) {
+            long now = System.nanoTime();
+            ENTRIES.values().removeIf(entry -> entry.expiresAt() < now);
+
+            if (ENTRIES.size() >= MAX_ENTRIES) {
+                return;
+            }
+        }
+
+        ENTRIES.put(key, new Entry(traits, System.nanoTime() + ttl.toNanos()));
+    }
+
+    private record Entry(Map<String, Object> traits, long expiresAt) {
+    }
+}
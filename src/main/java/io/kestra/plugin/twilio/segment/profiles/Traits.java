@@ -0,0 +1,256 @@
+package io.kestra.plugin.twilio.segment.profiles;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.twilio.segment.AbstractSegmentConnection;
+import io.kestra.plugin.twilio.utils.RateLimiter;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Look up Segment profile traits",
+    description = """
+        Fetches the traits of a list of users from the Segment Profiles API, with requests sent concurrently under a rate cap.
+        Results are cached on the worker for `cacheTtl` so that later runs enriching the same users are served without calling Segment.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            code = """
+                id: enrich_and_notify
+                namespace: company.team
+
+                tasks:
+                  - id: traits
+                    type: io.kestra.plugin.twilio.segment.profiles.Traits
+                    token: "{{ secret('SEGMENT_PROFILES_TOKEN') }}"
+                    spaceId: spa_123
+                    userIds:
+                      - user_1
+                      - user_2
+                    include:
+                      - first_name
+                      - phone
+
+                  - id: send_sms
+                    type: io.kestra.plugin.twilio.notify.sms.Send
+                    accountSID: "{{ secret('TWILIO_ACCOUNT_SID') }}"
+                    authToken: "{{ secret('TWILIO_AUTH_TOKEN') }}"
+                    from: "{{ secret('TWILIO_FROM_NUMBER') }}"
+                    to: "{{ outputs.traits.traits.user_1.phone }}"
+                    body: "Hello {{ outputs.traits.traits.user_1.first_name }}!"
+                """
+        )
+    }
+)
+public class Traits extends AbstractSegmentConnection implements RunnableTask<Traits.Output> {
+    private static final String PROFILES_URL = "https://profiles.segment.com";
+    private static final int MAX_TRAITS = 200;
+
+    @Schema(
+        title = "Profiles space ID",
+        description = "Identifier of the Segment Unify space holding the profiles"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> spaceId;
+
+    @Schema(
+        title = "User IDs",
+        description = "Identifiers of the profiles to look up"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<List<String>> userIds;
+
+    @Schema(
+        title = "Identifier type",
+        description = "External ID type the `userIds` refer to, e.g. `user_id`, `anonymous_id` or `email`; defaults to `user_id`"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<String> idType = Property.ofValue("user_id");
+
+    @Schema(
+        title = "Traits to include",
+        description = "Restricts the returned traits to these names; all traits (up to 200) are returned when not set"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<List<String>> include;
+
+    @Schema(
+        title = "Concurrency",
+        description = "Number of profile requests sent in parallel; defaults to 4"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Maximum requests per second",
+        description = "Rate cap applied across all parallel requests; defaults to 25"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Double> maxRequestsPerSecond = Property.ofValue(25D);
+
+    @Schema(
+        title = "Cache TTL",
+        description = "How long fetched traits are reused on the worker across runs; set to PT0S to disable the cache, defaults to 5 minutes"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Duration> cacheTtl = Property.ofValue(Duration.ofMinutes(5));
+
+    @Override
+    protected String defaultUri() {
+        return PROFILES_URL;
+    }
+
+    @Override
+    protected String authorization(String token) {
+        return "Basic " + Base64.getEncoder().encodeToString((token + ":").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rSpaceId = runContext.render(spaceId).as(String.class).orElseThrow();
+        var rUserIds = runContext.render(userIds).asList(String.class);
+        var rIdType = runContext.render(idType).as(String.class).orElse("user_id");
+        var rInclude = runContext.render(include).asList(String.class);
+        var rConcurrency = Math.max(1, runContext.render(concurrency).as(Integer.class).orElse(4));
+        var rCacheTtl = runContext.render(cacheTtl).as(Duration.class).orElse(Duration.ofMinutes(5));
+
+        RateLimiter rateLimiter = new RateLimiter(runContext.render(maxRequestsPerSecond).as(Double.class).orElse(25D));
+
+        String query = "?limit=" + MAX_TRAITS + (rInclude.isEmpty() ? "" : "&include=" + URLEncoder.encode(String.join(",", rInclude), StandardCharsets.UTF_8));
+        String cachePrefix = runContext.flowInfo().tenantId() + "|" + runContext.flowInfo().namespace() + "|" + credentialsHash(runContext) + "|" + rSpaceId + "|" + rIdType + "|" + String.join(",", rInclude) + "|";
+
+        Map<String, Map<String, Object>> traits = new LinkedHashMap<>();
+        Map<String, Future<Optional<Map<String, Object>>>> pending = new LinkedHashMap<>();
+        AtomicLong notFound = new AtomicLong();
+        long hits = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(rConcurrency);
+        try (HttpClient client = httpClient(runContext)) {
+            for (String userId : rUserIds) {
+                if (traits.containsKey(userId) || pending.containsKey(userId)) {
+                    continue;
+                }
+
+                Optional<Map<String, Object>> cached = ProfileTraitsCache.get(cachePrefix + userId);
+                if (cached.isPresent()) {
+                    traits.put(userId, cached.get());
+                    hits++;
+                    continue;
+                }
+
+                String path = "/v1/spaces/" + rSpaceId + "/collections/users/profiles/"
+                    + URLEncoder.encode(rIdType + ":" + userId, StandardCharsets.UTF_8) + "/traits" + query;
+
+                pending.put(userId, executor.submit(() -> {
+                    rateLimiter.acquire();
+
+                    try {
+                        TraitsResponse response = request(client, runContext, "GET", path, null, TraitsResponse.class).getBody();
+                        Map<String, Object> result = response.getTraits() != null ? response.getTraits() : Map.of();
+                        ProfileTraitsCache.put(cachePrefix + userId, result, rCacheTtl);
+
+                        return Optional.of(result);
+                    } catch (HttpClientResponseException e) {
+                        if (e.getResponse() != null && e.getResponse().getStatus().getCode() == 404) {
+                            notFound.incrementAndGet();
+                            return Optional.empty();
+                        }
+
+                        throw e;
+                    }
+                }));
+            }
+
+            for (Map.Entry<String, Future<Optional<Map<String, Object>>>> entry : pending.entrySet()) {
+                await(entry.getValue()).ifPresent(result -> traits.put(entry.getKey(), result));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        runContext.metric(Counter.of("cache.hits", hits));
+        runContext.metric(Counter.of("requests", pending.size()));
+        runContext.metric(Counter.of("not.found", notFound.get()));
+
+        runContext.logger().info(
+            "Fetched traits of {} profiles ({} from cache, {} not found)",
+            traits.size(), hits, notFound.get()
+        );
+
+        return Output.builder()
+            .traits(traits)
+            .size((long) traits.size())
+            .build();
+    }
+
+    private static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    @Getter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class TraitsResponse {
+        private Map<String, Object> traits;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Traits by user ID",
+            description = "Users whose profile wasn't found are omitted"
+        )
+        private final Map<String, Map<String, Object>> traits;
+
+        @Schema(title = "Number of profiles found")
+        private final Long size;
+    }
+}
@@ -0,0 +1,10 @@
+@PluginSubGroup(
+    description = "Tasks that read user profiles from the Segment Profiles API. Provide the Profiles space ID and access token to enrich workflows with user traits.",
+    categories = {
+        PluginSubGroup.PluginCategory.BUSINESS,
+        PluginSubGroup.PluginCategory.DATA
+    }
+)
+package io.kestra.plugin.twilio.segment.profiles;
+
+import io.kestra.core.models.annotations.PluginSubGroup;
\ No newline at end of file
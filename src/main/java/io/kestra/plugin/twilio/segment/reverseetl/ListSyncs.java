@@ -0,0 +1,187 @@
+package io.kestra.plugin.twilio.segment.reverseetl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.plugin.twilio.segment.AbstractSegmentConnection;
+import io.kestra.plugin.twilio.segment.reverseetl.models.ReverseEtlSyncStatus;
+import io.kestra.plugin.twilio.segment.reverseetl.models.ReverseEtlSyncStatusListResponse;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Export Segment Reverse ETL sync history",
+    description = """
+        Lists the sync statuses of a Reverse ETL model and subscription using the Segment Public API cursor pagination.
+        The next page is fetched while the current one is written, and records are streamed to an ION file in Kestra internal storage so that the history is never held in memory.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            code = """
+                id: export_sync_history
+                namespace: company.team
+
+                tasks:
+                  - id: list_syncs
+                    type: io.kestra.plugin.twilio.segment.reverseetl.ListSyncs
+                    token: "{{ secret('SEGMENT_TOKEN') }}"
+                    modelId: model_id
+                    subscriptionId: subscription_id
+                """
+        )
+    }
+)
+public class ListSyncs extends AbstractSegmentConnection implements RunnableTask<ListSyncs.Output> {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Schema(
+        title = "Reverse ETL model ID",
+        description = "Segment model identifier that owns the syncs"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> modelId;
+
+    @Schema(
+        title = "Subscription ID",
+        description = "The Segment Reverse ETL subscription (mapping) ID whose syncs are listed"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> subscriptionId;
+
+    @Schema(
+        title = "Page size",
+        description = "Number of sync statuses requested per page; Segment accepts at most 100"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> pageSize = Property.ofValue(MAX_PAGE_SIZE);
+
+    @Schema(
+        title = "Maximum number of records",
+        description = "Stops paginating once this many sync statuses have been written; all pages are read when not set"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxRecords;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rModelId = runContext.render(modelId).as(String.class).orElseThrow();
+        var rSubscriptionId = runContext.render(subscriptionId).as(String.class).orElseThrow();
+        var rPageSize = Math.min(runContext.render(pageSize).as(Integer.class).orElse(MAX_PAGE_SIZE), MAX_PAGE_SIZE);
+        var rMaxRecords = runContext.render(maxRecords).as(Integer.class).orElse(Integer.MAX_VALUE);
+
+        var path = "/reverse-etl-models/" + rModelId + "/subscriptionId/" + rSubscriptionId + "/syncs?count=" + rPageSize;
+
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        long count = 0;
+        int pages = 0;
+
+        // A single background thread keeps exactly one page in flight while the current one is written.
+        ExecutorService prefetcher = Executors.newSingleThreadExecutor();
+        try (
+            HttpClient client = httpClient(runContext);
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile))
+        ) {
+            Future<ReverseEtlSyncStatusListResponse> next = fetchPage(prefetcher, client, runContext, path, null);
+
+            while (next != null) {
+                ReverseEtlSyncStatusListResponse page = await(next);
+                pages++;
+
+                if (page == null || page.getData() == null) {
+                    throw new IllegalStateException("Segment returned an invalid Reverse ETL sync list response");
+                }
+
+                List<ReverseEtlSyncStatus> statuses = page.getData().getReverseETLSyncStatuses() != null ? page.getData().getReverseETLSyncStatuses() : List.of();
+                String cursor = page.getData().getPagination() != null ? page.getData().getPagination().getNext() : null;
+
+                next = cursor != null && !cursor.isBlank() && !statuses.isEmpty() && count + statuses.size() < rMaxRecords
+                    ? fetchPage(prefetcher, client, runContext, path, cursor)
+                    : null;
+
+                for (ReverseEtlSyncStatus status : statuses) {
+                    if (count >= rMaxRecords) {
+                        break;
+                    }
+
+                    FileSerde.write(output, status);
+                    count++;
+                }
+            }
+        } finally {
+            prefetcher.shutdownNow();
+        }
+
+        runContext.metric(Counter.of("records", count, "model", rModelId));
+        runContext.metric(Counter.of("pages", pages, "model", rModelId));
+        runContext.logger().info("Exported {} Segment Reverse ETL sync statuses over {} pages", count, pages);
+
+        return Output.builder()
+            .uri(runContext.storage().putFile(tempFile))
+            .size(count)
+            .build();
+    }
+
+    private Future<ReverseEtlSyncStatusListResponse> fetchPage(ExecutorService executor, HttpClient client, RunContext runContext, String path, String cursor) {
+        String pagePath = cursor == null ? path : path + "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+
+        return executor.submit(() -> request(client, runContext, "GET", pagePath, null, ReverseEtlSyncStatusListResponse.class).getBody());
+    }
+
+    private static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Sync history file",
+            description = "URI of the ION file in Kestra internal storage holding one sync status per row"
+        )
+        private final URI uri;
+
+        @Schema(title = "Number of sync statuses written")
+        private final Long size;
+    }
+}
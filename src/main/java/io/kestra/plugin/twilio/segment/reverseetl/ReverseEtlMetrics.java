@@ -0,0 +1,62 @@
+package io.kestra.plugin.twilio.segment.reverseetl;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.twilio.segment.reverseetl.models.ReverseEtlSyncStatus;
+
+/**
+ * Publishes the extract/load counts and duration of a finished Reverse ETL sync as task metrics,
+ * tagged by model and source so throughput and delivery failures can be tracked per model.
+ */
+final class ReverseEtlMetrics {
+    private ReverseEtlMetrics() {
+    }
+
+    static void emit(RunContext runContext, ReverseEtlSyncStatus status, String modelId, String sourceId) {
+        if (status == null || !status.isTerminal()) {
+            return;
+        }
+
+        String[] tags = tags(
+            status.getModelId() != null ? status.getModelId() : modelId,
+            status.getSourceId() != null ? status.getSourceId() : sourceId,
+            status.getStatus()
+        );
+
+        if (status.getExtractPhase() != null) {
+            counter(runContext, "extract.added", status.getExtractPhase().getAddedCount(), tags);
+            counter(runContext, "extract.updated", status.getExtractPhase().getUpdatedCount(), tags);
+            counter(runContext, "extract.deleted", status.getExtractPhase().getDeletedCount(), tags);
+            counter(runContext, "extract.total", status.getExtractPhase().getExtractCount(), tags);
+        }
+
+        if (status.getLoadPhase() != null) {
+            counter(runContext, "load.delivered", status.getLoadPhase().getDeliverSuccessCount(), tags);
+            counter(runContext, "load.failed", status.getLoadPhase().getDeliverFailureCount(), tags);
+        }
+
+        status.elapsed().ifPresent(duration -> runContext.metric(Timer.of("sync.duration", duration, tags)));
+    }
+
+    // counts are strings in the Segment API, a count that isn't a number is not published
+    private static void counter(RunContext runContext, String name, String value, String[] tags) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+
+        try {
+            runContext.metric(Counter.of(name, Long.parseLong(value.trim()), tags));
+        } catch (NumberFormatException e) {
+            runContext.logger().debug("Ignoring Reverse ETL count {} that is not a number: {}", name, value);
+        }
+    }
+
+    private static String[] tags(String modelId, String sourceId, String status) {
+        return new String[] {
+            "model", modelId != null ? modelId : "unknown",
+            "source", sourceId != null ? sourceId : "unknown",
+            "status", status
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package io.kestra.plugin.twilio.segment.reverseetl;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.plugin.twilio.segment.reverseetl.models.ReverseEtlSyncStatus;
+
+/**
+ * Two-level cache for terminal Reverse ETL sync statuses: an in-process LRU shared by every task on the worker,
+ * backed by the namespace KV store so that other workers can reuse a status once it has been fetched.
+ * Only terminal statuses are stored since they never change afterwards.
+ * Entries are scoped by namespace and by a hash of the credentials, so a status is only served to tasks allowed to fetch it,
+ * and a local entry is only served within the {@code cacheTtl} of the reading task.
+ */
+final class ReverseEtlStatusCache {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final int MAX_LOCAL_ENTRIES = 1024;
+    private static final String KV_PREFIX = "segment-retl-status_";
+
+    private static final Map<String, Entry> LOCAL = Collections.synchronizedMap(
+        new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MAX_LOCAL_ENTRIES;
+            }
+        }
+    );
+
+    private ReverseEtlStatusCache() {
+    }
+
+    static Optional<ReverseEtlSyncStatus> get(RunContext runContext, String scope, String modelId, String syncId, Duration ttl) {
+        String localKey = localKey(runContext, scope, modelId, syncId);
+
+        Entry local = LOCAL.get(localKey);
+        if (local != null) {
+            if (System.nanoTime() - local.cachedAt() < ttl.toNanos()) {
+                return Optional.of(local.status());
+            }
+
+            LOCAL.remove(localKey, local);
+        }
+
+        String namespace = runContext.flowInfo().namespace();
+        if (namespace == null) {
+            return Optional.empty();
+        }
+
+        try {
+            Optional<KVValue> value = runContext.namespaceKv(namespace).getValue(kvKey(scope, modelId, syncId));
+            if (value.isEmpty() || value.get().value() == null) {
+                return Optional.empty();
+            }
+
+            ReverseEtlSyncStatus status = MAPPER.readValue(value.get().value().toString(), ReverseEtlSyncStatus.class);
+            LOCAL.put(localKey, new Entry(status, System.nanoTime()));
+
+            return Optional.of(status);
+        } catch (Exception e) {
+            runContext.logger().warn("Unable to read cached Reverse ETL status for sync {}: {}", syncId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    static void put(RunContext runContext, String scope, String modelId, String syncId, ReverseEtlSyncStatus status, Duration ttl) {
+        if (status == null || !status.isTerminal()) {
+            return;
+        }
+
+        LOCAL.put(localKey(runContext, scope, modelId, syncId), new Entry(status, System.nanoTime()));
+
+        String namespace = runContext.flowInfo().namespace();
+        if (namespace == null) {
+            return;
+        }
+
+        try {
+            runContext.namespaceKv(namespace).put(
+                kvKey(scope, modelId, syncId),
+                new KVValueAndMetadata(
+                    new KVMetadata("Terminal Segment Reverse ETL sync status", ttl),
+                    MAPPER.writeValueAsString(status)
+                )
+            );
+        } catch (Exception e) {
+            runContext.logger().warn("Unable to cache Reverse ETL status for sync {}: {}", syncId, e.getMessage());
+        }
+    }
+
+    private static String localKey(RunContext runContext, String scope, String modelId, String syncId) {
+        return runContext.flowInfo().tenantId() + "/" + runContext.flowInfo().namespace() + "/" + scope + "/" + escape(modelId) + "_" + escape(syncId);
+    }
+
+    private static String kvKey(String scope, String modelId, String syncId) {
+        return KV_PREFIX + scope + "_" + escape(modelId) + "_" + escape(syncId);
+    }
+
+    /**
+     * Escapes every character but letters, digits and '.' as '-' followed by its 4 hex digits, so distinct ids never share a key
+     * and '_' is left free to separate them.
+     */
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.') {
+                escaped.append(c);
+            } else {
+                escaped.append('-').append(String.format("%04x", (int) c));
+            }
+        }
+
+        return escaped.toString();
+    }
+
+    private record Entry(ReverseEtlSyncStatus status, long cachedAt) {
+    }
+}
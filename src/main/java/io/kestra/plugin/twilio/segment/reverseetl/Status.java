@@ -1,6 +1,8 @@
 package io.kestra.plugin.twilio.segment.reverseetl;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
 
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.http.client.HttpClientException;
@@ -64,21 +66,61 @@ public class Status extends AbstractSegmentConnection implements RunnableTask<St
     @PluginProperty(group = "main")
     private Property<String> syncId;
 
+    @Schema(
+        title = "Cache terminal statuses",
+        description = "When enabled, statuses that reached a terminal state (SUCCESS or FAIL) are cached on the worker and in the namespace KV store, and later calls for the same sync are served without calling Segment and without publishing its metrics again; enable it when polling finished syncs, as every uncached call publishes the counts of a terminal sync; defaults to false"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> cache = Property.ofValue(false);
+
+    @Schema(
+        title = "Cache TTL",
+        description = "How long a cached terminal status is kept in the namespace KV store and served from the worker; defaults to 7 days"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Duration> cacheTtl = Property.ofValue(Duration.ofDays(7));
+
     @Override
     public Output run(RunContext runContext) throws IllegalVariableEvaluationException, HttpClientException, IOException {
+        var rModelId = runContext.render(modelId).as(String.class).orElseThrow();
+        var rSyncId = runContext.render(syncId).as(String.class).orElseThrow();
+        var rCache = runContext.render(cache).as(Boolean.class).orElse(false);
+        var rCacheTtl = runContext.render(cacheTtl).as(Duration.class).orElse(Duration.ofDays(7));
+        var cacheScope = rCache ? credentialsHash(runContext) : null;
+
+        if (rCache) {
+            Optional<ReverseEtlSyncStatus> cached = ReverseEtlStatusCache.get(runContext, cacheScope, rModelId, rSyncId, rCacheTtl);
+            if (cached.isPresent()) {
+                // metrics were published when the status was first cached, publishing them again would count the sync twice
+                runContext.logger().debug("Serving terminal status of Segment Reverse ETL sync {} from cache", rSyncId);
+
+                return Output.builder()
+                    .status(cached.get())
+                    .cached(true)
+                    .build();
+            }
+        }
+
         ReverseEtlSyncStatusResponse response = request(
             runContext,
             "GET",
-            "/reverse-etl-models/"
-                + runContext.render(modelId).as(String.class).orElseThrow()
-                + "/syncs/"
-                + runContext.render(syncId).as(String.class).orElseThrow(),
+            "/reverse-etl-models/" + rModelId + "/syncs/" + rSyncId,
             null,
             ReverseEtlSyncStatusResponse.class
         ).getBody();
 
+        ReverseEtlSyncStatus status = response.getData().getReverseETLSyncStatus();
+        ReverseEtlMetrics.emit(runContext, status, rModelId, null);
+
+        if (rCache) {
+            ReverseEtlStatusCache.put(runContext, cacheScope, rModelId, rSyncId, status, rCacheTtl);
+        }
+
         return Output.builder()
-            .status(response.getData().getReverseETLSyncStatus())
+            .status(status)
+            .cached(false)
             .build();
     }
 
@@ -90,5 +132,11 @@ public class Status extends AbstractSegmentConnection implements RunnableTask<St
             description = "Full status payload returned by Segment"
         )
         private final ReverseEtlSyncStatus status;
+
+        @Schema(
+            title = "Served from cache",
+            description = "Whether the status was read from the terminal status cache instead of Segment"
+        )
+        private final Boolean cached;
     }
 }
@@ -130,6 +130,12 @@ public class Sync extends AbstractSegmentConnection implements RunnableTask<Sync
         }
 
         ReverseEtlSyncStatus status = waitForCompletion(runContext, syncId);
+        ReverseEtlMetrics.emit(
+            runContext,
+            status,
+            runContext.render(modelId).as(String.class).orElseThrow(),
+            runContext.render(sourceId).as(String.class).orElseThrow()
+        );
 
         runContext.logger().info("Segment Reverse ETL sync {} finished with status={}", syncId, status.getStatus());
 
@@ -1,6 +1,12 @@
 package io.kestra.plugin.twilio.segment.reverseetl.models;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -14,6 +20,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ReverseEtlSyncStatus {
+    private static final Pattern UNIT_DURATION = Pattern.compile("(\\d+(?:\\.\\d+)?)(ns|us|µs|ms|s|m|h)");
+
     @JsonProperty("syncId")
     private String syncId;
 
@@ -46,6 +54,48 @@ public class ReverseEtlSyncStatus {
         return "SUCCESS".equals(status);
     }
 
+    /**
+     * Sync duration, computed from {@code startedAt}/{@code finishedAt} when both are present and
+     * falling back to the {@code duration} field, given either as ISO-8601 or as unit-suffixed values like {@code 1m30.5s}.
+     */
+    public Optional<Duration> elapsed() {
+        try {
+            if (startedAt != null && finishedAt != null) {
+                return Optional.of(Duration.between(Instant.parse(startedAt), Instant.parse(finishedAt)));
+            }
+        } catch (DateTimeParseException ignored) {
+            // fall back to the duration field
+        }
+
+        if (duration == null || duration.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Duration.parse(duration));
+        } catch (DateTimeParseException ignored) {
+            // not ISO-8601, try unit-suffixed values
+        }
+
+        Matcher matcher = UNIT_DURATION.matcher(duration.trim());
+        double nanos = 0;
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            double value = Double.parseDouble(matcher.group(1));
+            nanos += switch (matcher.group(2)) {
+                case "h" -> value * 3_600_000_000_000d;
+                case "m" -> value * 60_000_000_000d;
+                case "s" -> value * 1_000_000_000d;
+                case "ms" -> value * 1_000_000d;
+                case "us", "µs" -> value * 1_000d;
+                default -> value;
+            };
+            end = matcher.end();
+        }
+
+        return end > 0 && end == duration.trim().length() ? Optional.of(Duration.ofNanos((long) nanos)) : Optional.empty();
+    }
+
     @Getter
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ExtractPhase {
@@ -0,0 +1,35 @@
+package io.kestra.plugin.twilio.segment.reverseetl.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.*;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ReverseEtlSyncStatusListResponse {
+    private Data data;
+
+    @Getter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Data {
+        private List<ReverseEtlSyncStatus> reverseETLSyncStatuses;
+
+        private Pagination pagination;
+    }
+
+    @Getter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Pagination {
+        private String current;
+
+        private String next;
+
+        private String previous;
+
+        private Long totalEntries;
+    }
+}
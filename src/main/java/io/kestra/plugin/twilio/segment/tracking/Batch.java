@@ -0,0 +1,414 @@
+package io.kestra.plugin.twilio.segment.tracking;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.http.client.HttpClientException;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Send events to Segment in batches",
+    description = """
+        Reads track, identify, or group events from an ION or JSON Lines file in Kestra internal storage and sends them to the Segment Tracking API `/v1/batch` endpoint.
+        Events are packed into requests up to the 500 KB batch limit, bodies are gzip-compressed, several batches are kept in flight, and batches rejected with HTTP 429 or 5xx are retried.
+        Events without a `messageId` get one derived from the file and the position of the row, so that identical rows are kept as distinct events while a retried task sends the same IDs and is deduplicated by Segment.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            full = true,
+            code = """
+                id: segment_batch
+                namespace: company.team
+
+                inputs:
+                  - id: events
+                    type: FILE
+
+                tasks:
+                  - id: send_events
+                    type: io.kestra.plugin.twilio.segment.tracking.Batch
+                    writeKey: "{{ secret('SEGMENT_WRITE_KEY') }}"
+                    from: "{{ inputs.events }}"
+                    eventType: TRACK
+                    concurrency: 8
+                """
+        )
+    }
+)
+public class Batch extends Task implements RunnableTask<Batch.Output> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+
+    private static final String DEFAULT_URI = "https://api.segment.io";
+    private static final int MAX_BATCH_BYTES = 500 * 1024;
+    private static final int MAX_EVENT_BYTES = 32 * 1024;
+    private static final byte[] BATCH_PREFIX = "{\"batch\":[".getBytes(StandardCharsets.UTF_8);
+    // Room left for the closing bracket and the `sentAt` field appended when the batch is sent.
+    private static final int ENVELOPE_SUFFIX_BYTES = 64;
+
+    @Schema(
+        title = "Segment write key",
+        description = "Write key of the Segment source receiving the events; store as a secret"
+    )
+    @NotNull
+    @PluginProperty(group = "connection", secret = true)
+    private Property<String> writeKey;
+
+    @Schema(
+        title = "Segment Tracking API URL",
+        description = "Base URL for Tracking API requests; defaults to https://api.segment.io, use https://events.eu1.segmentapis.com for EU workspaces"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<String> uri = Property.ofValue(DEFAULT_URI);
+
+    @Schema(
+        title = "Events file",
+        description = "URI of an ION or JSON Lines file in Kestra internal storage holding one Segment event per row"
+    )
+    @NotNull
+    @PluginProperty(group = "main", internalStorageURI = true)
+    private Property<String> from;
+
+    @Schema(
+        title = "Default event type",
+        description = "Type applied to rows that don't carry a `type` field; rows without a type fail the task when not set"
+    )
+    @PluginProperty(group = "main")
+    private Property<EventType> eventType;
+
+    @Schema(
+        title = "Maximum batch size",
+        description = "Maximum uncompressed size in bytes of a batch request; capped at Segment's 500 KB limit"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxBatchBytes = Property.ofValue(MAX_BATCH_BYTES);
+
+    @Schema(
+        title = "Concurrency",
+        description = "Number of batch requests kept in flight; defaults to 4"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Maximum retries",
+        description = "How many times a batch rejected with HTTP 429, 5xx, or a network error is retried with exponential backoff; defaults to 3"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxRetries = Property.ofValue(3);
+
+    @Schema(
+        title = "Compress requests",
+        description = "Whether batch bodies are sent gzip-compressed; defaults to true"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Boolean> compress = Property.ofValue(true);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rFrom = URI.create(runContext.render(from).as(String.class).orElseThrow());
+        var rType = runContext.render(eventType).as(EventType.class).orElse(null);
+        var rMaxBatchBytes = Math.min(runContext.render(maxBatchBytes).as(Integer.class).orElse(MAX_BATCH_BYTES), MAX_BATCH_BYTES);
+        var rConcurrency = Math.max(1, runContext.render(concurrency).as(Integer.class).orElse(4));
+        var rMaxRetries = runContext.render(maxRetries).as(Integer.class).orElse(3);
+        var rCompress = runContext.render(compress).as(Boolean.class).orElse(true);
+        var endpoint = URI.create(runContext.render(uri).as(String.class).orElse(DEFAULT_URI) + "/v1/batch");
+        var authorization = "Basic " + Base64.getEncoder().encodeToString(
+            (runContext.render(writeKey).as(String.class).orElseThrow() + ":").getBytes(StandardCharsets.UTF_8)
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(rConcurrency);
+        Semaphore inFlight = new Semaphore(rConcurrency);
+        BlockingQueue<HttpClient> clients = new ArrayBlockingQueue<>(rConcurrency);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong retries = new AtomicLong();
+        long skipped = 0;
+        long batches = 0;
+
+        try {
+            // One client per in-flight slot so that concurrency is not capped by a single client's connection pool.
+            for (int i = 0; i < rConcurrency; i++) {
+                clients.add(new HttpClient(runContext, HttpConfiguration.builder().build()));
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rFrom), StandardCharsets.UTF_8))) {
+                BatchBuffer buffer = new BatchBuffer(rMaxBatchBytes);
+                long index = 0;
+
+                for (Object row : FileSerde.readAll(reader).toIterable()) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+
+                    byte[] event = serialize(row, rType, rFrom + "#" + index++);
+                    if (event.length > MAX_EVENT_BYTES) {
+                        runContext.logger().warn("Skipping a Segment event of {} bytes, above the 32 KB event limit", event.length);
+                        skipped++;
+                        continue;
+                    }
+
+                    if (!buffer.fits(event)) {
+                        submit(runContext, executor, inFlight, clients, buffer, endpoint, authorization, rCompress, rMaxRetries, sent, retries, failure);
+                        batches++;
+                        buffer = new BatchBuffer(rMaxBatchBytes);
+                    }
+
+                    buffer.add(event);
+                }
+
+                if (buffer.count() > 0 && failure.get() == null) {
+                    submit(runContext, executor, inFlight, clients, buffer, endpoint, authorization, rCompress, rMaxRetries, sent, retries, failure);
+                    batches++;
+                }
+            }
+
+            // wait for every in-flight batch to complete
+            inFlight.acquire(rConcurrency);
+        } finally {
+            executor.shutdownNow();
+            for (HttpClient client : clients) {
+                client.close();
+            }
+        }
+
+        runContext.metric(Counter.of("events", sent.get()));
+        runContext.metric(Counter.of("batches", batches));
+        runContext.metric(Counter.of("retries", retries.get()));
+        runContext.metric(Counter.of("skipped", skipped));
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        runContext.logger().info("Sent {} events to Segment in {} batches ({} retried, {} skipped)", sent.get(), batches, retries.get(), skipped);
+
+        return Output.builder()
+            .events(sent.get())
+            .batches(batches)
+            .retries(retries.get())
+            .skipped(skipped)
+            .build();
+    }
+
+    private void submit(
+        RunContext runContext,
+        ExecutorService executor,
+        Semaphore inFlight,
+        BlockingQueue<HttpClient> clients,
+        BatchBuffer buffer,
+        URI endpoint,
+        String authorization,
+        boolean compress,
+        int maxRetries,
+        AtomicLong sent,
+        AtomicLong retries,
+        AtomicReference<Exception> failure
+    ) throws InterruptedException {
+        inFlight.acquire();
+
+        executor.submit(() -> {
+            HttpClient client = null;
+            try {
+                client = clients.take();
+                send(runContext, client, endpoint, authorization, buffer.toBody(compress), compress, maxRetries, retries);
+                sent.addAndGet(buffer.count());
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                if (client != null) {
+                    clients.add(client);
+                }
+                inFlight.release();
+            }
+        });
+    }
+
+    private void send(RunContext runContext, HttpClient client, URI endpoint, String authorization, byte[] body, boolean compressed, int maxRetries, AtomicLong retries) throws Exception {
+        HttpRequest.HttpRequestBuilder builder = HttpRequest.builder()
+            .uri(endpoint)
+            .method("POST")
+            .addHeader("Authorization", authorization)
+            .body(HttpRequest.ByteArrayRequestBody.builder()
+                .contentType("application/json")
+                .content(body)
+                .build());
+
+        if (compressed) {
+            builder.addHeader("Content-Encoding", "gzip");
+        }
+
+        HttpRequest request = builder.build();
+
+        for (int attempt = 0;; attempt++) {
+            try {
+                client.request(request, String.class);
+                return;
+            } catch (HttpClientResponseException e) {
+                int status = e.getResponse() != null ? e.getResponse().getStatus().getCode() : 0;
+                if (attempt >= maxRetries || (status != 429 && status < 500)) {
+                    throw new RuntimeException(
+                        "Segment batch request failed with HTTP " + status + ": " + (e.getResponse() != null ? e.getResponse().getBody() : e.getMessage()),
+                        e
+                    );
+                }
+            } catch (HttpClientException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+            }
+
+            retries.incrementAndGet();
+            Duration backoff = Duration.ofMillis(500L << Math.min(attempt, 6));
+            runContext.logger().debug("Retrying Segment batch in {}", backoff);
+            Thread.sleep(backoff.toMillis());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] serialize(Object row, EventType defaultType, String position) throws Exception {
+        if (!(row instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Each row of the events file must be an object, got: " + row);
+        }
+
+        Map<String, Object> event = new LinkedHashMap<>((Map<String, Object>) map);
+
+        if (event.get("type") == null) {
+            if (defaultType == null) {
+                throw new IllegalArgumentException("Event has no `type` and no default `eventType` is configured: " + event);
+            }
+
+            event.put("type", defaultType.value());
+        }
+
+        if (event.get("messageId") == null) {
+            // the position keeps repeated identical rows apart, e.g. track events without a timestamp, which Segment would otherwise drop as duplicates
+            event.put("messageId", UUID.nameUUIDFromBytes((position + "\n" + MAPPER.writeValueAsString(event)).getBytes(StandardCharsets.UTF_8)).toString());
+        }
+
+        return MAPPER.writeValueAsBytes(event);
+    }
+
+    private static class BatchBuffer {
+        private final int maxBytes;
+        private final List<byte[]> events = new ArrayList<>();
+        private int size = BATCH_PREFIX.length + ENVELOPE_SUFFIX_BYTES;
+
+        BatchBuffer(int maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        boolean fits(byte[] event) {
+            return events.isEmpty() || size + 1 + event.length <= maxBytes;
+        }
+
+        void add(byte[] event) {
+            size += (events.isEmpty() ? 0 : 1) + event.length;
+            events.add(event);
+        }
+
+        int count() {
+            return events.size();
+        }
+
+        byte[] toBody(boolean compress) throws Exception {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(compress ? size / 4 : size);
+
+            try (OutputStream output = compress ? new GZIPOutputStream(bytes) : bytes) {
+                output.write(BATCH_PREFIX);
+                for (int i = 0; i < events.size(); i++) {
+                    if (i > 0) {
+                        output.write(',');
+                    }
+                    output.write(events.get(i));
+                }
+                output.write(("],\"sentAt\":\"" + Instant.now() + "\"}").getBytes(StandardCharsets.UTF_8));
+            }
+
+            return bytes.toByteArray();
+        }
+    }
+
+    public enum EventType {
+        TRACK,
+        IDENTIFY,
+        GROUP,
+        PAGE,
+        SCREEN,
+        ALIAS;
+
+        String value() {
+            return name().toLowerCase();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Number of events accepted by Segment")
+        private final Long events;
+
+        @Schema(title = "Number of batch requests sent")
+        private final Long batches;
+
+        @Schema(title = "Number of batch retries")
+        private final Long retries;
+
+        @Schema(
+            title = "Number of skipped events",
+            description = "Events above Segment's 32 KB per-event limit are skipped"
+        )
+        private final Long skipped;
+    }
+}
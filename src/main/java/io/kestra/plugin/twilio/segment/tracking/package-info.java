@@ -0,0 +1,10 @@
+@PluginSubGroup(
+    description = "Tasks that send events to the Segment Tracking API. Provide a Segment source write key and a file of events to ingest warehouse-derived track, identify, and group calls in bulk.",
+    categories = {
+        PluginSubGroup.PluginCategory.BUSINESS,
+        PluginSubGroup.PluginCategory.DATA
+    }
+)
+package io.kestra.plugin.twilio.segment.tracking;
+
+import io.kestra.core.models.annotations.PluginSubGroup;
\ No newline at end of file
@@ -0,0 +1,271 @@
+package io.kestra.plugin.twilio.sendgrid;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.http.entity.ContentType;
+
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Attachments;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.twilio.utils.DistributedRateLimiter;
+import io.kestra.plugin.twilio.utils.SuppressionIndex;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+
+import static io.kestra.core.utils.Rethrow.throwFunction;
+
+/**
+ * Sender, content and connection settings shared by the tasks sending an email through the SendGrid Mail Send API,
+ * whether to a fixed list of addresses or to every recipient of a file.
+ */
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+public abstract class AbstractSendGridMail extends Task {
+    private static final String SUPPRESSIONS_KV_PREFIX = "sendgrid-suppressions_";
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /* Server info */
+
+    @Schema(
+        title = "SendGrid API key",
+        description = "API key used to authenticate SendGrid requests; store as a secret"
+    )
+    @NotBlank
+    @PluginProperty(secret = true, dynamic = true, group = "connection")
+    private String sendgridApiKey;
+
+    /* Mail info */
+    @Schema(
+        title = "Sender email address",
+        description = "Must comply with RFC 2822 formatting"
+    )
+    @PluginProperty(dynamic = true, group = "source")
+    @NotBlank
+    private String from;
+
+    @Schema(
+        title = "Email subject",
+        description = "Optional subject line rendered from flow variables"
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> subject;
+
+    @Schema(
+        title = "HTML body",
+        description = "Optional HTML content. When both HTML and text are provided, email clients treat them as alternatives and typically favor HTML."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<String> htmlContent;
+
+    @Schema(
+        title = "Plain text body",
+        description = "Optional text content. When both HTML and text are provided, clients choose based on capability."
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<String> textContent;
+
+    @Schema(
+        title = "File attachments",
+        description = "List of files loaded from Kestra storage and attached to the email; delivered as downloadable attachments"
+    )
+    @PluginProperty(group = "advanced")
+    private List<Attachment> attachments;
+
+    @Schema(
+        title = "Inline embedded images",
+        description = "Images loaded from storage and attached with inline disposition for HTML content"
+    )
+    @PluginProperty(group = "advanced")
+    private List<Attachment> embeddedImages;
+
+    @Schema(
+        title = "Maximum emails per second",
+        description = """
+            Caps the rate of emails sent through `rateLimitKey` across every worker of the cluster. \
+            Tokens are shared through the KV store of the flow namespace and leased in small batches; no limit is applied when not set."""
+    )
+    @PluginProperty(group = "execution")
+    private Property<Double> maxEmailsPerSecond;
+
+    @Schema(
+        title = "Rate limit key",
+        description = "Name of the shared rate applied by `maxEmailsPerSecond`; defaults to the `from` address"
+    )
+    @PluginProperty(group = "execution")
+    private Property<String> rateLimitKey;
+
+    @Schema(
+        title = "Priority",
+        description = """
+            Lane of the emails within the rate of `maxEmailsPerSecond`: `CRITICAL` emails, e.g. alerts, always go first \
+            and hold back the other lanes of every worker, while `NORMAL` emails get four permits for each `BULK` permit. \
+            Defaults to `NORMAL`, or `BULK` for bulk tasks."""
+    )
+    @PluginProperty(group = "execution")
+    private Property<DistributedRateLimiter.Priority> priority;
+
+    @Schema(
+        title = "Suppression list",
+        description = """
+            Name of a list synced by `sendgrid.SendGridSuppressionSync`: recipients in the list, e.g. hard bounces and unsubscribes, \
+            are left out of the request instead of being dropped by SendGrid at the expense of the sender reputation."""
+    )
+    @PluginProperty(group = "advanced")
+    private Property<String> suppressionList;
+
+    // SendGrid client for the rendered API key; tests override it to target a mock server.
+    protected SendGrid sendGrid(RunContext runContext) throws Exception {
+        return new SendGrid(runContext.render(this.sendgridApiKey));
+    }
+
+    // Everything but the personalizations, which depend on the recipients.
+    protected Mail mail(RunContext runContext, String renderedHtml, String renderedText) throws Exception {
+        Mail mail = new Mail();
+
+        mail.setFrom(new Email(runContext.render(this.from)));
+
+        if (renderedText != null) {
+            Content plainTextContent = new Content(ContentType.TEXT_PLAIN.getMimeType(), renderedText);
+            mail.addContent(plainTextContent);
+        }
+
+        if (renderedHtml != null) {
+            Content htmlContent = new Content(ContentType.TEXT_HTML.getMimeType(), renderedHtml);
+            mail.addContent(htmlContent);
+        }
+
+        if (this.attachments != null) {
+            this.attachmentResources(this.attachments, runContext).stream()
+                .peek(attachment -> attachment.setDisposition("attachment"))
+                .forEach(mail::addAttachments);
+        }
+
+        if (this.embeddedImages != null) {
+            this.attachmentResources(this.embeddedImages, runContext).stream()
+                .peek(attachment -> attachment.setDisposition("inline"))
+                .forEach(mail::addAttachments);
+        }
+
+        return mail;
+    }
+
+    // Lane used when `priority` isn't set.
+    protected DistributedRateLimiter.Priority defaultPriority() {
+        return DistributedRateLimiter.Priority.NORMAL;
+    }
+
+    protected DistributedRateLimiter.Priority renderPriority(RunContext runContext) throws Exception {
+        return runContext.render(this.priority).as(DistributedRateLimiter.Priority.class).orElse(defaultPriority());
+    }
+
+    protected Optional<DistributedRateLimiter> rateLimiter(RunContext runContext) throws Exception {
+        var rMaxEmailsPerSecond = runContext.render(this.maxEmailsPerSecond).as(Double.class);
+        if (rMaxEmailsPerSecond.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var rRateLimitKey = runContext.render(this.rateLimitKey).as(String.class).orElse(runContext.render(this.from));
+
+        return Optional.of(new DistributedRateLimiter(runContext, rRateLimitKey, rMaxEmailsPerSecond.get()));
+    }
+
+    // Loaded suppression list, or null when `suppressionList` isn't set.
+    protected SuppressionIndex suppressionIndex(RunContext runContext) throws Exception {
+        var rSuppressionList = runContext.render(this.suppressionList).as(String.class);
+        if (rSuppressionList.isEmpty()) {
+            return null;
+        }
+
+        return SuppressionIndex.load(runContext, suppressionKvKey(rSuppressionList.get()));
+    }
+
+    public static String suppressionKvKey(String suppressionList) {
+        return SUPPRESSIONS_KV_PREFIX + suppressionList.replaceAll("[^a-zA-Z0-9._-]", "-");
+    }
+
+    /**
+     * 64-bit hash of the address, case-insensitive and without the display name of {@code Name <address>}.
+     * With 64 bits, two of a few million addresses share a key with a probability below one in a million.
+     */
+    public static long suppressionKey(String email) {
+        String address = email.strip();
+        int start = address.lastIndexOf('<');
+        int end = address.lastIndexOf('>');
+        if (start >= 0 && end > start) {
+            address = address.substring(start + 1, end).strip();
+        }
+
+        long hash = FNV_OFFSET;
+        for (byte b : address.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private List<Attachments> attachmentResources(List<Attachment> list, RunContext runContext) throws Exception {
+        return list
+            .stream()
+            .map(throwFunction(attachment ->
+            {
+                InputStream inputStream = runContext.storage()
+                    .getFile(URI.create(runContext.render(attachment.getUri()).as(String.class).get()));
+
+                return new Attachments.Builder(runContext.render(attachment.getName()).as(String.class).get(), inputStream)
+                    .withType(runContext.render(attachment.getContentType()).as(String.class).get()).build();
+            }))
+            .collect(Collectors.toList());
+    }
+
+    @Getter
+    @Builder
+    @Jacksonized
+    public static class Attachment {
+        @Schema(
+            title = "Attachment URI",
+            description = "URI in Kestra internal storage that supplies the file content"
+        )
+        @NotNull
+        @PluginProperty(group = "main")
+        private Property<String> uri;
+
+        @Schema(
+            title = "Attachment filename",
+            description = "Filename presented to recipients, e.g., 'report.pdf'"
+        )
+        @NotNull
+        @PluginProperty(group = "main")
+        private Property<String> name;
+
+        @Schema(
+            title = "Attachment content type",
+            description = "MIME type for the attachment; defaults to application/octet-stream"
+        )
+        @NotNull
+        @Builder.Default
+        @PluginProperty(group = "main")
+        private Property<String> contentType = Property.ofValue("application/octet-stream");
+    }
+}
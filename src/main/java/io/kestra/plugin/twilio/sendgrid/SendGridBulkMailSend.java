@@ -0,0 +1,488 @@
+package io.kestra.plugin.twilio.sendgrid;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendgrid.Method;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.twilio.utils.AdaptiveConcurrencyLimiter;
+import io.kestra.plugin.twilio.utils.BulkCheckpoint;
+import io.kestra.plugin.twilio.utils.DistributedRateLimiter;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Send an email to every recipient of a file through SendGrid",
+    description = """
+        Reads recipients from an ION file in Kestra internal storage and sends them the same email through the SendGrid Mail Send API.
+        Each recipient gets its own personalization, so recipients don't see each other, and up to 1,000 personalizations are packed per request.
+        Each row is either an email address or an object with an `email` and an optional `name`.
+        A rejected request or an invalid row doesn't stop the send: its recipients are counted as `failed` or `invalid` and listed, with their error, in the failures file.
+        Progress is checkpointed in the namespace KV store, so a retried or restarted task skips the recipients already handled.
+        Requests are sent concurrently; set `maxConcurrency` to let the number of requests in flight adapt to the capacity SendGrid actually grants,
+        growing while responses are fast and healthy and halving on HTTP 429, 5xx or latency spikes.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send a newsletter to every address of a file.",
+            full = true,
+            code = """
+                id: newsletter
+                namespace: company.team
+
+                inputs:
+                  - id: recipients
+                    type: FILE
+
+                tasks:
+                  - id: send_newsletter
+                    type: io.kestra.plugin.twilio.sendgrid.SendGridBulkMailSend
+                    sendgridApiKey: "{{ secret('SENDGRID_API_KEY') }}"
+                    from: hello@kestra.io
+                    recipients: "{{ inputs.recipients }}"
+                    subject: "Kestra monthly newsletter"
+                    htmlContent: "<h1>What's new this month</h1>"
+                    maxConcurrency: 8
+                """
+        )
+    }
+)
+public class SendGridBulkMailSend extends AbstractSendGridMail implements RunnableTask<SendGridBulkMailSend.Output> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final int MAX_PERSONALIZATIONS_PER_REQUEST = 1000;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    @Schema(
+        title = "Recipients file",
+        description = "URI of an ION file in Kestra internal storage holding one recipient per row"
+    )
+    @NotNull
+    @PluginProperty(group = "destination", internalStorageURI = true)
+    private Property<String> recipients;
+
+    @Schema(
+        title = "Recipients per request",
+        description = "Number of personalizations sent per Mail Send request; capped at 1,000"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> batchSize = Property.ofValue(MAX_PERSONALIZATIONS_PER_REQUEST);
+
+    @Schema(
+        title = "Concurrency",
+        description = "Number of requests kept in flight, or the starting point when `maxConcurrency` is set; defaults to 2"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> concurrency = Property.ofValue(2);
+
+    @Schema(
+        title = "Maximum concurrency",
+        description = "Enables adaptive concurrency: the number of requests in flight then varies between 1 and this value"
+    )
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxConcurrency;
+
+    @Schema(
+        title = "Maximum retries",
+        description = "Number of times a request rejected with HTTP 429 or 5xx, or failing with a network error, is retried with exponential backoff; defaults to 3"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Integer> maxRetries = Property.ofValue(3);
+
+    @Schema(
+        title = "Checkpoint interval",
+        description = """
+            How often progress is saved to the namespace KV store, so that a retried or restarted task resumes where the previous attempt stopped \
+            instead of sending again; after a worker crash, at most this interval of emails is sent twice. Defaults to 10 seconds."""
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    private Property<Duration> checkpointInterval = Property.ofValue(Duration.ofSeconds(10));
+
+    @Schema(
+        title = "Checkpoint key",
+        description = "Identifies the send across attempts; defaults to the execution and task run, set it to resume a send from another execution"
+    )
+    @PluginProperty(group = "execution")
+    private Property<String> checkpointKey;
+
+    @Override
+    protected DistributedRateLimiter.Priority defaultPriority() {
+        return DistributedRateLimiter.Priority.BULK;
+    }
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
+
+        var rRecipients = URI.create(runContext.render(recipients).as(String.class).orElseThrow());
+        var rBatchSize = Math.max(1, Math.min(runContext.render(batchSize).as(Integer.class).orElse(MAX_PERSONALIZATIONS_PER_REQUEST), MAX_PERSONALIZATIONS_PER_REQUEST));
+        var rConcurrency = Math.max(1, runContext.render(concurrency).as(Integer.class).orElse(2));
+        var rMaxConcurrency = runContext.render(maxConcurrency).as(Integer.class);
+        var rMaxRetries = runContext.render(maxRetries).as(Integer.class).orElse(3);
+        var rSubject = runContext.render(getSubject()).as(String.class).orElse(null);
+        var rCheckpointKey = runContext.render(checkpointKey).as(String.class)
+            .or(() -> BulkCheckpoint.defaultName(runContext))
+            .orElse(rRecipients.toString());
+        var suppressions = suppressionIndex(runContext);
+        var checkpoint = BulkCheckpoint.load(runContext, rCheckpointKey, runContext.render(checkpointInterval).as(Duration.class).orElse(Duration.ofSeconds(10)));
+
+        String renderedText = null;
+        if (this.textContent != null) {
+            renderedText = runContext.render(this.textContent).as(String.class).orElse("Please view this email in a modern email client");
+        }
+
+        // the content and attachments are encoded once, only the personalizations change between requests
+        Map<String, Object> mail = MAPPER.readValue(
+            mail(runContext, runContext.render(this.htmlContent).as(String.class).orElse(null), renderedText).build(),
+            new TypeReference<>() {}
+        );
+
+        AdaptiveConcurrencyLimiter limiter = rMaxConcurrency
+            .map(max -> new AdaptiveConcurrencyLimiter(rConcurrency, 1, max))
+            .orElseGet(() -> AdaptiveConcurrencyLimiter.fixed(rConcurrency));
+        Optional<DistributedRateLimiter> rateLimiter = rateLimiter(runContext);
+        DistributedRateLimiter.Priority rPriority = renderPriority(runContext);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(rConcurrency, rMaxConcurrency.orElse(rConcurrency)));
+        BlockingQueue<SendGrid> clients = new LinkedBlockingQueue<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong retries = new AtomicLong();
+        long requests = 0;
+        long suppressed = 0;
+        long invalid = 0;
+
+        File failures = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (
+            OutputStream output = new FileOutputStream(failures);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rRecipients), StandardCharsets.UTF_8))
+        ) {
+            FailureSink sink = (index, email, error) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("index", index);
+                entry.put("email", email);
+                entry.put("error", error);
+
+                synchronized (output) {
+                    FileSerde.write(output, entry);
+                }
+            };
+
+            try {
+                List<Map<String, Object>> batch = new ArrayList<>(rBatchSize);
+                List<long[]> rows = new ArrayList<>(rBatchSize);
+                long index = 0;
+
+                for (Object row : FileSerde.readAll(reader).toIterable()) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+
+                    long rowHash = BulkCheckpoint.hash(index, row);
+                    if (!checkpoint.skip(index, rowHash)) {
+                        Map<String, Object> personalization = personalization(row, rSubject);
+
+                        if (personalization == null) {
+                            sink.write(index, row != null ? row.toString() : null, "Invalid row: recipient rows must be an email address or have an `email` field");
+                            checkpoint.drop(index, rowHash);
+                            invalid++;
+                        } else if (suppressions != null && suppressions.contains(suppressionKey(email(personalization)))) {
+                            checkpoint.drop(index, rowHash);
+                            suppressed++;
+                        } else {
+                            batch.add(personalization);
+                            rows.add(new long[]{index, rowHash});
+                        }
+                    }
+                    index++;
+
+                    if (batch.size() == rBatchSize) {
+                        submit(runContext, executor, clients, limiter, rateLimiter, rPriority, mail, batch, rows, rMaxRetries, checkpoint, sink, retries, failure);
+                        requests++;
+                        batch = new ArrayList<>(rBatchSize);
+                        rows = new ArrayList<>(rBatchSize);
+                    }
+                }
+
+                if (!batch.isEmpty() && failure.get() == null) {
+                    submit(runContext, executor, clients, limiter, rateLimiter, rPriority, mail, batch, rows, rMaxRetries, checkpoint, sink, retries, failure);
+                    requests++;
+                }
+            } finally {
+                executor.shutdown();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        } catch (Exception e) {
+            checkpoint.save();
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        runContext.metric(Counter.of("recipients", checkpoint.sent()));
+        runContext.metric(Counter.of("failed", checkpoint.failed()));
+        runContext.metric(Counter.of("requests", requests));
+        runContext.metric(Counter.of("retries", retries.get()));
+        if (suppressions != null) {
+            runContext.metric(Counter.of("suppressed", suppressed));
+        }
+
+        if (failure.get() != null) {
+            checkpoint.save();
+            throw failure.get();
+        }
+
+        checkpoint.clear();
+
+        runContext.logger().info(
+            "Sent an email to {} recipients in {} requests, {} rejected, {} invalid rows, {} suppressed, {} retries, {} rows resumed from an earlier attempt; final concurrency {}",
+            checkpoint.sent(), requests, checkpoint.failed(), invalid, suppressed, retries.get(), checkpoint.resumedRows(), limiter.limit()
+        );
+
+        return Output.builder()
+            .recipients(checkpoint.sent())
+            .failed(checkpoint.failed())
+            .invalid(invalid)
+            .uri(runContext.storage().putFile(failures))
+            .requests(requests)
+            .resumed(checkpoint.resumedRows())
+            .suppressed(suppressions != null ? suppressed : null)
+            .build();
+    }
+
+    private void submit(
+        RunContext runContext,
+        ExecutorService executor,
+        BlockingQueue<SendGrid> clients,
+        AdaptiveConcurrencyLimiter limiter,
+        Optional<DistributedRateLimiter> rateLimiter,
+        DistributedRateLimiter.Priority priority,
+        Map<String, Object> mail,
+        List<Map<String, Object>> batch,
+        List<long[]> rows,
+        int maxRetries,
+        BulkCheckpoint checkpoint,
+        FailureSink sink,
+        AtomicLong retries,
+        AtomicReference<Exception> failure
+    ) throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>(mail);
+        body.put("personalizations", batch);
+
+        Request request = new Request();
+        request.setMethod(Method.POST);
+        request.setEndpoint("mail/send");
+        request.setBody(MAPPER.writeValueAsString(body));
+
+        limiter.acquire();
+        executor.submit(() -> {
+            try {
+                SendGrid client = clients.poll();
+                if (client == null) {
+                    client = sendGrid(runContext);
+                }
+
+                try {
+                    String error = send(client, request, limiter, rateLimiter, priority, maxRetries, retries);
+                    // a rejected batch fails its recipients, the other batches go on
+                    for (int i = 0; i < rows.size(); i++) {
+                        long[] row = rows.get(i);
+                        if (error != null) {
+                            sink.write(row[0], email(batch.get(i)), error);
+                        }
+                        checkpoint.complete(row[0], row[1], error == null);
+                    }
+                } finally {
+                    clients.add(client);
+                }
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                limiter.release();
+            }
+        });
+    }
+
+    /**
+     * @return {@code null} once the request is accepted, or the error of its last attempt
+     */
+    private static String send(
+        SendGrid client,
+        Request request,
+        AdaptiveConcurrencyLimiter limiter,
+        Optional<DistributedRateLimiter> rateLimiter,
+        DistributedRateLimiter.Priority priority,
+        int maxRetries,
+        AtomicLong retries
+    ) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(Math.min(MAX_BACKOFF.toMillis(), 1000L << Math.min(attempt - 1, 10)));
+            }
+
+            long start = System.nanoTime();
+            boolean overloaded;
+            String error;
+            try {
+                if (rateLimiter.isPresent()) {
+                    acquire(rateLimiter.get(), priority);
+                }
+
+                start = System.nanoTime();
+                Response response = client.api(request);
+                if (response.getStatusCode() / 100 == 2) {
+                    limiter.onResponse(System.nanoTime() - start, false);
+                    return null;
+                }
+
+                overloaded = AdaptiveConcurrencyLimiter.isOverload(response.getStatusCode());
+                error = "SendGrid API failed with status code: " + response.getStatusCode() + " and body: " + response.getBody();
+            } catch (IOException e) {
+                // the SendGrid client only throws on network errors, which are retried as an overload
+                overloaded = true;
+                error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+            limiter.onResponse(System.nanoTime() - start, overloaded);
+
+            if (!overloaded || attempt >= maxRetries) {
+                return error;
+            }
+
+            retries.incrementAndGet();
+        }
+    }
+
+    private static void acquire(DistributedRateLimiter rateLimiter, DistributedRateLimiter.Priority priority) throws IOException, InterruptedException {
+        try {
+            rateLimiter.acquire(priority);
+        } catch (InterruptedException | IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Rate limit unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String email(Map<String, Object> personalization) {
+        return ((List<Map<String, Object>>) personalization.get("to")).getFirst().get("email").toString();
+    }
+
+    /**
+     * @return {@code null} when the row has no email address
+     */
+    private static Map<String, Object> personalization(Object row, String subject) {
+        Map<String, Object> to = new LinkedHashMap<>();
+
+        if (row instanceof Map<?, ?> map) {
+            Object email = map.get("email");
+            if (email == null) {
+                return null;
+            }
+
+            to.put("email", email.toString());
+            if (map.get("name") != null) {
+                to.put("name", map.get("name").toString());
+            }
+        } else if (row != null) {
+            to.put("email", row.toString());
+        } else {
+            return null;
+        }
+
+        Map<String, Object> personalization = new LinkedHashMap<>();
+        personalization.put("to", List.of(to));
+        if (subject != null) {
+            personalization.put("subject", subject);
+        }
+
+        return personalization;
+    }
+
+    @FunctionalInterface
+    private interface FailureSink {
+        void write(long index, String email, String error) throws Exception;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Number of recipients accepted by SendGrid")
+        private final Long recipients;
+
+        @Schema(
+            title = "Number of recipients rejected",
+            description = "Recipients of the requests rejected by SendGrid, or still failing with a network error or HTTP 429 or 5xx once `maxRetries` is reached"
+        )
+        private final Long failed;
+
+        @Schema(title = "Number of invalid rows", description = "Rows without an email address, skipped without calling SendGrid")
+        private final Long invalid;
+
+        @Schema(
+            title = "Failures file",
+            description = "ION file with one row per rejected recipient or invalid row: `index`, `email` and `error`"
+        )
+        private final URI uri;
+
+        @Schema(title = "Number of Mail Send requests sent")
+        private final Long requests;
+
+        @Schema(
+            title = "Number of resumed rows",
+            description = "Rows handled by an earlier attempt and skipped; they are counted in `recipients`"
+        )
+        private final Long resumed;
+
+        @Schema(
+            title = "Number of suppressed recipients",
+            description = "Recipients of the `suppressionList` left out of the requests; only set when `suppressionList` is"
+        )
+        private final Long suppressed;
+    }
+}
@@ -1,13 +1,14 @@
 package io.kestra.plugin.twilio.sendgrid;
 
 import java.util.Map;
+import java.util.Optional;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.plugins.notifications.ExecutionInterface;
-import io.kestra.core.plugins.notifications.ExecutionService;
 import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.twilio.utils.ExecutionMapCache;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
@@ -81,12 +82,28 @@ public class SendGridMailExecution extends SendGridMailTemplate implements Execu
     @PluginProperty(group = "advanced")
     private Property<String> customMessage;
 
+    @Schema(
+        title = "Maximum task runs",
+        description = """
+            When set, only the last task runs are kept in the template context, as `execution.taskRunList` and as the failed ones in `failedTasks`; \
+            `taskRunCount` holds the total, and the kept task runs don't include their outputs. \
+            This only caps the template context, the execution is still fetched in full. By default every task run is kept."""
+    )
+    @PluginProperty(group = "advanced")
+    private Property<Integer> maxTaskRuns;
+
     @Override
-    public Output run(RunContext runContext) throws Exception {
-        this.templateUri = Property.ofValue("sendgrid-mail-template.hbs.peb");
-        this.textTemplateUri = Property.ofValue("sendgrid-text-template.hbs.peb");
-        this.templateRenderMap = Property.ofValue(ExecutionService.executionMap(runContext, this));
+    protected Optional<String> renderTemplateUri(RunContext runContext) {
+        return Optional.of("sendgrid-mail-template.hbs.peb");
+    }
 
-        return super.run(runContext);
+    @Override
+    protected Optional<String> renderTextTemplateUri(RunContext runContext) {
+        return Optional.of("sendgrid-text-template.hbs.peb");
+    }
+
+    @Override
+    protected Map<String, Object> renderTemplateMap(RunContext runContext) throws Exception {
+        return ExecutionMapCache.executionMap(runContext, this, runContext.render(maxTaskRuns).as(Integer.class).orElse(null));
     }
 }
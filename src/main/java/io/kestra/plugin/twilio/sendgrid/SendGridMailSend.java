@@ -1,12 +1,9 @@
 package io.kestra.plugin.twilio.sendgrid;
 
-import java.io.InputStream;
-import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-import org.apache.http.entity.ContentType;
 import org.slf4j.Logger;
 
 import com.sendgrid.Method;
@@ -14,8 +11,6 @@ import com.sendgrid.Request;
 import com.sendgrid.Response;
 import com.sendgrid.SendGrid;
 import com.sendgrid.helpers.mail.Mail;
-import com.sendgrid.helpers.mail.objects.Attachments;
-import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
 import com.sendgrid.helpers.mail.objects.Personalization;
 
@@ -24,18 +19,13 @@ import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.annotations.PluginProperty;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
-import io.kestra.core.models.tasks.Task;
 import io.kestra.core.runners.RunContext;
+import io.kestra.plugin.twilio.utils.SuppressionIndex;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import lombok.extern.jackson.Jacksonized;
-
-import static io.kestra.core.utils.Rethrow.throwFunction;
 
 @SuperBuilder
 @ToString
@@ -76,26 +66,7 @@ import static io.kestra.core.utils.Rethrow.throwFunction;
     },
     aliases = "io.kestra.plugin.notifications.sendgrid.SendGridMailSend"
 )
-public class SendGridMailSend extends Task implements RunnableTask<SendGridMailSend.Output> {
-    /* Server info */
-
-    @Schema(
-        title = "SendGrid API key",
-        description = "API key used to authenticate SendGrid requests; store as a secret"
-    )
-    @NotBlank
-    @PluginProperty(secret = true, dynamic = true, group = "connection")
-    private String sendgridApiKey;
-
-    /* Mail info */
-    @Schema(
-        title = "Sender email address",
-        description = "Must comply with RFC 2822 formatting"
-    )
-    @PluginProperty(dynamic = true, group = "source")
-    @NotBlank
-    private String from;
-
+public class SendGridMailSend extends AbstractSendGridMail implements RunnableTask<SendGridMailSend.Output> {
     @Schema(
         title = "Recipient email addresses",
         description = "Each address must comply with RFC 2822 format"
@@ -111,97 +82,68 @@ public class SendGridMailSend extends Task implements RunnableTask<SendGridMailS
     @PluginProperty(group = "advanced")
     private Property<List<String>> cc;
 
-    @Schema(
-        title = "Email subject",
-        description = "Optional subject line rendered from flow variables"
-    )
-    @PluginProperty(group = "advanced")
-    private Property<String> subject;
-
-    @Schema(
-        title = "HTML body",
-        description = "Optional HTML content. When both HTML and text are provided, email clients treat them as alternatives and typically favor HTML."
-    )
-    @PluginProperty(group = "advanced")
-    protected Property<String> htmlContent;
-
-    @Schema(
-        title = "Plain text body",
-        description = "Optional text content. When both HTML and text are provided, clients choose based on capability."
-    )
-    @PluginProperty(group = "advanced")
-    protected Property<String> textContent;
-
-    @Schema(
-        title = "File attachments",
-        description = "List of files loaded from Kestra storage and attached to the email; delivered as downloadable attachments"
-    )
-    @PluginProperty(group = "advanced")
-    private List<Attachment> attachments;
-
-    @Schema(
-        title = "Inline embedded images",
-        description = "Images loaded from storage and attached with inline disposition for HTML content"
-    )
-    @PluginProperty(group = "advanced")
-    private List<Attachment> embeddedImages;
-
     @Override
     public Output run(RunContext runContext) throws Exception {
+        String renderedText = null;
+        if (this.textContent != null) {
+            renderedText = runContext.render(this.textContent).as(String.class).orElse("Please view this email in a modern email client");
+        }
+
+        return send(runContext, runContext.render(this.htmlContent).as(String.class).orElse(null), renderedText);
+    }
+
+    // Contents arrive rendered so that templated subclasses never have to write to htmlContent/textContent.
+    protected Output send(RunContext runContext, String renderedHtml, String renderedText) throws Exception {
         Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
 
         Logger logger = runContext.logger();
 
         logger.debug("Sending an email to {}", runContext.render(to));
 
-        Mail mail = new Mail();
-
-        Email fromEmail = new Email(runContext.render(this.from));
-        mail.setFrom(fromEmail);
+        Mail mail = mail(runContext, renderedHtml, renderedText);
 
         Personalization personalization = new Personalization();
 
-        runContext.render(this.to).stream().map(Email::new).forEach(personalization::addTo);
+        List<String> renderedTo = runContext.render(this.to);
+        List<String> renderedCcList = runContext.render(this.cc).asList(String.class);
+        List<String> suppressed = new ArrayList<>();
 
-        personalization.setSubject(runContext.render(this.subject).as(String.class).orElse(null));
+        SuppressionIndex suppressions = suppressionIndex(runContext);
+        if (suppressions != null) {
+            renderedTo = withoutSuppressed(renderedTo, suppressions, suppressed);
+            renderedCcList = withoutSuppressed(renderedCcList, suppressions, suppressed);
 
-        if (this.textContent != null) {
-            var renderedText = runContext.render(this.textContent).as(String.class);
-            final String textContent = renderedText.isEmpty() ? "Please view this email in a modern email client" : renderedText.get();
-            Content plainTextContent = new Content(ContentType.TEXT_PLAIN.getMimeType(), textContent);
-            mail.addContent(plainTextContent);
-        }
+            if (!suppressed.isEmpty()) {
+                logger.warn("Not sending to {} suppressed recipients: {}", suppressed.size(), suppressed);
+            }
 
-        if (runContext.render(this.htmlContent).as(String.class).isPresent()) {
-            Content htmlContent = new Content(ContentType.TEXT_HTML.getMimeType(), runContext.render(this.htmlContent).as(String.class).get());
-            mail.addContent(htmlContent);
+            if (renderedTo.isEmpty()) {
+                logger.warn("Every recipient is suppressed, no email sent");
+                return Output.builder().suppressed(suppressed).build();
+            }
         }
 
-        if (this.attachments != null) {
-            this.attachmentResources(this.attachments, runContext).stream()
-                .peek(attachment -> attachment.setDisposition("attachment"))
-                .forEach(mail::addAttachments);
-        }
+        renderedTo.stream().map(Email::new).forEach(personalization::addTo);
 
-        if (this.embeddedImages != null) {
-            this.attachmentResources(this.embeddedImages, runContext).stream()
-                .peek(attachment -> attachment.setDisposition("inline"))
-                .forEach(mail::addAttachments);
-        }
+        personalization.setSubject(runContext.render(this.getSubject()).as(String.class).orElse(null));
 
-        final List<String> renderedCcList = runContext.render(this.cc).asList(String.class);
         if (!renderedCcList.isEmpty()) {
             renderedCcList.stream().map(Email::new).forEach(personalization::addCc);
         }
         mail.addPersonalization(personalization);
 
-        SendGrid sendGrid = new SendGrid(runContext.render(this.sendgridApiKey));
+        SendGrid sendGrid = sendGrid(runContext);
 
         Request request = new Request();
         request.setMethod(Method.POST);
         request.setEndpoint("mail/send");
         request.setBody(mail.build());
 
+        var rateLimiter = rateLimiter(runContext);
+        if (rateLimiter.isPresent()) {
+            rateLimiter.get().acquire(renderPriority(runContext));
+        }
+
         Response api = sendGrid.api(request);
         String body = api.getBody();
         Map<String, String> headers = api.getHeaders();
@@ -211,51 +153,20 @@ public class SendGridMailSend extends Task implements RunnableTask<SendGridMailS
             throw new RuntimeException("SendGrid API failed with status code: " + statusCode + " and body: " + body);
         }
 
-        return Output.builder().body(body).headers(headers).statusCode(statusCode).build();
-    }
-
-    private List<Attachments> attachmentResources(List<Attachment> list, RunContext runContext) throws Exception {
-        return list
-            .stream()
-            .map(throwFunction(attachment ->
-            {
-                InputStream inputStream = runContext.storage()
-                    .getFile(URI.create(runContext.render(attachment.getUri()).as(String.class).get()));
-
-                return new Attachments.Builder(runContext.render(attachment.getName()).as(String.class).get(), inputStream)
-                    .withType(runContext.render(attachment.getContentType()).as(String.class).get()).build();
-            }))
-            .collect(Collectors.toList());
+        return Output.builder().body(body).headers(headers).statusCode(statusCode).suppressed(suppressions != null ? suppressed : null).build();
     }
 
-    @Getter
-    @Builder
-    @Jacksonized
-    public static class Attachment {
-        @Schema(
-            title = "Attachment URI",
-            description = "URI in Kestra internal storage that supplies the file content"
-        )
-        @NotNull
-        @PluginProperty(group = "main")
-        private Property<String> uri;
-
-        @Schema(
-            title = "Attachment filename",
-            description = "Filename presented to recipients, e.g., 'report.pdf'"
-        )
-        @NotNull
-        @PluginProperty(group = "main")
-        private Property<String> name;
+    private static List<String> withoutSuppressed(List<String> recipients, SuppressionIndex suppressions, List<String> suppressed) {
+        List<String> kept = new ArrayList<>(recipients.size());
+        for (String recipient : recipients) {
+            if (suppressions.contains(suppressionKey(recipient))) {
+                suppressed.add(recipient);
+            } else {
+                kept.add(recipient);
+            }
+        }
 
-        @Schema(
-            title = "Attachment content type",
-            description = "MIME type for the attachment; defaults to application/octet-stream"
-        )
-        @NotNull
-        @Builder.Default
-        @PluginProperty(group = "main")
-        private Property<String> contentType = Property.ofValue("application/octet-stream");
+        return kept;
     }
 
     @Getter
@@ -267,7 +178,10 @@ public class SendGridMailSend extends Task implements RunnableTask<SendGridMailS
         @Schema(title = "Response headers returned by the SendGrid API")
         private Map<String, String> headers;
 
-        @Schema(title = "HTTP status code returned by the SendGrid API")
+        @Schema(title = "HTTP status code returned by the SendGrid API", description = "0 when every `to` recipient is suppressed and no request was sent")
         private int statusCode;
+
+        @Schema(title = "Suppressed recipients", description = "Addresses of `to` and `cc` left out because they are in the `suppressionList`")
+        private List<String> suppressed;
     }
 }
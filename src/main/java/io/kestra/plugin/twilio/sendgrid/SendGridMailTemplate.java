@@ -3,6 +3,7 @@ package io.kestra.plugin.twilio.sendgrid;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 import org.apache.commons.io.IOUtils;
 
@@ -48,7 +49,7 @@ public abstract class SendGridMailTemplate extends SendGridMailSend {
         String plainTextTemplate = "";
         String htmlTextTemplate = "";
 
-        final var renderedTemplateUri = runContext.render(this.templateUri).as(String.class);
+        final var renderedTemplateUri = renderTemplateUri(runContext);
         if (renderedTemplateUri.isPresent()) {
             htmlTextTemplate = IOUtils.toString(
                 Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTemplateUri.get())),
@@ -56,16 +57,33 @@ public abstract class SendGridMailTemplate extends SendGridMailSend {
             );
         }
 
-        if (runContext.render(this.textTemplateUri).as(String.class).isPresent()) {
+        final var renderedTextTemplateUri = renderTextTemplateUri(runContext);
+        if (renderedTextTemplateUri.isPresent()) {
             plainTextTemplate = IOUtils.toString(
-                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(runContext.render(this.textTemplateUri).as(String.class).get())),
+                Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(renderedTextTemplateUri.get())),
                 StandardCharsets.UTF_8
             );
         }
 
-        this.htmlContent = Property.ofValue(runContext.render(htmlTextTemplate, runContext.render(templateRenderMap).asMap(String.class, Object.class)));
-        this.textContent = Property.ofValue(runContext.render(plainTextTemplate, runContext.render(templateRenderMap).asMap(String.class, Object.class)));
+        Map<String, Object> renderMap = renderTemplateMap(runContext);
 
-        return super.run(runContext);
+        return send(
+            runContext,
+            runContext.render(htmlTextTemplate, renderMap),
+            runContext.render(plainTextTemplate, renderMap)
+        );
+    }
+
+    // SendGridMailExecution points these at the bundled templates.
+    protected Optional<String> renderTemplateUri(RunContext runContext) throws Exception {
+        return runContext.render(this.templateUri).as(String.class);
+    }
+
+    protected Optional<String> renderTextTemplateUri(RunContext runContext) throws Exception {
+        return runContext.render(this.textTemplateUri).as(String.class);
+    }
+
+    protected Map<String, Object> renderTemplateMap(RunContext runContext) throws Exception {
+        return runContext.render(templateRenderMap).asMap(String.class, Object.class);
     }
 }
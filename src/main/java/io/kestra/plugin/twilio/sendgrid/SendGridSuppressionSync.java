@@ -0,0 +1,227 @@
+package io.kestra.plugin.twilio.sendgrid;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendgrid.Method;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.twilio.utils.SuppressionIndex;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Sync SendGrid suppression lists to a local index",
+    description = """
+        Pulls the bounces, blocks, unsubscribes and other suppression lists of a SendGrid account, page by page, into a named index
+        that `sendgrid.SendGridMailSend` and `sendgrid.SendGridBulkMailSend` check through their `suppressionList` property,
+        so suppressed addresses are left out of the requests instead of being dropped by SendGrid.
+        Addresses are kept as 64-bit hashes in an index saved in the namespace KV store, so it outlives the execution that synced it;
+        each sync replaces the previous version.
+        """
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Sync the suppression lists every night before the newsletters go out.",
+            full = true,
+            code = """
+                id: sendgrid_suppressions
+                namespace: company.team
+
+                tasks:
+                  - id: sync
+                    type: io.kestra.plugin.twilio.sendgrid.SendGridSuppressionSync
+                    sendgridApiKey: "{{ secret('SENDGRID_API_KEY') }}"
+                    suppressionList: newsletter
+                    types:
+                      - BOUNCES
+                      - BLOCKS
+                      - UNSUBSCRIBES
+                      - SPAM_REPORTS
+
+                triggers:
+                  - id: nightly
+                    type: io.kestra.plugin.core.trigger.Schedule
+                    cron: "0 2 * * *"
+                """
+        )
+    }
+)
+public class SendGridSuppressionSync extends Task implements RunnableTask<SendGridSuppressionSync.Output> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_RETRIES = 5;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    @Schema(
+        title = "SendGrid API key",
+        description = "API key with read access to suppressions; store as a secret"
+    )
+    @NotNull
+    @PluginProperty(secret = true, group = "connection")
+    private Property<String> sendgridApiKey;
+
+    @Schema(
+        title = "Suppression list",
+        description = "Name of the index, as set in the `suppressionList` property of the sending tasks"
+    )
+    @NotNull
+    @PluginProperty(group = "main")
+    private Property<String> suppressionList;
+
+    @Schema(
+        title = "Suppression types",
+        description = "SendGrid lists merged into the index; defaults to bounces, blocks and global unsubscribes"
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    private Property<List<Type>> types = Property.ofValue(List.of(Type.BOUNCES, Type.BLOCKS, Type.UNSUBSCRIBES));
+
+    @Schema(
+        title = "Page size",
+        description = "Number of addresses fetched per request; capped at 500"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    private Property<Integer> pageSize = Property.ofValue(MAX_PAGE_SIZE);
+
+    // SendGrid client for the rendered API key; tests override it to target a mock server.
+    protected SendGrid sendGrid(RunContext runContext) throws Exception {
+        return new SendGrid(runContext.render(this.sendgridApiKey).as(String.class).orElseThrow());
+    }
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
+
+        var rSuppressionList = runContext.render(suppressionList).as(String.class).orElseThrow();
+        var rTypes = runContext.render(types).asList(Type.class);
+        var rPageSize = Math.max(1, Math.min(runContext.render(pageSize).as(Integer.class).orElse(MAX_PAGE_SIZE), MAX_PAGE_SIZE));
+
+        SendGrid client = sendGrid(runContext);
+        long[] keys = new long[1024];
+        int size = 0;
+        Map<String, Long> counts = new LinkedHashMap<>();
+
+        for (Type type : rTypes) {
+            long count = 0;
+
+            for (int offset = 0; ; offset += rPageSize) {
+                List<Map<String, Object>> page = page(client, type, rPageSize, offset);
+
+                for (Map<String, Object> suppression : page) {
+                    Object email = suppression.get("email");
+                    if (email == null) {
+                        continue;
+                    }
+
+                    if (size == keys.length) {
+                        keys = Arrays.copyOf(keys, keys.length * 2);
+                    }
+                    keys[size++] = AbstractSendGridMail.suppressionKey(email.toString());
+                    count++;
+                }
+
+                if (page.size() < rPageSize) {
+                    break;
+                }
+            }
+
+            counts.put(type.name(), count);
+            runContext.metric(Counter.of("addresses", count, "type", type.name()));
+        }
+
+        SuppressionIndex index = SuppressionIndex.of(Arrays.copyOf(keys, size));
+        URI uri = index.save(runContext, AbstractSendGridMail.suppressionKvKey(rSuppressionList), "SendGrid suppression list " + rSuppressionList);
+
+        runContext.metric(Counter.of("size", index.size()));
+        runContext.logger().info("Suppression list '{}' has {} addresses: {}", rSuppressionList, index.size(), counts);
+
+        return Output.builder()
+            .uri(uri)
+            .size((long) index.size())
+            .counts(counts)
+            .build();
+    }
+
+    private static List<Map<String, Object>> page(SendGrid client, Type type, int limit, int offset) throws Exception {
+        Request request = new Request();
+        request.setMethod(Method.GET);
+        request.setEndpoint(type.endpoint());
+        request.addQueryParam("limit", String.valueOf(limit));
+        request.addQueryParam("offset", String.valueOf(offset));
+
+        // the suppression endpoints have a low rate limit, a long sync backs off instead of failing
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(Math.min(MAX_BACKOFF.toMillis(), 1000L << Math.min(attempt - 1, 10)));
+            }
+
+            Response response = client.api(request);
+            if (response.getStatusCode() / 100 == 2) {
+                return MAPPER.readValue(response.getBody(), new TypeReference<>() {});
+            }
+
+            if (response.getStatusCode() != 429 || attempt >= MAX_RETRIES) {
+                throw new RuntimeException("SendGrid API failed with status code: " + response.getStatusCode() + " and body: " + response.getBody());
+            }
+        }
+    }
+
+    public enum Type {
+        BOUNCES("suppression/bounces"),
+        BLOCKS("suppression/blocks"),
+        INVALID_EMAILS("suppression/invalid_emails"),
+        SPAM_REPORTS("suppression/spam_reports"),
+        UNSUBSCRIBES("suppression/unsubscribes");
+
+        private final String endpoint;
+
+        Type(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Index file", description = "Copy of the latest version of the list in internal storage; the sending tasks read the list from the namespace KV store")
+        private final URI uri;
+
+        @Schema(title = "Number of distinct addresses in the list")
+        private final Long size;
+
+        @Schema(title = "Number of addresses per suppression type")
+        private final Map<String, Long> counts;
+    }
+}
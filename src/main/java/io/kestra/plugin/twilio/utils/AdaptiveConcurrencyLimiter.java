@@ -0,0 +1,86 @@
+package io.kestra.plugin.twilio.utils;
+
+/**
+ * AIMD concurrency limit: the number of requests allowed in flight grows by one for every {@code limit} healthy responses,
+ * and is halved on an overload signal, i.e. a 429 or 5xx response, or a latency above twice the best latency seen so far.
+ * After a decrease, responses of the requests already in flight are ignored for further decreases since they were sent under the old limit.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // lets the baseline follow a slowly degrading provider instead of staying at the best latency ever seen
+    private static final double BASELINE_DRIFT = 1.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private int limit;
+    private int inFlight;
+    private int healthy;
+    private int decreaseHold;
+    private double baselineNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * A limiter that never adapts, for callers where adaptive concurrency is disabled.
+     */
+    public static AdaptiveConcurrencyLimiter fixed(int limit) {
+        return new AdaptiveConcurrencyLimiter(limit, limit, limit);
+    }
+
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= limit) {
+            wait();
+        }
+
+        inFlight++;
+    }
+
+    public synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * Records the outcome of a request sent while holding a slot; a slot may record several requests, e.g. retries.
+     *
+     * @param latencyNanos duration of the request
+     * @param overloaded whether the provider signaled an overload, e.g. with a 429 or 5xx response
+     */
+    public synchronized void onResponse(long latencyNanos, boolean overloaded) {
+        boolean spike = baselineNanos > 0 && latencyNanos > baselineNanos * LATENCY_TOLERANCE;
+        if (!overloaded) {
+            baselineNanos = baselineNanos == 0 ? latencyNanos : Math.min(baselineNanos * BASELINE_DRIFT, latencyNanos);
+        }
+
+        if (decreaseHold > 0) {
+            decreaseHold--;
+        }
+
+        if (overloaded || spike) {
+            if (decreaseHold == 0 && limit > minLimit) {
+                limit = Math.max(minLimit, limit / 2);
+                decreaseHold = inFlight;
+            }
+            healthy = 0;
+        } else if (++healthy >= limit) {
+            healthy = 0;
+            if (limit < maxLimit) {
+                limit++;
+                notifyAll();
+            }
+        }
+    }
+
+    public synchronized int limit() {
+        return limit;
+    }
+
+    public static boolean isOverload(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,94 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Bloom filter of long keys, answering most "not in the set" lookups from a few cache lines before an exact lookup.
+ * Bit positions are derived from two halves of one mixed hash (Kirsch and Mitzenmacher). Not thread-safe while being filled.
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final long[] words;
+    private final long bits;
+    private final int hashes;
+
+    private BloomFilter(long[] words, int hashes) {
+        this.words = words;
+        this.bits = (long) words.length * Long.SIZE;
+        this.hashes = hashes;
+    }
+
+    /**
+     * @param expectedKeys number of keys the filter is sized for
+     * @param falsePositiveRate rate of keys not in the set reported as possibly in it, e.g. 0.01
+     */
+    public static BloomFilter create(long expectedKeys, double falsePositiveRate) {
+        long keys = Math.max(1, expectedKeys);
+        long bits = Math.max(Long.SIZE, (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / keys * LN2));
+
+        return new BloomFilter(new long[(int) Math.min(Integer.MAX_VALUE - 8, (bits + Long.SIZE - 1) / Long.SIZE)], hashes);
+    }
+
+    public void put(long key) {
+        long hash = mix(key);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public long memoryBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    public void write(DataOutputStream output) throws IOException {
+        output.writeInt(hashes);
+        output.writeInt(words.length);
+        for (long word : words) {
+            output.writeLong(word);
+        }
+    }
+
+    public static BloomFilter read(DataInputStream input) throws IOException {
+        int hashes = input.readInt();
+        long[] words = new long[input.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = input.readLong();
+        }
+
+        return new BloomFilter(words, hashes);
+    }
+
+    // finalizer of MurmurHash3, so that close keys such as consecutive phone numbers spread over the whole filter
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+
+        return key;
+    }
+}
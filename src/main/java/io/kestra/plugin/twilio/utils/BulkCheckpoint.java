@@ -0,0 +1,199 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+/**
+ * Progress of a bulk send kept in the namespace KV store, so that a retried task skips the rows an earlier attempt already handled.
+ * Rows complete out of order, so the checkpoint holds a watermark below which every row is done, the rows done beyond it,
+ * and a digest of the rows below the watermark to detect a recipients file that changed between attempts.
+ * It is written every {@code interval} and when the task stops, so a worker crash can only re-send the rows of the last interval.
+ */
+public final class BulkCheckpoint {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final String KV_PREFIX = "twilio-checkpoint_";
+    private static final Duration TTL = Duration.ofDays(7);
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final KVStore kvStore;
+    private final String key;
+    private final long intervalMillis;
+
+    private final State resumed;
+    private long resumedDigest;
+
+    private long watermark;
+    private long digest;
+    private final TreeMap<Long, Long> done = new TreeMap<>();
+    private long sent;
+    private long failed;
+    private long savedAt;
+
+    private BulkCheckpoint(KVStore kvStore, String key, Duration interval, State resumed) {
+        this.kvStore = kvStore;
+        this.key = key;
+        this.intervalMillis = interval.toMillis();
+        this.resumed = resumed;
+        this.savedAt = System.currentTimeMillis();
+
+        if (resumed != null) {
+            this.watermark = resumed.watermark();
+            this.digest = resumed.digest();
+            this.done.putAll(resumed.done());
+            this.sent = resumed.sent();
+            this.failed = resumed.failed();
+        }
+    }
+
+    /**
+     * @param name identifies the bulk send across attempts, see {@link #defaultName(RunContext)}
+     */
+    public static BulkCheckpoint load(RunContext runContext, String name, Duration interval) throws Exception {
+        KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+        String key = KV_PREFIX + name.replaceAll("[^a-zA-Z0-9._-]", "-");
+
+        Optional<KVValue> value = kvStore.getValue(key);
+        State resumed = value.isPresent() && value.get().value() != null
+            ? MAPPER.readValue(value.get().value().toString(), State.class)
+            : null;
+
+        if (resumed != null) {
+            runContext.logger().info(
+                "Resuming from checkpoint '{}': {} rows handled, {} sent, {} failed",
+                key, resumed.watermark() + resumed.done().size(), resumed.sent(), resumed.failed()
+            );
+        }
+
+        return new BulkCheckpoint(kvStore, key, interval, resumed);
+    }
+
+    /**
+     * The execution and task run, which stay the same when a task is retried or its execution restarted.
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<String> defaultName(RunContext runContext) {
+        Object execution = runContext.getVariables().get("execution");
+        Object taskRun = runContext.getVariables().get("taskrun");
+
+        if (execution instanceof Map<?, ?> executionMap && taskRun instanceof Map<?, ?> taskRunMap
+            && executionMap.get("id") != null && taskRunMap.get("id") != null) {
+            return Optional.of(executionMap.get("id") + "_" + taskRunMap.get("id"));
+        }
+
+        return Optional.empty();
+    }
+
+    public static long hash(long index, Object row) throws Exception {
+        long hash = FNV_OFFSET ^ index;
+        for (byte b : MAPPER.writeValueAsString(row).getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Whether an earlier attempt already handled the row; rows must be checked in order.
+     *
+     * @throws IllegalStateException when the row doesn't match the one handled by the earlier attempt
+     */
+    public boolean skip(long index, long rowHash) {
+        if (resumed == null) {
+            return false;
+        }
+
+        if (index < resumed.watermark()) {
+            resumedDigest += rowHash;
+            if (index == resumed.watermark() - 1 && resumedDigest != resumed.digest()) {
+                throw new IllegalStateException("The recipients file changed since checkpoint '" + key + "', delete it to send again");
+            }
+
+            return true;
+        }
+
+        Long handled = resumed.done().get(index);
+        if (handled != null && handled != rowHash) {
+            throw new IllegalStateException("The recipients file changed since checkpoint '" + key + "', delete it to send again");
+        }
+
+        return handled != null;
+    }
+
+    public synchronized void complete(long index, long rowHash, boolean success) throws Exception {
+        if (success) {
+            sent++;
+        } else {
+            failed++;
+        }
+
+        advance(index, rowHash);
+    }
+
+    /**
+     * Marks a row handled without sending it, e.g. a duplicate recipient.
+     */
+    public synchronized void drop(long index, long rowHash) throws Exception {
+        advance(index, rowHash);
+    }
+
+    private void advance(long index, long rowHash) throws Exception {
+        if (index == watermark) {
+            digest += rowHash;
+            watermark++;
+            for (Long next = done.remove(watermark); next != null; next = done.remove(watermark)) {
+                digest += next;
+                watermark++;
+            }
+        } else {
+            done.put(index, rowHash);
+        }
+
+        if (intervalMillis > 0 && System.currentTimeMillis() - savedAt >= intervalMillis) {
+            save();
+        }
+    }
+
+    public synchronized void save() throws Exception {
+        kvStore.put(
+            key,
+            new KVValueAndMetadata(
+                new KVMetadata("Checkpoint of a Twilio or SendGrid bulk send", TTL),
+                MAPPER.writeValueAsString(new State(watermark, digest, Map.copyOf(done), sent, failed))
+            )
+        );
+        savedAt = System.currentTimeMillis();
+    }
+
+    // once every row is handled, a retry has nothing to resume
+    public void clear() throws Exception {
+        kvStore.delete(key);
+    }
+
+    public synchronized long sent() {
+        return sent;
+    }
+
+    public synchronized long failed() {
+        return failed;
+    }
+
+    public long resumedRows() {
+        return resumed == null ? 0 : resumed.watermark() + resumed.done().size();
+    }
+
+    record State(long watermark, long digest, Map<Long, Long> done, long sent, long failed) {
+    }
+}
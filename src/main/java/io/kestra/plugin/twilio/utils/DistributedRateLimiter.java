@@ -0,0 +1,294 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+/**
+ * Cluster-wide rate kept in the namespace KV store, so that every worker sending through the same key shares one rate.
+ * Time is cut into windows of one second (longer for rates below one per second), and the rate of a window is split into a fixed number of slots,
+ * each worth a lease of a tenth of a second worth of rate. Each slot is a KV key of its own holding the window it was last claimed for:
+ * a worker leases tokens by claiming a slot not yet claimed for the current window, and shares them between every task on the worker.
+ * There is no shared counter to overwrite, and tokens a worker doesn't use are gone when their window ends, so a worker that stops sending holds no capacity.
+ * <p>
+ * The KV store has no compare-and-set, so a claim is read back to check it wasn't overwritten. A slot can still be granted twice when two workers read it
+ * before either claim is written, i.e. within one KV round trip of each other; each such race over-issues one lease, and claims start at a random slot
+ * to keep races rare. Slot windows come from the worker clocks, which are assumed to be in sync within a small fraction of a window.
+ * <p>
+ * Permits are handed out on the worker through priority lanes: {@link Priority#CRITICAL} callers always go first,
+ * and {@link Priority#NORMAL} callers get {@value #NORMAL_WEIGHT} permits for each {@link Priority#BULK} permit while both wait.
+ * A critical lease also holds back the normal and bulk leases of the other workers for a lease duration,
+ * and when every slot of the window is taken it claims a slot of the next window, so that alerts never queue behind a campaign.
+ * <p>
+ * The lanes of a worker are shared by every limiter of the same key, whatever its rate, and lease outside of their monitor:
+ * a single lease is in flight at a time, plus a critical one. Each lease uses the rate of the caller running it, so tasks sharing a key should share a rate.
+ */
+public final class DistributedRateLimiter {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final String KV_PREFIX = "twilio-rate-limit_";
+    private static final Duration LEASE_DURATION = Duration.ofSeconds(1);
+    private static final Duration STATE_TTL = Duration.ofHours(1);
+    private static final long MIN_WINDOW_MILLIS = 1000;
+    private static final long MIN_WAIT_MILLIS = 10;
+    private static final long MAX_IDLE_WAIT_MILLIS = 100;
+    private static final int NORMAL_WEIGHT = 4;
+
+    private static final Map<String, Lanes> LANES = new ConcurrentHashMap<>();
+
+    private final KVStore kvStore;
+    private final String key;
+    private final String leaseKey;
+    private final int batchSize;
+    private final long windowMillis;
+    private final int slots;
+
+    /**
+     * @param name identifies the shared rate within the namespace, e.g. the sender or the account
+     */
+    public DistributedRateLimiter(RunContext runContext, String name, double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+
+        String namespace = runContext.flowInfo().namespace();
+
+        this.kvStore = runContext.namespaceKv(namespace);
+        // '_' separates the name from the slot, so it can't be part of the name
+        this.key = KV_PREFIX + name.replaceAll("[^a-zA-Z0-9.-]", "-");
+        this.leaseKey = runContext.flowInfo().tenantId() + "/" + namespace + "/" + this.key;
+        this.batchSize = (int) Math.max(1, Math.ceil(permitsPerSecond / 10));
+        this.windowMillis = Math.max(MIN_WINDOW_MILLIS, (long) Math.ceil(1000 / permitsPerSecond));
+        // rounded down, so that a window never holds more than its share of the rate
+        this.slots = (int) Math.max(1, Math.floor(permitsPerSecond * windowMillis / 1000D / batchSize));
+    }
+
+    public void acquire() throws Exception {
+        acquire(Priority.NORMAL);
+    }
+
+    public void acquire(Priority priority) throws Exception {
+        Lanes lanes = LANES.computeIfAbsent(leaseKey, k -> new Lanes());
+        boolean critical = priority == Priority.CRITICAL;
+
+        synchronized (lanes) {
+            lanes.waiting[priority.ordinal()]++;
+        }
+
+        try {
+            while (true) {
+                long now;
+
+                synchronized (lanes) {
+                    while (true) {
+                        now = System.currentTimeMillis();
+                        boolean turn = lanes.isTurn(priority);
+
+                        if (turn && lanes.remaining > 0 && lanes.expiresAt > now) {
+                            lanes.grant(priority);
+                            return;
+                        }
+
+                        // one lease in flight per worker, plus one critical lease so that alerts never wait for a bulk lease
+                        if (turn && critical && !lanes.criticalLeasing) {
+                            lanes.criticalLeasing = true;
+                            break;
+                        }
+
+                        if (turn && !critical && !lanes.leasing && lanes.retryAt <= now) {
+                            lanes.leasing = true;
+                            break;
+                        }
+
+                        lanes.wait(lanes.retryAt > now ? Math.min(MAX_IDLE_WAIT_MILLIS, lanes.retryAt - now) : MAX_IDLE_WAIT_MILLIS);
+                    }
+                }
+
+                // the KV round trips happen outside the monitor, so that callers of other lanes aren't held behind them
+                Grant grant = null;
+                try {
+                    grant = lease(now, priority);
+                } finally {
+                    synchronized (lanes) {
+                        if (critical) {
+                            lanes.criticalLeasing = false;
+                        } else {
+                            lanes.leasing = false;
+                        }
+
+                        if (grant != null) {
+                            lanes.add(grant, now, critical);
+                        }
+                        lanes.notifyAll();
+                    }
+                }
+
+                if (critical && grant.count() == 0) {
+                    Thread.sleep(grant.waitMillis());
+                }
+            }
+        } finally {
+            synchronized (lanes) {
+                lanes.waiting[priority.ordinal()]--;
+                lanes.notifyAll();
+            }
+        }
+    }
+
+    private Grant lease(long now, Priority priority) throws Exception {
+        long window = now / windowMillis;
+        long windowEnd = (window + 1) * windowMillis;
+        boolean critical = priority == Priority.CRITICAL;
+
+        if (critical) {
+            writeCriticalUntil(now + LEASE_DURATION.toMillis());
+        } else {
+            long criticalUntil = readCriticalUntil();
+            if (criticalUntil > now) {
+                return new Grant(0, 0, Math.max(MIN_WAIT_MILLIS, criticalUntil - now));
+            }
+        }
+
+        if (claim(window)) {
+            return new Grant(batchSize, windowEnd, 0);
+        }
+
+        // a critical caller borrows a slot of the next window, which then has one lease less
+        if (critical && claim(window + 1)) {
+            return new Grant(batchSize, windowEnd + windowMillis, 0);
+        }
+
+        return new Grant(0, 0, Math.max(MIN_WAIT_MILLIS, windowEnd - now));
+    }
+
+    /**
+     * Claims one of the slots not yet claimed for {@code window}, starting at a random one so that workers don't race for the same slot.
+     */
+    private boolean claim(long window) throws Exception {
+        String owner = UUID.randomUUID().toString();
+        int start = ThreadLocalRandom.current().nextInt(slots);
+
+        for (int i = 0; i < slots; i++) {
+            String slotKey = key + "_" + ((start + i) % slots);
+
+            Optional<Slot> current = readSlot(slotKey);
+            if (current.isPresent() && current.get().window() >= window) {
+                continue;
+            }
+
+            kvStore.put(
+                slotKey,
+                new KVValueAndMetadata(new KVMetadata("Shared rate limit of Twilio and SendGrid tasks", STATE_TTL), MAPPER.writeValueAsString(new Slot(window, owner)))
+            );
+
+            if (readSlot(slotKey).map(slot -> owner.equals(slot.owner())).orElse(false)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private Optional<Slot> readSlot(String slotKey) throws Exception {
+        Optional<KVValue> value = kvStore.getValue(slotKey);
+        if (value.isEmpty() || value.get().value() == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(MAPPER.readValue(value.get().value().toString(), Slot.class));
+    }
+
+    private long readCriticalUntil() throws Exception {
+        Optional<KVValue> value = kvStore.getValue(key + "_critical");
+
+        return value.isPresent() && value.get().value() != null ? Long.parseLong(value.get().value().toString()) : 0;
+    }
+
+    private void writeCriticalUntil(long criticalUntil) throws Exception {
+        kvStore.put(
+            key + "_critical",
+            new KVValueAndMetadata(new KVMetadata("Critical lease of a shared rate limit", STATE_TTL), String.valueOf(criticalUntil))
+        );
+    }
+
+    /**
+     * Tokens leased by the worker and the callers waiting for them, by priority.
+     */
+    private static final class Lanes {
+        private final int[] waiting = new int[Priority.values().length];
+        private int remaining;
+        private long expiresAt;
+        private long retryAt;
+        private boolean leasing;
+        private boolean criticalLeasing;
+        private int normalStreak;
+
+        private boolean isTurn(Priority priority) {
+            if (priority == Priority.CRITICAL) {
+                return true;
+            }
+
+            if (waiting[Priority.CRITICAL.ordinal()] > 0) {
+                return false;
+            }
+
+            boolean bulkDue = normalStreak >= NORMAL_WEIGHT;
+
+            return priority == Priority.NORMAL
+                ? waiting[Priority.BULK.ordinal()] == 0 || !bulkDue
+                : waiting[Priority.NORMAL.ordinal()] == 0 || bulkDue;
+        }
+
+        private void add(Grant grant, long now, boolean critical) {
+            if (grant.count() == 0) {
+                // a failed critical lease only holds back its own caller
+                if (!critical) {
+                    retryAt = now + grant.waitMillis();
+                }
+                return;
+            }
+
+            if (remaining > 0 && expiresAt > now) {
+                // both leases are spent by the earliest expiry, which never issues more than leased
+                remaining += grant.count();
+                expiresAt = Math.min(expiresAt, grant.expiresAt());
+            } else {
+                remaining = grant.count();
+                expiresAt = grant.expiresAt();
+            }
+        }
+
+        private void grant(Priority priority) {
+            remaining--;
+
+            if (priority == Priority.NORMAL) {
+                normalStreak++;
+            } else if (priority == Priority.BULK) {
+                normalStreak = 0;
+            }
+        }
+    }
+
+    private record Grant(int count, long expiresAt, long waitMillis) {
+    }
+
+    record Slot(long window, String owner) {
+    }
+
+    public enum Priority {
+        CRITICAL,
+        NORMAL,
+        BULK
+    }
+}
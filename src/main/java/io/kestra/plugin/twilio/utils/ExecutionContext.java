@@ -0,0 +1,84 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Size-bounded template context built from an execution map.
+ * Only the last {@code maxTaskRuns} task runs and the last {@code maxTaskRuns} failed task runs are retained, in execution order, exposed as
+ * {@code execution.taskRunList} and {@code failedTasks} along with the total {@code taskRunCount}.
+ * This only caps what is retained: the execution map is still built in full, and the retained task runs are copied eagerly.
+ * Retained task runs, as well as {@code firstFailed} and {@code lastTask}, are copied without their {@code outputs},
+ * so the context holds no reference to the full task run list nor to any task run output.
+ */
+public final class ExecutionContext {
+    private static final List<String> TASK_RUN_KEYS = List.of("firstFailed", "lastTask");
+
+    private ExecutionContext() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> bounded(Map<String, Object> executionMap, Integer maxTaskRuns) {
+        // unbounded, the execution map is given as is
+        if (maxTaskRuns == null) {
+            return executionMap;
+        }
+
+        Map<String, Object> context = new LinkedHashMap<>();
+        executionMap.forEach((key, value) -> context.put(key, TASK_RUN_KEYS.contains(key) && value != null ? withoutOutputs(value) : value));
+
+        if (!(executionMap.get("execution") instanceof Map<?, ?> rawExecution)) {
+            return context;
+        }
+
+        Map<String, Object> execution = (Map<String, Object>) rawExecution;
+        List<?> taskRuns = execution.get("taskRunList") instanceof List<?> list ? list : List.of();
+
+        // walked from the end, so that the latest task runs are kept; a task run both among the last ones and failed is copied once
+        Map<Object, Map<String, Object>> copies = new IdentityHashMap<>();
+        List<Map<String, Object>> last = new ArrayList<>();
+        List<Map<String, Object>> failed = new ArrayList<>();
+        for (int i = taskRuns.size() - 1; i >= 0 && (last.size() < maxTaskRuns || failed.size() < maxTaskRuns); i--) {
+            if (!(taskRuns.get(i) instanceof Map<?, ?> map)) {
+                continue;
+            }
+
+            if (last.size() < maxTaskRuns) {
+                last.add(copies.computeIfAbsent(map, ExecutionContext::withoutOutputs));
+            }
+
+            if (failed.size() < maxTaskRuns && isFailed(map)) {
+                failed.add(copies.computeIfAbsent(map, ExecutionContext::withoutOutputs));
+            }
+        }
+        Collections.reverse(last);
+        Collections.reverse(failed);
+
+        Map<String, Object> boundedExecution = new LinkedHashMap<>(execution);
+        boundedExecution.put("taskRunList", last);
+
+        context.put("execution", boundedExecution);
+        context.put("failedTasks", failed);
+        context.put("taskRunCount", taskRuns.size());
+
+        return context;
+    }
+
+    private static boolean isFailed(Map<?, ?> taskRun) {
+        return taskRun.get("state") instanceof Map<?, ?> state && "FAILED".equals(String.valueOf(state.get("current")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> withoutOutputs(Object taskRun) {
+        Map<String, Object> copy = taskRun instanceof Map<?, ?> map ? new LinkedHashMap<>((Map<String, Object>) map) : JacksonMapper.toMap(taskRun);
+        copy.remove("outputs");
+
+        return copy;
+    }
+}
@@ -0,0 +1,131 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import io.kestra.core.models.flows.State;
+import io.kestra.core.plugins.notifications.ExecutionInterface;
+import io.kestra.core.plugins.notifications.ExecutionService;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Short-lived worker cache of {@link ExecutionService#executionMap(RunContext, ExecutionInterface)}, so that the SMS and email
+ * notifications of the same execution fetch and flatten it once.
+ * Entries are keyed by tenant, execution ID, custom fields and custom message; concurrent lookups of the same key share a single load.
+ * Only terminated executions are kept: the map of a running execution, whose state and task runs still change, is shared by the concurrent lookups
+ * of its load and loaded again by the next one.
+ * When {@code maxTaskRuns} is set, only the bounded context is kept, so a cached execution with thousands of task runs doesn't hold all of them in memory.
+ */
+public final class ExecutionMapCache {
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final int MAX_ENTRIES = 128;
+
+    private static final ExecutionMapCache INSTANCE = new ExecutionMapCache(TTL, MAX_ENTRIES, System::nanoTime, ExecutionMapCache::isTerminated);
+
+    private final Duration ttl;
+    private final LongSupplier clock;
+    private final Predicate<Map<String, Object>> cacheable;
+    private final Map<String, Entry> entries;
+
+    ExecutionMapCache(Duration ttl, int maxEntries, LongSupplier clock) {
+        this(ttl, maxEntries, clock, value -> true);
+    }
+
+    ExecutionMapCache(Duration ttl, int maxEntries, LongSupplier clock, Predicate<Map<String, Object>> cacheable) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cacheable = cacheable;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the execution map of the task, bounded to {@code maxTaskRuns} task runs as described in {@link ExecutionContext}, or in full when {@code null}
+     */
+    public static Map<String, Object> executionMap(RunContext runContext, ExecutionInterface task, Integer maxTaskRuns) throws Exception {
+        String key = runContext.flowInfo().tenantId()
+            + "|" + maxTaskRuns
+            + "|" + runContext.render(task.getExecutionId()).as(String.class).orElse("")
+            + "|" + runContext.render(task.getCustomFields()).asMap(String.class, Object.class)
+            + "|" + runContext.render(task.getCustomMessage()).as(String.class).orElse("");
+
+        return INSTANCE.get(key, () -> ExecutionContext.bounded(ExecutionService.executionMap(runContext, task), maxTaskRuns));
+    }
+
+    /**
+     * The cached value of {@code key}, loaded by the calling thread when missing or expired while concurrent callers wait for it;
+     * a failed load, or a value that isn't cacheable, is not kept, so the next call loads again.
+     */
+    Map<String, Object> get(String key, Loader loader) throws Exception {
+        Entry entry;
+        boolean owner = false;
+
+        synchronized (entries) {
+            entry = entries.get(key);
+
+            if (entry == null || entry.expiresAt() - clock.getAsLong() < 0) {
+                entry = new Entry(new CompletableFuture<>(), clock.getAsLong() + ttl.toNanos());
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+
+        CompletableFuture<Map<String, Object>> future = entry.value();
+
+        if (owner) {
+            try {
+                Map<String, Object> value = loader.load();
+                if (!cacheable.test(value)) {
+                    synchronized (entries) {
+                        entries.remove(key, entry);
+                    }
+                }
+                future.complete(value);
+            } catch (Exception e) {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                future.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    static boolean isTerminated(Map<String, Object> executionMap) {
+        if (!(executionMap.get("execution") instanceof Map<?, ?> execution) || !(execution.get("state") instanceof Map<?, ?> state)) {
+            return false;
+        }
+
+        try {
+            return State.Type.valueOf(String.valueOf(state.get("current"))).isTerminated();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    interface Loader {
+        Map<String, Object> load() throws Exception;
+    }
+
+    private record Entry(CompletableFuture<Map<String, Object>> value, long expiresAt) {
+    }
+}
@@ -0,0 +1,123 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Open-addressing set of non-negative longs below 2^56, stored off-heap in 7-byte slots,
+ * so that 10 million phone numbers take about 90 MB instead of gigabytes of strings. Not thread-safe.
+ */
+public final class LongHashSet {
+    private static final int SLOT_BYTES = 7;
+    private static final long SLOT_MASK = (1L << 56) - 1;
+    private static final double MAX_LOAD = 0.75;
+    private static final long MIN_CAPACITY = 1024;
+    // every slot but the last is read with a full long, the last one needs one more byte
+    private static final long MAX_CAPACITY = (Integer.MAX_VALUE - 1L) / SLOT_BYTES;
+
+    // values are stored plus one, so that an empty slot reads as 0
+    public static final long MAX_VALUE = SLOT_MASK - 1;
+
+    private ByteBuffer slots;
+    private long capacity;
+    private long size;
+
+    /**
+     * @param expectedSize number of values the set is sized for; it grows beyond it
+     */
+    public LongHashSet(long expectedSize) {
+        this.allocate(Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / MAX_LOAD)));
+    }
+
+    /**
+     * @return whether the value wasn't in the set yet
+     */
+    public boolean add(long value) {
+        if (value < 0 || value > MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+
+        if (size + 1 > capacity * MAX_LOAD) {
+            grow();
+        }
+
+        long stored = value + 1;
+        for (long index = slot(stored); ; index = index + 1 == capacity ? 0 : index + 1) {
+            long current = read(index);
+            if (current == stored) {
+                return false;
+            }
+
+            if (current == 0) {
+                write(index, stored);
+                size++;
+                return true;
+            }
+        }
+    }
+
+    public boolean contains(long value) {
+        if (value < 0 || value > MAX_VALUE) {
+            return false;
+        }
+
+        long stored = value + 1;
+        for (long index = slot(stored); ; index = index + 1 == capacity ? 0 : index + 1) {
+            long current = read(index);
+            if (current == stored) {
+                return true;
+            }
+
+            if (current == 0) {
+                return false;
+            }
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return slots.capacity();
+    }
+
+    private void allocate(long capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("A set of more than " + (long) (MAX_CAPACITY * MAX_LOAD) + " values isn't supported");
+        }
+
+        this.capacity = capacity;
+        this.slots = ByteBuffer.allocateDirect((int) (capacity * SLOT_BYTES + 1)).order(ByteOrder.LITTLE_ENDIAN);
+        this.size = 0;
+    }
+
+    private void grow() {
+        ByteBuffer previous = slots;
+        long previousCapacity = capacity;
+
+        allocate(previousCapacity * 2);
+
+        for (long index = 0; index < previousCapacity; index++) {
+            long stored = previous.getLong((int) (index * SLOT_BYTES)) & SLOT_MASK;
+            if (stored != 0) {
+                add(stored - 1);
+            }
+        }
+    }
+
+    private long slot(long stored) {
+        long hash = stored * 0x9e3779b97f4a7c15L;
+        return Math.floorMod(hash ^ (hash >>> 29), capacity);
+    }
+
+    private long read(long index) {
+        return slots.getLong((int) (index * SLOT_BYTES)) & SLOT_MASK;
+    }
+
+    // the high byte of the long belongs to the next slot and is written back unchanged
+    private void write(long index, long stored) {
+        int position = (int) (index * SLOT_BYTES);
+        slots.putLong(position, (slots.getLong(position) & ~SLOT_MASK) | stored);
+    }
+}
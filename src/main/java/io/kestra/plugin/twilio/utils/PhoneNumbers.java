@@ -0,0 +1,177 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalLong;
+
+/**
+ * Phone number helpers for recipient lists.
+ */
+public final class PhoneNumbers {
+    // E.164 numbers have at most 15 digits, so they stay below 2^50; other recipients are hashed above it
+    private static final int MAX_DIGITS = 15;
+    // the shortest numbers in service, e.g. in Niue, have 7 digits with their country code
+    private static final int MIN_DIGITS = 7;
+    private static final String NANP = "1";
+    private static final String WHATSAPP = "whatsapp";
+    private static final long HASH_TAG = 1L << 54;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * The digits of an international number, ignoring spaces, dashes, dots and parentheses, e.g. 15555550100 for "+1 (555) 555-0100".
+     * Numbers starting with "00" are read as international; numbers without a country code are not recognized.
+     */
+    public static OptionalLong e164(String number) {
+        if (number == null) {
+            return OptionalLong.empty();
+        }
+
+        long value = 0;
+        int digits = 0;
+        boolean international = false;
+
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                if (!international) {
+                    // "00" international prefix
+                    if (c == '0' && i + 1 < number.length() && number.charAt(i + 1) == '0' && digits == 0) {
+                        international = true;
+                        i++;
+                        continue;
+                    }
+
+                    return OptionalLong.empty();
+                }
+
+                if ((digits == 0 && c == '0') || ++digits > MAX_DIGITS) {
+                    return OptionalLong.empty();
+                }
+
+                value = value * 10 + (c - '0');
+            } else if (c == '+' && !international && digits == 0) {
+                international = true;
+            } else if (c != ' ' && c != '-' && c != '.' && c != '(' && c != ')') {
+                return OptionalLong.empty();
+            }
+        }
+
+        return digits == 0 ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+
+    /**
+     * Normalizes a recipient to E.164 offline, so that malformed numbers are rejected before costing a request.
+     * Spaces, dashes, dots, slashes and parentheses are dropped, as is a trunk "(0)" after the country code.
+     * Numbers starting with "+" or "00" are international; others are national numbers of {@code defaultCountryCode},
+     * without their trunk prefix ("0", or "1" in the North American Numbering Plan).
+     * Channel addresses such as {@code messenger:...} are kept as is, except for the number of {@code whatsapp:} addresses.
+     *
+     * @param defaultCountryCode calling code of national numbers, e.g. "1" or "+44"; national numbers are rejected when null
+     */
+    public static Normalized normalize(String recipient, String defaultCountryCode) {
+        if (recipient == null || recipient.isBlank()) {
+            return Normalized.invalid("empty number");
+        }
+
+        int channel = recipient.indexOf(':');
+        if (channel > 0) {
+            if (!recipient.substring(0, channel).equalsIgnoreCase(WHATSAPP)) {
+                return new Normalized(recipient, null);
+            }
+
+            Normalized number = normalize(recipient.substring(channel + 1), defaultCountryCode);
+            return number.valid() ? new Normalized(WHATSAPP + ":" + number.number(), null) : number;
+        }
+
+        StringBuilder digits = new StringBuilder(MAX_DIGITS + 1);
+        boolean plus = false;
+        String cleaned = recipient.strip().replace("(0)", "");
+
+        for (int i = 0; i < cleaned.length(); i++) {
+            char c = cleaned.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == '+' && i == 0) {
+                plus = true;
+            } else if (c != ' ' && c != '-' && c != '.' && c != '/' && c != '(' && c != ')') {
+                return Normalized.invalid("unexpected character '" + c + "'");
+            }
+        }
+
+        String international;
+        if (plus) {
+            international = digits.toString();
+        } else if (digits.length() > 2 && digits.charAt(0) == '0' && digits.charAt(1) == '0') {
+            international = digits.substring(2);
+        } else if (defaultCountryCode == null) {
+            return Normalized.invalid("no country code, and no default country code is set");
+        } else {
+            String countryCode = defaultCountryCode.startsWith("+") ? defaultCountryCode.substring(1) : defaultCountryCode;
+            if (!countryCode.matches("[1-9][0-9]{0,2}")) {
+                throw new IllegalArgumentException("Invalid default country code '" + defaultCountryCode + "'");
+            }
+
+            String national = digits.toString();
+            if (countryCode.equals(NANP) && national.length() == 11 && national.startsWith(NANP)) {
+                national = national.substring(1);
+            } else if (!countryCode.equals(NANP) && national.startsWith("0")) {
+                national = national.substring(1);
+            }
+            international = countryCode + national;
+        }
+
+        if (international.length() < MIN_DIGITS) {
+            return Normalized.invalid("too short");
+        }
+        if (international.length() > MAX_DIGITS) {
+            return Normalized.invalid("too long, E.164 numbers have at most " + MAX_DIGITS + " digits");
+        }
+        if (international.charAt(0) == '0') {
+            return Normalized.invalid("country codes don't start with 0");
+        }
+        // North American numbers: 1, a 3-digit area code and a 7-digit number, neither starting with 0 or 1
+        if (international.startsWith(NANP)
+            && (international.length() != 11 || international.charAt(1) < '2' || international.charAt(4) < '2')) {
+            return Normalized.invalid("not a valid North American number");
+        }
+
+        return new Normalized("+" + international, null);
+    }
+
+    /**
+     * A key equal for the same number however it's formatted, to store recipients in a {@link LongHashSet}.
+     * Recipients that aren't international numbers, e.g. channel addresses, are keyed by a hash of their text.
+     */
+    public static long key(String recipient) {
+        OptionalLong number = e164(recipient);
+        if (number.isPresent()) {
+            return number.getAsLong();
+        }
+
+        long hash = FNV_OFFSET;
+        for (byte b : recipient.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+
+        return HASH_TAG | (hash & (HASH_TAG - 1));
+    }
+
+    /**
+     * @param number the E.164 number, when valid
+     * @param error why the number is invalid, when it is
+     */
+    public record Normalized(String number, String error) {
+        static Normalized invalid(String error) {
+            return new Normalized(null, error);
+        }
+
+        public boolean valid() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe token bucket. Callers reserve a permit and sleep until it becomes available,
+ * so concurrent callers are spread evenly over time instead of bursting past the rate.
+ */
+public class RateLimiter {
+    private final double permitsPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefill;
+
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, Math.max(1, permitsPerSecond));
+    }
+
+    public RateLimiter(double permitsPerSecond, double burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Takes a permit, possibly borrowing from the future, and returns how long the caller must wait before using it.
+     */
+    synchronized long reserve() {
+        refill();
+        tokens -= 1;
+
+        return tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,261 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+import io.kestra.core.utils.IdUtils;
+
+/**
+ * Immutable set of suppressed recipients, e.g. phone numbers that replied STOP, checked before every message.
+ * Keys are kept as a sorted array of longs for exact lookups, fronted by a {@link BloomFilter} so that recipients
+ * not in the set, the vast majority, are answered without a binary search.
+ * An index is saved in the namespace KV store, so that it outlives the execution saving it: the serialized index is split into chunks of
+ * {@value #CHUNK_BYTES} bytes, each in a KV value of its own, and a KV value named after the list points to the chunks of its latest version.
+ * The indexes loaded by a worker are cached by version, so bulk tasks of the same worker read a version once.
+ */
+public final class SuppressionIndex {
+    private static final int MAGIC = 0x53555050;
+    private static final int VERSION = 1;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MAX_CACHED = 4;
+    private static final int CHUNK_BYTES = 1024 * 1024;
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+
+    private static final Map<String, SuppressionIndex> CACHE = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SuppressionIndex> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    private final long[] keys;
+    private final BloomFilter bloom;
+
+    private SuppressionIndex(long[] keys, BloomFilter bloom) {
+        this.keys = keys;
+        this.bloom = bloom;
+    }
+
+    public static SuppressionIndex empty() {
+        return of(new long[0]);
+    }
+
+    /**
+     * @param keys any order, duplicates allowed; the array is sorted in place
+     */
+    public static SuppressionIndex of(long[] keys) {
+        Arrays.sort(keys);
+
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[size++] = keys[i];
+            }
+        }
+
+        long[] distinct = size == keys.length ? keys : Arrays.copyOf(keys, size);
+        BloomFilter bloom = BloomFilter.create(distinct.length, FALSE_POSITIVE_RATE);
+        for (long key : distinct) {
+            bloom.put(key);
+        }
+
+        return new SuppressionIndex(distinct, bloom);
+    }
+
+    public boolean contains(long key) {
+        return bloom.mightContain(key) && Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * A new index with the keys of this one and {@code added}.
+     */
+    public SuppressionIndex with(long[] added) {
+        long[] merged = Arrays.copyOf(keys, keys.length + added.length);
+        System.arraycopy(added, 0, merged, keys.length, added.length);
+
+        return of(merged);
+    }
+
+    /**
+     * A new index with the keys of this one but {@code removed}.
+     */
+    public SuppressionIndex without(long[] removed) {
+        long[] sortedRemoved = removed.clone();
+        Arrays.sort(sortedRemoved);
+
+        long[] kept = new long[keys.length];
+        int size = 0;
+        for (long key : keys) {
+            if (Arrays.binarySearch(sortedRemoved, key) < 0) {
+                kept[size++] = key;
+            }
+        }
+
+        return of(Arrays.copyOf(kept, size));
+    }
+
+    /**
+     * The latest version of the index named by {@code kvKey}, or an empty index when there is none yet.
+     */
+    public static SuppressionIndex load(RunContext runContext, String kvKey) throws Exception {
+        KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+
+        // a version replaced while it is read has its chunks deleted, the latest one is read instead
+        for (int attempt = 0; ; attempt++) {
+            Optional<String> pointer = pointer(kvStore, kvKey);
+            if (pointer.isEmpty()) {
+                return empty();
+            }
+
+            String cacheKey = kvKey + "@" + pointer.get();
+            synchronized (CACHE) {
+                SuppressionIndex cached = CACHE.get(cacheKey);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+
+            Optional<SuppressionIndex> index = readChunks(kvStore, kvKey, MAPPER.readValue(pointer.get(), Manifest.class));
+
+            if (index.isPresent()) {
+                synchronized (CACHE) {
+                    CACHE.put(cacheKey, index.get());
+                }
+
+                return index.get();
+            }
+
+            if (attempt >= 1) {
+                throw new IllegalStateException("Suppression list '" + kvKey + "' is missing chunks, update the list with `replace: true` to rebuild it");
+            }
+        }
+    }
+
+    /**
+     * Makes the index the latest version of {@code kvKey}, stored in the namespace KV store so that it outlives the execution saving it,
+     * and writes a copy to the internal storage of the execution.
+     *
+     * @return the copy in the internal storage of the execution
+     */
+    public URI save(RunContext runContext, String kvKey, String description) throws Exception {
+        KVStore kvStore = runContext.namespaceKv(runContext.flowInfo().namespace());
+
+        File file = runContext.workingDir().createTempFile(".bin").toFile();
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            write(output);
+        }
+
+        Optional<String> previous = pointer(kvStore, kvKey);
+
+        // chunks are written under a new version before the pointer moves to it, so readers never see a partial index
+        String version = IdUtils.create();
+        int chunks = 0;
+        try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+            for (byte[] chunk = input.readNBytes(CHUNK_BYTES); chunk.length > 0; chunk = input.readNBytes(CHUNK_BYTES)) {
+                kvStore.put(
+                    chunkKey(kvKey, version, chunks++),
+                    new KVValueAndMetadata(new KVMetadata(description, null), Base64.getEncoder().encodeToString(chunk))
+                );
+            }
+        }
+
+        String pointer = MAPPER.writeValueAsString(new Manifest(version, chunks));
+
+        kvStore.put(kvKey, new KVValueAndMetadata(new KVMetadata(description, null), pointer));
+
+        if (previous.isPresent()) {
+            Manifest replaced = MAPPER.readValue(previous.get(), Manifest.class);
+            for (int i = 0; i < replaced.chunks(); i++) {
+                kvStore.delete(chunkKey(kvKey, replaced.version(), i));
+            }
+        }
+
+        synchronized (CACHE) {
+            CACHE.put(kvKey + "@" + pointer, this);
+        }
+
+        return runContext.storage().putFile(file);
+    }
+
+    static String chunkKey(String kvKey, String version, int chunk) {
+        return kvKey + "_v" + version + "_" + chunk;
+    }
+
+    private static Optional<String> pointer(KVStore kvStore, String kvKey) throws Exception {
+        Optional<KVValue> value = kvStore.getValue(kvKey);
+
+        return value.isPresent() && value.get().value() != null ? Optional.of(value.get().value().toString()) : Optional.empty();
+    }
+
+    private static Optional<SuppressionIndex> readChunks(KVStore kvStore, String kvKey, Manifest manifest) throws Exception {
+        List<InputStream> chunks = new ArrayList<>(manifest.chunks());
+        for (int i = 0; i < manifest.chunks(); i++) {
+            Optional<KVValue> chunk = kvStore.getValue(chunkKey(kvKey, manifest.version(), i));
+            if (chunk.isEmpty() || chunk.get().value() == null) {
+                return Optional.empty();
+            }
+
+            chunks.add(new ByteArrayInputStream(Base64.getDecoder().decode(chunk.get().value().toString())));
+        }
+
+        return Optional.of(read(new SequenceInputStream(Collections.enumeration(chunks))));
+    }
+
+    private void write(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        bloom.write(output);
+        output.writeInt(keys.length);
+        for (long key : keys) {
+            output.writeLong(key);
+        }
+    }
+
+    static SuppressionIndex read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("Not a suppression index");
+        }
+
+        BloomFilter bloom = BloomFilter.read(input);
+        long[] keys = new long[input.readInt()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = input.readLong();
+        }
+
+        return new SuppressionIndex(keys, bloom);
+    }
+
+    record Manifest(String version, int chunks) {
+    }
+}
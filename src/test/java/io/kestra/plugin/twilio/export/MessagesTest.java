@@ -0,0 +1,124 @@
+package io.kestra.plugin.twilio.export;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+import lombok.experimental.SuperBuilder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+@WireMockTest
+class MessagesTest {
+    private static final String ACCOUNT_SID = "AC00000000000000000000000000000000";
+    private static final String PATH = "/2010-04-01/Accounts/" + ACCOUNT_SID + "/Messages.json";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void exportsEveryPageOfEveryDay(WireMockRuntimeInfo wireMock) throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        stubFor(get(urlPathEqualTo(PATH))
+            .withQueryParam("DateSent", equalTo("2024-05-01"))
+            .withQueryParam("Page", absent())
+            .willReturn(okJson("""
+                {"messages": [
+                   {"sid": "SM1", "status": "delivered", "num_segments": "1", "price": "-0.00790", "subresource_uris": {"media": "/media"}},
+                   {"sid": "SM2", "status": "undelivered", "num_segments": "2", "price": "-0.01580"}
+                 ],
+                 "next_page_uri": "%s?DateSent=2024-05-01&PageSize=2&Page=1&PageToken=PASM2"}
+                """.formatted(PATH))));
+        stubFor(get(urlPathEqualTo(PATH))
+            .withQueryParam("DateSent", equalTo("2024-05-01"))
+            .withQueryParam("Page", equalTo("1"))
+            .willReturn(okJson("""
+                {"messages": [{"sid": "SM3", "status": "delivered"}], "next_page_uri": null}
+                """)));
+        stubFor(get(urlPathEqualTo(PATH))
+            .withQueryParam("DateSent", equalTo("2024-05-02"))
+            .willReturn(okJson("""
+                {"messages": [{"sid": "SM4", "status": "failed"}], "next_page_uri": null}
+                """)));
+
+        Messages task = TestMessages.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue(ACCOUNT_SID))
+            .authToken(Property.ofValue("test_auth_token"))
+            .startDate(Property.ofValue("2024-05-01"))
+            .endDate(Property.ofValue("2024-05-02"))
+            .from(Property.ofValue("+15005550006"))
+            .pageSize(Property.ofValue(2))
+            .concurrency(Property.ofValue(2))
+            .build();
+
+        Messages.Output output = task.run(runContext);
+
+        assertThat(output.getRows(), is(4L));
+        assertThat(output.getPages(), is(3L));
+
+        List<Map<String, Object>> rows = rows(runContext, output.getUri());
+        assertThat(rows.stream().map(row -> row.get("sid")).toList(), contains("SM1", "SM2", "SM3", "SM4"));
+        assertThat(rows.getFirst().containsKey("subresource_uris"), is(false));
+        assertThat(rows.getFirst().get("price"), is("-0.00790"));
+
+        verify(getRequestedFor(urlPathEqualTo(PATH))
+            .withQueryParam("DateSent", equalTo("2024-05-01"))
+            .withQueryParam("PageSize", equalTo("2"))
+            .withQueryParam("From", equalTo("+15005550006"))
+            .withHeader("Accept-Encoding", containing("gzip"))
+            .withHeader("Authorization", containing("Basic ")));
+    }
+
+    @Test
+    void rejectsEndDateBeforeStartDate() {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        Messages task = TestMessages.builder()
+            .base("http://localhost:1")
+            .accountSID(Property.ofValue(ACCOUNT_SID))
+            .authToken(Property.ofValue("test_auth_token"))
+            .startDate(Property.ofValue("2024-05-02"))
+            .endDate(Property.ofValue("2024-05-01"))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> task.run(runContext));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(RunContext runContext, URI uri) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+        }
+    }
+
+    @SuperBuilder
+    static class TestMessages extends Messages {
+        private final String base;
+
+        @Override
+        protected String baseUrl() {
+            return base;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.kestra.plugin.twilio.export;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+import lombok.experimental.SuperBuilder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@WireMockTest
+class UsageRecordsTest {
+    private static final String ACCOUNT_SID = "AC00000000000000000000000000000000";
+    private static final String PATH = "/2010-04-01/Accounts/" + ACCOUNT_SID + "/Usage/Records/Daily.json";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void aggregatesPerCategoryAndDay(WireMockRuntimeInfo wireMock) throws Exception {
+        stubUsage();
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        UsageRecords.Output output = usage(wireMock, UsageRecords.GroupBy.CATEGORY_AND_DAY).run(runContext);
+
+        assertThat(output.getRecords(), is(4L));
+        assertThat(output.getRows(), is(3L));
+        assertThat(output.getTotalPrice(), closeTo(2.37, 0.000001));
+        assertThat(output.getPriceUnit(), is("usd"));
+
+        List<Map<String, Object>> rows = rows(runContext, output.getUri());
+        assertThat(rows.stream().map(row -> row.get("category") + " " + row.get("start_date")).toList(), contains(
+            "mms-outbound 2024-05-01",
+            "sms-outbound 2024-05-01",
+            "sms-outbound 2024-05-02"
+        ));
+        assertThat(((Number) rows.get(1).get("usage")).longValue(), is(150L));
+        assertThat(rows.get(1).get("usage_unit"), is("segments"));
+
+        verify(getRequestedFor(urlPathEqualTo(PATH))
+            .withQueryParam("StartDate", equalTo("2024-05-01"))
+            .withQueryParam("EndDate", equalTo("2024-05-02"))
+            .withQueryParam("Category", equalTo("sms-outbound"))
+            .withHeader("Authorization", containing("Basic ")));
+    }
+
+    @Test
+    void aggregatesPerCategory(WireMockRuntimeInfo wireMock) throws Exception {
+        stubUsage();
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        UsageRecords.Output output = usage(wireMock, UsageRecords.GroupBy.CATEGORY).run(runContext);
+
+        assertThat(output.getRows(), is(2L));
+
+        Map<String, Object> sms = rows(runContext, output.getUri()).stream()
+            .filter(row -> "sms-outbound".equals(row.get("category")))
+            .findFirst()
+            .orElseThrow();
+        assertThat(((Number) sms.get("count")).longValue(), is(200L));
+        assertThat(((Number) sms.get("price")).doubleValue(), closeTo(1.58, 0.000001));
+        assertThat(sms.get("start_date"), is("2024-05-01"));
+        assertThat(sms.get("end_date"), is("2024-05-02"));
+    }
+
+    @Test
+    void totalPriceIgnoresRollUps(WireMockRuntimeInfo wireMock) throws Exception {
+        // without categories, Twilio returns detailed and rolled-up categories alike
+        stubFor(get(urlPathEqualTo(PATH))
+            .withQueryParam("Category", absent())
+            .willReturn(okJson("""
+                {"usage_records": [
+                   {"category": "sms-outbound", "start_date": "2024-05-01", "end_date": "2024-05-01", "count": "100", "price": "1.18500", "price_unit": "usd"},
+                   {"category": "sms", "start_date": "2024-05-01", "end_date": "2024-05-01", "count": "100", "price": "1.18500", "price_unit": "usd"},
+                   {"category": "lookups", "start_date": "2024-05-01", "end_date": "2024-05-01", "count": "10", "price": "0.05000", "price_unit": "usd"},
+                   {"category": "totalprice", "start_date": "2024-05-01", "end_date": "2024-05-01", "count": "1.23500", "price": "1.23500", "price_unit": "usd"}
+                 ],
+                 "next_page_uri": null}
+                """)));
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        UsageRecords.Output output = TestUsageRecords.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue(ACCOUNT_SID))
+            .authToken(Property.ofValue("test_auth_token"))
+            .startDate(Property.ofValue("2024-05-01"))
+            .groupBy(Property.ofValue(UsageRecords.GroupBy.CATEGORY))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getRows(), is(4L));
+        assertThat(output.getTotalPrice(), closeTo(1.235, 0.000001));
+    }
+
+    private static void stubUsage() {
+        // first page of sms-outbound links to a second one, mms-outbound has an empty day that is left out
+        stubFor(get(urlPathEqualTo(PATH))
+            .withQueryParam("Category", equalTo("sms-outbound"))
+            .withQueryParam("Page", absent())
+            .willReturn(okJson("""
+                {"usage_records": [
+                   {"category": "sms-outbound", "start_date": "2024-05-01", "end_date": "2024-05-01", "count": "100", "count_unit": "messages",
+                    "usage": "150", "usage_unit": "segments", "price": "1.18500", "price_unit": "usd"}
+                 ],
+                 "next_page_uri": "%s?Category=sms-outbound&StartDate=2024-05-01&EndDate=2024-05-02&Page=1&PageToken=PA1"}
+                """.formatted(PATH))));
+        stubFor(get(urlPathEqualTo(PATH))
+            .withQueryParam("Category", equalTo("sms-outbound"))
+            .withQueryParam("Page", equalTo("1"))
+            .willReturn(okJson("""
+                {"usage_records": [
+                   {"category": "sms-outbound", "start_date": "2024-05-02", "end_date": "2024-05-02", "count": "100", "count_unit": "messages",
+                    "usage": "50", "usage_unit": "segments", "price": "0.39500", "price_unit": "usd"}
+                 ],
+                 "next_page_uri": null}
+                """)));
+        stubFor(get(urlPathEqualTo(PATH))
+            .withQueryParam("Category", equalTo("mms-outbound"))
+            .willReturn(okJson("""
+                {"usage_records": [
+                   {"category": "mms-outbound", "start_date": "2024-05-01", "end_date": "2024-05-01", "count": "20", "count_unit": "messages",
+                    "usage": "20", "usage_unit": "messages", "price": "0.79000", "price_unit": "usd"},
+                   {"category": "mms-outbound", "start_date": "2024-05-02", "end_date": "2024-05-02", "count": "0", "count_unit": "messages",
+                    "usage": "0", "usage_unit": "messages", "price": "0", "price_unit": "usd"}
+                 ],
+                 "next_page_uri": null}
+                """)));
+    }
+
+    private static UsageRecords usage(WireMockRuntimeInfo wireMock, UsageRecords.GroupBy groupBy) {
+        return TestUsageRecords.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue(ACCOUNT_SID))
+            .authToken(Property.ofValue("test_auth_token"))
+            .startDate(Property.ofValue("2024-05-01"))
+            .endDate(Property.ofValue("2024-05-02"))
+            .categories(Property.ofValue(List.of("sms-outbound", "mms-outbound")))
+            .groupBy(Property.ofValue(groupBy))
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(RunContext runContext, URI uri) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+        }
+    }
+
+    @SuperBuilder
+    static class TestUsageRecords extends UsageRecords {
+        private final String base;
+
+        @Override
+        protected String baseUrl() {
+            return base;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.kestra.plugin.twilio.lookup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+
+import jakarta.inject.Inject;
+import lombok.experimental.SuperBuilder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@WireMockTest
+class PhoneNumberLookupTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void looksUpAndCaches(WireMockRuntimeInfo wireMock) throws Exception {
+        // a namespace of its own, so that results cached by other tests don't count
+        String namespace = "company.team." + IdUtils.create().toLowerCase();
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "lookup", "namespace", namespace)));
+
+        stubFor(get(urlPathEqualTo("/v2/PhoneNumbers/+15555550100"))
+            .willReturn(okJson("""
+                {"phone_number": "+15555550100", "valid": true, "url": "https://lookups.twilio.com/v2/PhoneNumbers/+15555550100",
+                 "line_type_intelligence": {"type": "mobile", "carrier_name": "Carrier"}}
+                """)));
+        stubFor(get(urlPathEqualTo("/v2/PhoneNumbers/+15555550101"))
+            .willReturn(okJson("""
+                {"phone_number": "+15555550101", "valid": true, "line_type_intelligence": {"type": "landline"}}
+                """)));
+        stubFor(get(urlPathEqualTo("/v2/PhoneNumbers/+15555550102"))
+            .willReturn(aResponse().withStatus(404).withHeader("Content-Type", "application/json").withBody("{\"code\": 20404, \"status\": 404}")));
+
+        URI numbers = numbers(runContext, List.of("+1 (555) 555-0100", Map.of("to", "+15555550101"), "+15555550102", "555"));
+
+        PhoneNumberLookup.Output first = lookup(wireMock, numbers).run(runContext);
+
+        assertThat(first.getRows(), is(4L));
+        assertThat(first.getLookups(), is(3L));
+        assertThat(first.getCacheHits(), is(0L));
+        assertThat(first.getFailed(), is(2L));
+
+        List<Map<String, Object>> results = results(runContext, first.getUri());
+        Map<String, Object> mobile = results.stream().filter(result -> "+15555550100".equals(result.get("phone_number"))).findFirst().orElseThrow();
+        assertThat(((Map<?, ?>) mobile.get("line_type_intelligence")).get("type"), is("mobile"));
+        assertThat(mobile.get("input"), is("+1 (555) 555-0100"));
+        assertThat(mobile.containsKey("url"), is(false));
+
+        verify(getRequestedFor(urlPathEqualTo("/v2/PhoneNumbers/+15555550100"))
+            .withQueryParam("Fields", equalTo("line_type_intelligence"))
+            .withHeader("Authorization", containing("Basic ")));
+
+        // found numbers come from the cache, the failed lookup is retried
+        PhoneNumberLookup.Output second = lookup(wireMock, numbers).run(runContext);
+
+        assertThat(second.getCacheHits(), is(2L));
+        assertThat(second.getLookups(), is(1L));
+        verify(1, getRequestedFor(urlPathEqualTo("/v2/PhoneNumbers/+15555550100")));
+        verify(2, getRequestedFor(urlPathEqualTo("/v2/PhoneNumbers/+15555550102")));
+    }
+
+    @Test
+    void rejectsChannelAddresses(WireMockRuntimeInfo wireMock) throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "lookup", "namespace", "company.team")));
+        URI numbers = numbers(runContext, List.of("whatsapp:+15555550100", "messenger:1234567890"));
+
+        PhoneNumberLookup.Output output = lookup(wireMock, numbers).run(runContext);
+
+        assertThat(output.getRows(), is(2L));
+        assertThat(output.getLookups(), is(0L));
+        assertThat(output.getFailed(), is(2L));
+        assertThat(
+            results(runContext, output.getUri()).stream().map(result -> (String) result.get("error")).toList(),
+            everyItem(startsWith("Invalid number: channel addresses"))
+        );
+        verify(0, getRequestedFor(urlPathMatching("/v2/PhoneNumbers/.*")));
+    }
+
+    private static PhoneNumberLookup lookup(WireMockRuntimeInfo wireMock, URI numbers) {
+        return TestLookup.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue(numbers.toString()))
+            .fields(Property.ofValue(List.of("line_type_intelligence")))
+            .concurrency(Property.ofValue(2))
+            .build();
+    }
+
+    private static URI numbers(RunContext runContext, List<Object> rows) throws Exception {
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (Object row : rows) {
+                FileSerde.write(output, row);
+            }
+        }
+
+        return runContext.storage().putFile(file);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> results(RunContext runContext, URI uri) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+        }
+    }
+
+    @SuperBuilder
+    static class TestLookup extends PhoneNumberLookup {
+        private final String base;
+
+        @Override
+        protected String baseUrl() {
+            return base;
+        }
+    }
+}
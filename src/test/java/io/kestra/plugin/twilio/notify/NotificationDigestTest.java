@@ -0,0 +1,116 @@
+package io.kestra.plugin.twilio.notify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class NotificationDigestTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void flushesWhenWindowElapses() throws Exception {
+        RunContext runContext = runContext();
+        String groupKey = IdUtils.create();
+
+        CompletableFuture<Optional<NotificationDigest.Buffer>> leader = CompletableFuture.supplyAsync(
+            () -> append(runContext, groupKey, Duration.ofSeconds(2), "first")
+        );
+
+        Thread.sleep(500);
+        assertThat(append(runContext, groupKey, Duration.ofSeconds(2), "second").isPresent(), is(false));
+
+        NotificationDigest.Buffer buffer = leader.get(10, TimeUnit.SECONDS).orElseThrow();
+        assertThat(buffer.entries(), hasSize(2));
+        assertThat(buffer.entries().get(0).get("id"), is("first"));
+        assertThat(buffer.entries().get(1).get("id"), is("second"));
+
+        // the entries are deleted once taken, so the next notification opens a new window
+        assertThat(runContext.namespaceKv("company.team").list().stream().anyMatch(entry -> entry.key().contains(groupKey)), is(false));
+    }
+
+    @Test
+    void keepsEveryConcurrentNotification() throws Exception {
+        RunContext runContext = runContext();
+        String groupKey = IdUtils.create();
+        int notifications = 20;
+
+        List<CompletableFuture<Optional<NotificationDigest.Buffer>>> runs = IntStream.range(0, notifications)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> append(runContext, groupKey, Duration.ofSeconds(2), "run-" + i, 100), executor))
+            .toList();
+
+        List<NotificationDigest.Buffer> digests = new ArrayList<>();
+        for (CompletableFuture<Optional<NotificationDigest.Buffer>> run : runs) {
+            run.get(30, TimeUnit.SECONDS).ifPresent(digests::add);
+        }
+
+        // every notification is sent exactly once, whichever runs end up sending the digests
+        List<Object> sent = digests.stream().flatMap(digest -> digest.entries().stream()).map(entry -> entry.get("id")).toList();
+        assertThat(sent, hasSize(notifications));
+        assertThat(Set.copyOf(sent), hasSize(notifications));
+    }
+
+    @Test
+    void flushesWhenMaxCountIsReached() throws Exception {
+        RunContext runContext = runContext();
+        String groupKey = IdUtils.create();
+
+        CompletableFuture<Optional<NotificationDigest.Buffer>> leader = CompletableFuture.supplyAsync(
+            () -> append(runContext, groupKey, Duration.ofMinutes(10), "first")
+        );
+
+        Thread.sleep(500);
+        assertThat(append(runContext, groupKey, Duration.ofMinutes(10), "second").isPresent(), is(false));
+
+        NotificationDigest.Buffer buffer = append(runContext, groupKey, Duration.ofMinutes(10), "third").orElseThrow();
+        assertThat(buffer.entries(), hasSize(3));
+
+        // the leader notices the buffer was taken and doesn't send a second digest
+        assertThat(leader.get(10, TimeUnit.SECONDS).isPresent(), is(false));
+    }
+
+    private RunContext runContext() {
+        return runContextFactory.of(Map.of("flow", Map.of("id", "digest", "namespace", "company.team")));
+    }
+
+    private static Optional<NotificationDigest.Buffer> append(RunContext runContext, String groupKey, Duration window, String id) {
+        return append(runContext, groupKey, window, id, 3);
+    }
+
+    private static Optional<NotificationDigest.Buffer> append(RunContext runContext, String groupKey, Duration window, String id, int maxCount) {
+        try {
+            return new NotificationDigest(runContext, groupKey, window, maxCount).append(Map.of("id", id));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
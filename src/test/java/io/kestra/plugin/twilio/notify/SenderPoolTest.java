@@ -0,0 +1,56 @@
+package io.kestra.plugin.twilio.notify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SenderPoolTest {
+    @Test
+    void roundRobin() {
+        SenderPool pool = SenderPool.of(List.of("+15005550001", "+15005550002", "+15005550003"));
+
+        Map<String, Long> counts = IntStream.range(0, 300)
+            .mapToObj(i -> pool.select(SenderPool.Strategy.ROUND_ROBIN, "+1555555" + i))
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        assertThat(counts, is(Map.of("+15005550001", 100L, "+15005550002", 100L, "+15005550003", 100L)));
+    }
+
+    @Test
+    void leastRecentlyUsed() {
+        SenderPool pool = SenderPool.of(List.of("+15005550011", "+15005550012", "+15005550013"));
+
+        String sticky = pool.select(SenderPool.Strategy.STICKY, "+15555550100");
+        String first = pool.select(SenderPool.Strategy.LEAST_RECENTLY_USED, "+15555550101");
+        String second = pool.select(SenderPool.Strategy.LEAST_RECENTLY_USED, "+15555550102");
+
+        assertThat(List.of(sticky, first, second), containsInAnyOrder("+15005550011", "+15005550012", "+15005550013"));
+        assertThat(pool.select(SenderPool.Strategy.LEAST_RECENTLY_USED, "+15555550103"), is(sticky));
+    }
+
+    @Test
+    void sticky() {
+        SenderPool pool = SenderPool.of(List.of("+15005550021", "+15005550022", "+15005550023"));
+        SenderPool grown = SenderPool.of(List.of("+15005550021", "+15005550022", "+15005550023", "+15005550024"));
+
+        List<String> recipients = IntStream.range(0, 1000).mapToObj(i -> "+1555555" + String.format("%04d", i)).toList();
+
+        for (String recipient : recipients) {
+            assertThat(pool.select(SenderPool.Strategy.STICKY, recipient), is(pool.select(SenderPool.Strategy.STICKY, recipient)));
+        }
+
+        // adding a number only moves the recipients now sent from it
+        long moved = recipients.stream()
+            .filter(recipient -> !pool.select(SenderPool.Strategy.STICKY, recipient).equals(grown.select(SenderPool.Strategy.STICKY, recipient)))
+            .peek(recipient -> assertThat(grown.select(SenderPool.Strategy.STICKY, recipient), is("+15005550024")))
+            .count();
+        assertThat(moved, both(greaterThan(100L)).and(lessThan(450L)));
+    }
+}
@@ -2,12 +2,17 @@ package io.kestra.plugin.twilio.notify;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import com.google.common.io.Files;
 
 import io.kestra.core.junit.annotations.KestraTest;
@@ -21,10 +26,12 @@ import io.micronaut.context.ApplicationContext;
 import io.micronaut.runtime.server.EmbeddedServer;
 import jakarta.inject.Inject;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 
 @KestraTest
+@WireMockTest
 public class TwilioAlertTest {
 
     @Inject
@@ -70,4 +77,36 @@ public class TwilioAlertTest {
         assertThat(FakeWebhookController.data, containsString("someUserTag"));
     }
 
+    @Test
+    void mergesConcurrentAlerts(WireMockRuntimeInfo wireMock) throws Exception {
+        String path = "/v1/Services/IS00000000000000000000000000000001/Notifications";
+        stubFor(post(urlPathEqualTo(path)).willReturn(aResponse().withStatus(201).withBody("{\"sid\": \"NT123\"}")));
+
+        CompletableFuture<?> first = CompletableFuture.runAsync(() -> alert(wireMock.getHttpBaseUrl() + path, "user-1"));
+        CompletableFuture<?> second = CompletableFuture.runAsync(() -> alert(wireMock.getHttpBaseUrl() + path, "user-2"));
+
+        CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+
+        verify(1, postRequestedFor(urlPathEqualTo(path)));
+        verify(postRequestedFor(urlPathEqualTo(path))
+            .withRequestBody(containing("Body=Database+is+down"))
+            .withRequestBody(containing("Identity=user-1"))
+            .withRequestBody(containing("Identity=user-2")));
+    }
+
+    private void alert(String url, String identity) {
+        TwilioAlert task = TwilioAlert.builder()
+            .url(url)
+            .payload(Property.ofValue("{\"Identity\": \"" + identity + "\", \"Body\": \"Database is down\"}"))
+            .accountSID("AC00000000000000000000000000000000")
+            .authToken("test_auth_token")
+            .batchWindow(Property.ofValue(Duration.ofSeconds(1)))
+            .build();
+
+        try {
+            task.run(runContextFactory.of(Map.of()));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package io.kestra.plugin.twilio.notify;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+@WireMockTest
+class TwilioBulkAlertTest {
+    private static final String PATH = "/v1/Services/IS00000000000000000000000000000000/Notifications";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void chunksIdentities(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"NT123\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of());
+        URI recipients = recipients(runContext, IntStream.range(0, 25).mapToObj(i -> (Object) ("user-" + i)).toList());
+
+        TwilioBulkAlert task = TwilioBulkAlert.builder()
+            .url(Property.ofValue(wireMock.getHttpBaseUrl() + PATH))
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue(recipients.toString()))
+            .recipientType(Property.ofValue(TwilioBulkAlert.RecipientType.IDENTITY))
+            .body(Property.ofValue("Maintenance tonight"))
+            .build();
+
+        TwilioBulkAlert.Output output = task.run(runContext);
+
+        assertThat(output.getRecipients(), is(25L));
+        assertThat(output.getRequests(), is(2L));
+        assertThat(output.getNotificationSids(), hasSize(2));
+
+        verify(2, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("Body=Maintenance+tonight")));
+        verify(postRequestedFor(urlPathEqualTo(PATH))
+            .withRequestBody(containing("Identity=user-0&Identity=user-1&"))
+            .withRequestBody(containing("Identity=user-19"))
+            .withRequestBody(notContaining("Identity=user-20")));
+    }
+
+    @Test
+    void sendsBindings(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"NT456\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of());
+        URI recipients = recipients(runContext, List.of("+15555550100", Map.of("binding_type", "apn", "address", "device-token")));
+
+        TwilioBulkAlert task = TwilioBulkAlert.builder()
+            .url(Property.ofValue(wireMock.getHttpBaseUrl() + PATH))
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue(recipients.toString()))
+            .body(Property.ofValue("Hello"))
+            .build();
+
+        TwilioBulkAlert.Output output = task.run(runContext);
+
+        assertThat(output.getRecipients(), is(2L));
+        assertThat(output.getRequests(), is(1L));
+
+        // {"binding_type":"sms","address":"+15555550100"} then {"binding_type":"apn","address":"device-token"}
+        verify(postRequestedFor(urlPathEqualTo(PATH))
+            .withRequestBody(containing("ToBinding=%7B%22binding_type%22%3A%22sms%22%2C%22address%22%3A%22%2B15555550100%22%7D"))
+            .withRequestBody(containing("ToBinding=%7B%22binding_type%22%3A%22apn%22%2C%22address%22%3A%22device-token%22%7D")));
+    }
+
+    @Test
+    void rejectsChunkSizeBelowOne(WireMockRuntimeInfo wireMock) throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+        URI recipients = recipients(runContext, List.of("+15555550100"));
+
+        TwilioBulkAlert task = TwilioBulkAlert.builder()
+            .url(Property.ofValue(wireMock.getHttpBaseUrl() + PATH))
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue(recipients.toString()))
+            .body(Property.ofValue("Hello"))
+            .chunkSize(Property.ofValue(0))
+            .build();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> task.run(runContext));
+
+        assertThat(e.getMessage(), containsString("chunkSize must be at least 1"));
+        verify(0, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    private static URI recipients(RunContext runContext, List<Object> rows) throws Exception {
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (Object row : rows) {
+                FileSerde.write(output, row);
+            }
+        }
+
+        return runContext.storage().putFile(file);
+    }
+}
@@ -0,0 +1,381 @@
+package io.kestra.plugin.twilio.notify.sms;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.twilio.utils.BulkCheckpoint;
+
+import jakarta.inject.Inject;
+import lombok.experimental.SuperBuilder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@WireMockTest
+class BulkSendTest {
+    private static final String PATH = "/2010-04-01/Accounts/AC00000000000000000000000000000000/Messages.json";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void sendsToEveryRecipient(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM123\", \"status\": \"queued\"}")));
+        stubFor(post(urlPathEqualTo(PATH))
+            .withRequestBody(containing("To=invalid"))
+            .willReturn(aResponse().withStatus(400).withHeader("Content-Type", "application/json").withBody("{\"code\": 21211, \"status\": 400}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        List<Object> rows = new ArrayList<>(IntStream.range(0, 10).mapToObj(i -> (Object) ("+155555501" + String.format("%02d", i))).toList());
+        rows.add(Map.of("to", "invalid"));
+        rows.add(Map.of("to", "+15555550199", "body", "Custom body"));
+
+        BulkSend task = TestBulkSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .recipients(Property.ofValue(recipients(runContext, rows).toString()))
+            .maxConcurrency(Property.ofValue(8))
+            .build();
+
+        BulkSend.Output output = task.run(runContext);
+
+        assertThat(output.getSent(), is(11L));
+        assertThat(output.getFailed(), is(1L));
+
+        List<Map<String, Object>> results = results(runContext, output.getUri());
+        assertThat(results, hasSize(12));
+        Map<String, Object> rejected = results.stream().filter(result -> "invalid".equals(result.get("to"))).findFirst().orElseThrow();
+        assertThat(rejected.get("sid"), nullValue());
+        assertThat((String) rejected.get("error"), startsWith("HTTP 400"));
+
+        verify(12, postRequestedFor(urlPathEqualTo(PATH)));
+        verify(postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("Body=Custom+body")));
+    }
+
+    @Test
+    void retriesOverloadedRequests(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("overload")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(429).withBody("{\"code\": 20429, \"status\": 429}"))
+            .willSetStateTo("recovered"));
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("overload")
+            .whenScenarioStateIs("recovered")
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM456\", \"status\": \"queued\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+
+        BulkSend task = TestBulkSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .recipients(Property.ofValue(recipients(runContext, List.of("+15555550100")).toString()))
+            .concurrency(Property.ofValue(1))
+            .build();
+
+        BulkSend.Output output = task.run(runContext);
+
+        assertThat(output.getSent(), is(1L));
+        assertThat(output.getFailed(), is(0L));
+        verify(2, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void retriesNetworkErrors(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("network")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER))
+            .willSetStateTo("recovered"));
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("network")
+            .whenScenarioStateIs("recovered")
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM654\", \"status\": \"queued\"}")));
+        stubFor(post(urlPathEqualTo(PATH))
+            .withRequestBody(containing("To=%2B15555550199"))
+            .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+
+        BulkSend task = TestBulkSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .recipients(Property.ofValue(recipients(runContext, List.of("+15555550100", "+15555550199")).toString()))
+            .concurrency(Property.ofValue(1))
+            .maxRetries(Property.ofValue(1))
+            .build();
+
+        BulkSend.Output output = task.run(runContext);
+
+        // the first recipient goes through on retry, the second one keeps failing and is reported instead of failing the task
+        assertThat(output.getSent(), is(1L));
+        assertThat(output.getFailed(), is(1L));
+        Map<String, Object> unreachable = results(runContext, output.getUri()).stream()
+            .filter(result -> "+15555550199".equals(result.get("to")))
+            .findFirst()
+            .orElseThrow();
+        assertThat(unreachable.get("error"), notNullValue());
+        verify(2, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("To=%2B15555550199")));
+    }
+
+    @Test
+    void reportsRowsWithoutRecipient(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM135\", \"status\": \"queued\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        List<Object> rows = List.of("+15555550100", Map.of("phone", "+15555550101"), "+15555550102");
+
+        BulkSend.Output output = bulkSend(wireMock, runContext, rows, IdUtils.create()).run(runContext);
+
+        assertThat(output.getSent(), is(2L));
+        assertThat(output.getInvalid(), is(1L));
+        Map<String, Object> invalid = results(runContext, output.getUri()).stream()
+            .filter(result -> result.get("error") != null)
+            .findFirst()
+            .orElseThrow();
+        assertThat(((Number) invalid.get("index")).longValue(), is(1L));
+        assertThat((String) invalid.get("error"), startsWith("Invalid row"));
+        verify(2, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void spreadsOverSenderPool(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM789\", \"status\": \"queued\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        List<Object> rows = IntStream.range(0, 6).mapToObj(i -> (Object) ("+155555502" + String.format("%02d", i))).toList();
+
+        BulkSend task = TestBulkSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .fromPool(Property.ofValue(List.of("+15005550101", "+15005550102")))
+            .body(Property.ofValue("Hello from Kestra."))
+            .recipients(Property.ofValue(recipients(runContext, rows).toString()))
+            .build();
+
+        BulkSend.Output output = task.run(runContext);
+
+        assertThat(output.getSent(), is(6L));
+        assertThat(
+            results(runContext, output.getUri()).stream().map(result -> result.get("from")).toList(),
+            containsInAnyOrder("+15005550101", "+15005550101", "+15005550101", "+15005550102", "+15005550102", "+15005550102")
+        );
+
+        verify(3, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("From=%2B15005550101")));
+        verify(3, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("From=%2B15005550102")));
+    }
+
+    @Test
+    void resumesFromCheckpoint(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM321\", \"status\": \"queued\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        String checkpointKey = IdUtils.create();
+        List<Object> rows = new ArrayList<>(IntStream.range(0, 8).mapToObj(i -> (Object) ("+155555503" + String.format("%02d", i))).toList());
+
+        // an earlier attempt that stopped after sending the first 5 rows
+        BulkCheckpoint earlier = BulkCheckpoint.load(runContext, checkpointKey, Duration.ZERO);
+        for (int i = 0; i < 5; i++) {
+            earlier.complete(i, BulkCheckpoint.hash(i, rows.get(i)), true);
+        }
+        earlier.save();
+
+        BulkSend.Output output = bulkSend(wireMock, runContext, rows, checkpointKey).run(runContext);
+
+        assertThat(output.getSent(), is(8L));
+        assertThat(output.getResumed(), is(5L));
+        assertThat(results(runContext, output.getUri()), hasSize(3));
+        verify(3, postRequestedFor(urlPathEqualTo(PATH)));
+        verify(0, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("To=%2B15555550300")));
+
+        // once done, the checkpoint is dropped
+        assertThat(runContext.namespaceKv("company.team").getValue("twilio-checkpoint_" + checkpointKey).isPresent(), is(false));
+    }
+
+    @Test
+    void dropsDuplicateRecipients(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM654\", \"status\": \"queued\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        List<Object> rows = List.of(
+            "+15555550400",
+            "+1 (555) 555-0400",
+            Map.of("to", "001-555-555-0400", "body", "Same number"),
+            "+15555550401",
+            "whatsapp:+15555550401",
+            "whatsapp:+15555550401"
+        );
+
+        BulkSend task = TestBulkSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .recipients(Property.ofValue(recipients(runContext, rows).toString()))
+            .deduplicate(Property.ofValue(true))
+            .storeDuplicates(Property.ofValue(true))
+            .build();
+
+        BulkSend.Output output = task.run(runContext);
+
+        assertThat(output.getSent(), is(3L));
+        assertThat(output.getDuplicates(), is(3L));
+        assertThat(results(runContext, output.getDuplicatesUri()), hasSize(3));
+        verify(3, postRequestedFor(urlPathEqualTo(PATH)));
+        verify(1, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("To=%2B15555550400")));
+    }
+
+    @Test
+    void rejectsInvalidNumbersLocally(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM987\", \"status\": \"queued\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        List<Object> rows = List.of("020 7946 0958", "+44 (0)20 7946 0959", "07946", "+44 20 7946 09xx", "+442079460958");
+
+        BulkSend task = TestBulkSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .recipients(Property.ofValue(recipients(runContext, rows).toString()))
+            .normalizeNumbers(Property.ofValue(true))
+            .defaultCountryCode(Property.ofValue("+44"))
+            .deduplicate(Property.ofValue(true))
+            .build();
+
+        BulkSend.Output output = task.run(runContext);
+
+        assertThat(output.getSent(), is(2L));
+        assertThat(output.getInvalid(), is(2L));
+        assertThat(output.getDuplicates(), is(1L));
+        assertThat(
+            results(runContext, output.getUri()).stream().filter(result -> result.get("error") != null).map(result -> result.get("to")).toList(),
+            containsInAnyOrder("07946", "+44 20 7946 09xx")
+        );
+        verify(2, postRequestedFor(urlPathEqualTo(PATH)));
+        verify(1, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("To=%2B442079460958")));
+        verify(1, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("To=%2B442079460959")));
+    }
+
+    @Test
+    void skipsSuppressedRecipients(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH))
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("{\"sid\": \"SM246\", \"status\": \"queued\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        String list = IdUtils.create();
+        UpdateSuppressions.builder()
+            .suppressionList(Property.ofValue(list))
+            .add(Property.ofValue(List.of("+15555550501", "+1 (555) 555-0503")))
+            .build()
+            .run(runContext);
+
+        List<Object> rows = IntStream.range(0, 5).mapToObj(i -> (Object) ("+155555505" + String.format("%02d", i))).toList();
+
+        BulkSend task = TestBulkSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .recipients(Property.ofValue(recipients(runContext, rows).toString()))
+            .suppressionList(Property.ofValue(list))
+            .build();
+
+        BulkSend.Output output = task.run(runContext);
+
+        assertThat(output.getSent(), is(3L));
+        assertThat(output.getSuppressed(), is(2L));
+        assertThat(
+            results(runContext, output.getUri()).stream().filter(result -> "suppressed".equals(result.get("status"))).map(result -> result.get("to")).toList(),
+            containsInAnyOrder("+15555550501", "+15555550503")
+        );
+        verify(3, postRequestedFor(urlPathEqualTo(PATH)));
+        verify(0, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("To=%2B15555550501")));
+    }
+
+    private static BulkSend bulkSend(WireMockRuntimeInfo wireMock, RunContext runContext, List<Object> rows, String checkpointKey) throws Exception {
+        return TestBulkSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .recipients(Property.ofValue(recipients(runContext, rows).toString()))
+            .concurrency(Property.ofValue(2))
+            .checkpointKey(Property.ofValue(checkpointKey))
+            .build();
+    }
+
+    private static URI recipients(RunContext runContext, List<Object> rows) throws Exception {
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (Object row : rows) {
+                FileSerde.write(output, row);
+            }
+        }
+
+        return runContext.storage().putFile(file);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> results(RunContext runContext, URI uri) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+        }
+    }
+
+    @SuperBuilder
+    static class TestBulkSend extends BulkSend {
+        private final String base;
+
+        TestBulkSend(String base) {
+            this.base = base;
+        }
+
+        @Override
+        protected String baseUrl() {
+            return base;
+        }
+    }
+}
@@ -40,7 +40,10 @@ class SendTest {
                           "status": "queued",
                           "from": "+15005550006",
                           "to": "+15555550100",
-                          "body": "Hello from Kestra."
+                          "body": "Hello from Kestra.",
+                          "num_segments": "1",
+                          "price": null,
+                          "price_unit": "USD"
                         }
                         """))
         );
@@ -60,6 +63,9 @@ class SendTest {
 
         assertThat(output.getSid(), is("SM1234567890abcdef"));
         assertThat(output.getStatus(), is("queued"));
+        assertThat(output.getNumSegments(), is(1));
+        assertThat(output.getPrice(), nullValue());
+        assertThat(output.getPriceUnit(), is("USD"));
 
         verify(postRequestedFor(urlPathMatching("/2010-04-01/Accounts/.*/Messages.json"))
             .withRequestBody(containing("From=%2B15005550006"))
@@ -93,6 +99,56 @@ class SendTest {
         assertThrows(RuntimeException.class, () -> task.run(runContext));
     }
 
+    @Test
+    void normalizesRecipient(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(
+            post(urlPathMatching("/2010-04-01/Accounts/.*/Messages.json"))
+                .willReturn(aResponse()
+                    .withStatus(201)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"sid\": \"SM1234567890abcdef\", \"status\": \"queued\"}"))
+        );
+
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        Send task = TestSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .to(Property.ofValue("(555) 555-0100"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .normalizeNumbers(Property.ofValue(true))
+            .defaultCountryCode(Property.ofValue("1"))
+            .build();
+
+        Send.Output output = task.run(runContext);
+
+        assertThat(output.getTo(), is("+15555550100"));
+        verify(postRequestedFor(urlPathMatching("/2010-04-01/Accounts/.*/Messages.json"))
+            .withRequestBody(containing("To=%2B15555550100")));
+    }
+
+    @Test
+    void rejectsInvalidRecipientWithoutCallingTwilio(WireMockRuntimeInfo wireMock) {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        Send task = TestSend.builder()
+            .base(wireMock.getHttpBaseUrl())
+            .accountSID(Property.ofValue("AC00000000000000000000000000000000"))
+            .authToken(Property.ofValue("test_auth_token"))
+            .from(Property.ofValue("+15005550006"))
+            .to(Property.ofValue("+1 555 0100"))
+            .body(Property.ofValue("Hello from Kestra."))
+            .normalizeNumbers(Property.ofValue(true))
+            .build();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> task.run(runContext));
+
+        assertThat(e.getMessage(), containsString("not a valid North American number"));
+        verify(0, postRequestedFor(urlPathMatching("/2010-04-01/Accounts/.*/Messages.json")));
+    }
+
     @SuperBuilder
     static class TestSend extends Send {
         private final String base;
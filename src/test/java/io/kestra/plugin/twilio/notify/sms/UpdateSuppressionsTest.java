@@ -0,0 +1,69 @@
+package io.kestra.plugin.twilio.notify.sms;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.twilio.notify.AbstractMessageConnection;
+import io.kestra.plugin.twilio.utils.PhoneNumbers;
+import io.kestra.plugin.twilio.utils.SuppressionIndex;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class UpdateSuppressionsTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void addsAndRemovesNumbers() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "opt_out", "namespace", "company.team")));
+        String list = IdUtils.create();
+
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream output = new FileOutputStream(file)) {
+            FileSerde.write(output, "(555) 555-0100");
+            FileSerde.write(output, Map.of("to", "+1 555 555 0101"));
+            FileSerde.write(output, "+15555550100");
+        }
+
+        UpdateSuppressions.Output imported = UpdateSuppressions.builder()
+            .suppressionList(Property.ofValue(list))
+            .from(Property.ofValue(runContext.storage().putFile(file).toString()))
+            .defaultCountryCode(Property.ofValue("1"))
+            .build()
+            .run(runContext);
+
+        assertThat(imported.getSize(), is(2L));
+        assertThat(imported.getAdded(), is(2L));
+
+        UpdateSuppressions.Output updated = UpdateSuppressions.builder()
+            .suppressionList(Property.ofValue(list))
+            .add(Property.ofValue(List.of("+15555550102", "+15555550101")))
+            .remove(Property.ofValue(List.of("+1 (555) 555-0100")))
+            .build()
+            .run(runContext);
+
+        assertThat(updated.getSize(), is(2L));
+        assertThat(updated.getAdded(), is(1L));
+        assertThat(updated.getRemoved(), is(1L));
+
+        SuppressionIndex index = SuppressionIndex.load(runContext, AbstractMessageConnection.suppressionKvKey(list));
+        assertThat(index.contains(PhoneNumbers.key("+15555550100")), is(false));
+        assertThat(index.contains(PhoneNumbers.key("+15555550101")), is(true));
+        assertThat(index.contains(PhoneNumbers.key("+15555550102")), is(true));
+    }
+}
@@ -0,0 +1,64 @@
+package io.kestra.plugin.twilio.recipients;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class MergeTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void concatenatesInOrder() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        URI first = write(runContext, List.of(Map.of("to", "+15555550100", "sid", "SM1"), Map.of("to", "+15555550101", "sid", "SM2")));
+        URI empty = write(runContext, List.of());
+        URI second = write(runContext, List.of(Map.of("to", "+15555550102", "sid", "SM3")));
+
+        Merge.Output output = Merge.builder()
+            .from(Property.ofValue(List.of(first.toString(), empty.toString(), second.toString())))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getRows(), is(3L));
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri()), StandardCharsets.UTF_8))) {
+            List<Object> rows = FileSerde.readAll(reader).collectList().block();
+            assertThat(rows, hasSize(3));
+            assertThat(rows.stream().map(row -> ((Map<?, ?>) row).get("sid")).toList(), contains("SM1", "SM2", "SM3"));
+        }
+    }
+
+    private static URI write(RunContext runContext, List<Object> rows) throws Exception {
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (Object row : rows) {
+                FileSerde.write(output, row);
+            }
+        }
+
+        return runContext.storage().putFile(file);
+    }
+}
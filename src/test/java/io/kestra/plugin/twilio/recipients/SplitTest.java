@@ -0,0 +1,130 @@
+package io.kestra.plugin.twilio.recipients;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class SplitTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void splitsByCount() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+        List<Object> rows = IntStream.range(0, 10).mapToObj(i -> (Object) ("+155555501" + String.format("%02d", i))).toList();
+
+        Split.Output output = Split.builder()
+            .from(Property.ofValue(write(runContext, rows).toString()))
+            .shards(Property.ofValue(3))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getRows(), is(10L));
+        assertThat(output.getUris(), hasSize(3));
+        assertThat(read(runContext, output.getUris().get(0)), hasSize(4));
+        assertThat(read(runContext, output.getUris().get(1)), hasSize(3));
+        assertThat(read(runContext, output.getUris().get(2)), hasSize(3));
+
+        List<Object> manifest = read(runContext, output.getManifest());
+        assertThat(manifest, hasSize(3));
+        assertThat(((Map<?, ?>) manifest.getFirst()).get("uri"), is(output.getUris().getFirst().toString()));
+    }
+
+    @Test
+    void splitsByHash() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+        List<Object> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(Map.of("to", "+155555502" + String.format("%02d", i % 100), "body", "Message " + i));
+        }
+
+        Split.Output output = Split.builder()
+            .from(Property.ofValue(write(runContext, rows).toString()))
+            .shards(Property.ofValue(4))
+            .strategy(Property.ofValue(Split.Strategy.HASH))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getRows(), is(200L));
+
+        // every recipient lands in exactly one shard, duplicates included
+        List<String> seen = new ArrayList<>();
+        for (URI uri : output.getUris()) {
+            List<String> shard = read(runContext, uri).stream().map(row -> (String) ((Map<?, ?>) row).get("to")).distinct().toList();
+            assertThat(shard, everyItem(not(in(seen))));
+            seen.addAll(shard);
+        }
+        assertThat(seen, hasSize(100));
+    }
+
+    @Test
+    void hashesDuplicatesToTheSameShard() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of());
+        List<Object> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add("+1 (555) 555-01" + String.format("%02d", i));
+            rows.add("+155555501" + String.format("%02d", i));
+            rows.add(Map.of("email", "Reader" + i + "@Example.com"));
+            rows.add(Map.of("email", "reader" + i + "@example.com"));
+        }
+
+        Split.Output output = Split.builder()
+            .from(Property.ofValue(write(runContext, rows).toString()))
+            .shards(Property.ofValue(4))
+            .strategy(Property.ofValue(Split.Strategy.HASH))
+            .build()
+            .run(runContext);
+
+        // both spellings of a recipient land in the same shard
+        List<String> seen = new ArrayList<>();
+        for (URI uri : output.getUris()) {
+            List<String> shard = read(runContext, uri).stream()
+                .map(row -> row instanceof Map<?, ?> map ? map.get("email").toString().toLowerCase() : row.toString().replaceAll("[^+0-9]", ""))
+                .distinct()
+                .toList();
+            assertThat(shard, everyItem(not(in(seen))));
+            seen.addAll(shard);
+        }
+        assertThat(seen, hasSize(100));
+    }
+
+    private static URI write(RunContext runContext, List<Object> rows) throws Exception {
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (Object row : rows) {
+                FileSerde.write(output, row);
+            }
+        }
+
+        return runContext.storage().putFile(file);
+    }
+
+    private static List<Object> read(RunContext runContext, URI uri) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader).collectList().block();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package io.kestra.plugin.twilio.segment;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.plugin.twilio.segment.tracking.Batch;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+@WireMockTest
+class BatchTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/v1/batch")).willReturn(okJson("{\"success\": true}")));
+
+        RunContext runContext = runContextFactory.of(Map.of());
+        URI events = events(runContext, 10);
+
+        Batch task = Batch.builder()
+            .writeKey(Property.ofValue("write-key"))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .from(Property.ofValue(events.toString()))
+            .eventType(Property.ofValue(Batch.EventType.TRACK))
+            .maxBatchBytes(Property.ofValue(400))
+            .concurrency(Property.ofValue(2))
+            .build();
+
+        Batch.Output output = task.run(runContext);
+
+        assertThat(output.getEvents(), is(10L));
+        assertThat(output.getBatches() > 1, is(true));
+
+        verify(output.getBatches().intValue(), postRequestedFor(urlPathEqualTo("/v1/batch"))
+            .withHeader("Content-Encoding", equalTo("gzip"))
+            .withHeader("Authorization", equalTo("Basic d3JpdGUta2V5Og==")));
+    }
+
+    @Test
+    void retriesRejectedBatches(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(
+            post(urlPathEqualTo("/v1/batch"))
+                .inScenario("retry")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("available")
+        );
+
+        stubFor(
+            post(urlPathEqualTo("/v1/batch"))
+                .inScenario("retry")
+                .whenScenarioStateIs("available")
+                .willReturn(okJson("{\"success\": true}"))
+        );
+
+        RunContext runContext = runContextFactory.of(Map.of());
+        URI events = events(runContext, 3);
+
+        Batch task = Batch.builder()
+            .writeKey(Property.ofValue("write-key"))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .from(Property.ofValue(events.toString()))
+            .eventType(Property.ofValue(Batch.EventType.TRACK))
+            .compress(Property.ofValue(false))
+            .build();
+
+        Batch.Output output = task.run(runContext);
+
+        assertThat(output.getEvents(), is(3L));
+        assertThat(output.getBatches(), is(1L));
+        assertThat(output.getRetries(), is(1L));
+
+        verify(2, postRequestedFor(urlPathEqualTo("/v1/batch")).withRequestBody(matchingJsonPath("$.batch[0].type", equalTo("track"))));
+    }
+
+    @Test
+    void failsOnClientError(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/v1/batch")).willReturn(aResponse().withStatus(400).withBody("{\"success\": false}")));
+
+        RunContext runContext = runContextFactory.of(Map.of());
+        URI events = events(runContext, 1);
+
+        Batch task = Batch.builder()
+            .writeKey(Property.ofValue("write-key"))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .from(Property.ofValue(events.toString()))
+            .eventType(Property.ofValue(Batch.EventType.TRACK))
+            .build();
+
+        assertThrows(RuntimeException.class, () -> task.run(runContext));
+        verify(1, postRequestedFor(urlPathEqualTo("/v1/batch")));
+    }
+
+    @Test
+    void identicalRowsGetDistinctMessageIds(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/v1/batch")).willReturn(okJson("{\"success\": true}")));
+
+        RunContext runContext = runContextFactory.of(Map.of());
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (int i = 0; i < 2; i++) {
+                FileSerde.write(output, Map.of("userId", "user-1", "event", "Button Clicked"));
+            }
+        }
+        URI events = runContext.storage().putFile(file);
+
+        Batch task = Batch.builder()
+            .writeKey(Property.ofValue("write-key"))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .from(Property.ofValue(events.toString()))
+            .eventType(Property.ofValue(Batch.EventType.TRACK))
+            .compress(Property.ofValue(false))
+            .build();
+
+        task.run(runContext);
+        task.run(runContext);
+
+        List<LoggedRequest> requests = findAll(postRequestedFor(urlPathEqualTo("/v1/batch")));
+        List<Object> firstRun = messageIds(requests.get(0));
+        List<Object> secondRun = messageIds(requests.get(1));
+
+        // distinct rows of a file get distinct IDs, and sending the same file again reuses them
+        assertThat(firstRun.size(), is(2));
+        assertThat(firstRun.get(0), not(firstRun.get(1)));
+        assertThat(secondRun, is(firstRun));
+    }
+
+    private static List<Object> messageIds(LoggedRequest request) throws Exception {
+        Map<?, ?> body = JacksonMapper.ofJson().readValue(request.getBodyAsString(), Map.class);
+
+        return ((List<?>) body.get("batch")).stream().map(event -> (Object) ((Map<?, ?>) event).get("messageId")).toList();
+    }
+
+    private static URI events(RunContext runContext, int count) throws Exception {
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (int i = 0; i < count; i++) {
+                FileSerde.write(output, Map.of("userId", "user-" + i, "event", "Order Completed", "properties", Map.of("total", i)));
+            }
+        }
+
+        return runContext.storage().putFile(file);
+    }
+}
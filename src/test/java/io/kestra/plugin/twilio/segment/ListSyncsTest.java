@@ -0,0 +1,125 @@
+package io.kestra.plugin.twilio.segment;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.plugin.twilio.segment.reverseetl.ListSyncs;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@WireMockTest
+class ListSyncsTest {
+    private static final String PATH = "/reverse-etl-models/model-123/subscriptionId/sub-456/syncs";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(
+            get(urlPathEqualTo(PATH))
+                .withQueryParam("cursor", absent())
+                .willReturn(okJson("""
+                    {
+                      "data": {
+                        "reverseETLSyncStatuses": [
+                          { "syncId": "sync-1", "syncStatus": "SUCCESS" },
+                          { "syncId": "sync-2", "syncStatus": "FAIL" }
+                        ],
+                        "pagination": { "current": "page-1", "next": "page-2" }
+                      }
+                    }
+                    """))
+        );
+
+        stubFor(
+            get(urlPathEqualTo(PATH))
+                .withQueryParam("cursor", equalTo("page-2"))
+                .willReturn(okJson("""
+                    {
+                      "data": {
+                        "reverseETLSyncStatuses": [
+                          { "syncId": "sync-3", "syncStatus": "IN_PROGRESS" }
+                        ],
+                        "pagination": { "current": "page-2" }
+                      }
+                    }
+                    """))
+        );
+
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        ListSyncs task = ListSyncs.builder()
+            .token(Property.ofValue("test-token"))
+            .modelId(Property.ofValue("model-123"))
+            .subscriptionId(Property.ofValue("sub-456"))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .build();
+
+        ListSyncs.Output output = task.run(runContext);
+
+        assertThat(output.getSize(), is(3L));
+
+        List<Object> rows;
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri()), StandardCharsets.UTF_8))) {
+            rows = FileSerde.readAll(reader).collectList().block();
+        }
+
+        assertThat(rows, hasSize(3));
+        assertThat(((Map<?, ?>) rows.getFirst()).get("syncId"), is("sync-1"));
+        assertThat(((Map<?, ?>) rows.get(2)).get("syncId"), is("sync-3"));
+
+        verify(2, getRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void stopsAtMaxRecords(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(
+            get(urlPathEqualTo(PATH))
+                .willReturn(okJson("""
+                    {
+                      "data": {
+                        "reverseETLSyncStatuses": [
+                          { "syncId": "sync-1", "syncStatus": "SUCCESS" },
+                          { "syncId": "sync-2", "syncStatus": "SUCCESS" }
+                        ],
+                        "pagination": { "current": "page-1", "next": "page-2" }
+                      }
+                    }
+                    """))
+        );
+
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        ListSyncs task = ListSyncs.builder()
+            .token(Property.ofValue("test-token"))
+            .modelId(Property.ofValue("model-123"))
+            .subscriptionId(Property.ofValue("sub-456"))
+            .maxRecords(Property.ofValue(1))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .build();
+
+        ListSyncs.Output output = task.run(runContext);
+
+        assertThat(output.getSize(), is(1L));
+        verify(1, getRequestedFor(urlPathEqualTo(PATH)));
+    }
+}
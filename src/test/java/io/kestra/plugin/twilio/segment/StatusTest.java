@@ -1,5 +1,6 @@
 package io.kestra.plugin.twilio.segment;
 
+import java.time.Duration;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -56,6 +57,123 @@ class StatusTest {
         assertThat(status.isSuccessful(), is(true));
     }
 
+    @Test
+    void cachesTerminalStatus(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(
+            get(
+                urlEqualTo(
+                    "/reverse-etl-models/model-123/syncs/sync-cached"
+                )
+            ).willReturn(okJson(STATUS_RESPONSE.replace("sync-456", "sync-cached")))
+        );
+
+        RunContext runContext = runContextFactory.of(Map.of());
+        RunContext secondRunContext = runContextFactory.of(Map.of());
+
+        Status task = Status.builder()
+            .token(Property.ofValue("test-token"))
+            .modelId(Property.ofValue("model-123"))
+            .syncId(Property.ofValue("sync-cached"))
+            .cache(Property.ofValue(true))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .build();
+
+        Status.Output first = task.run(runContext);
+        Status.Output second = task.run(secondRunContext);
+
+        assertThat(first.getCached(), is(false));
+        assertThat(second.getCached(), is(true));
+        assertThat(second.getStatus().getSyncId(), is("sync-cached"));
+        assertThat(second.getStatus().isSuccessful(), is(true));
+        assertThat(runContext.metrics().isEmpty(), is(false));
+        assertThat(secondRunContext.metrics().isEmpty(), is(true));
+
+        verify(1, getRequestedFor(urlEqualTo("/reverse-etl-models/model-123/syncs/sync-cached")));
+    }
+
+    @Test
+    void scopesCacheToCredentials(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(
+            get(
+                urlEqualTo(
+                    "/reverse-etl-models/model-123/syncs/sync-scoped"
+                )
+            ).willReturn(okJson(STATUS_RESPONSE.replace("sync-456", "sync-scoped")))
+        );
+
+        Status.Output first = scopedStatus(wireMockRuntimeInfo, "test-token").run(runContextFactory.of(Map.of()));
+        Status.Output other = scopedStatus(wireMockRuntimeInfo, "other-token").run(runContextFactory.of(Map.of()));
+
+        // a status fetched with one token is not served to a task using another one
+        assertThat(first.getCached(), is(false));
+        assertThat(other.getCached(), is(false));
+
+        verify(2, getRequestedFor(urlEqualTo("/reverse-etl-models/model-123/syncs/sync-scoped")));
+    }
+
+    private static Status scopedStatus(WireMockRuntimeInfo wireMockRuntimeInfo, String token) {
+        return Status.builder()
+            .token(Property.ofValue(token))
+            .modelId(Property.ofValue("model-123"))
+            .syncId(Property.ofValue("sync-scoped"))
+            .cache(Property.ofValue(true))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .build();
+    }
+
+    @Test
+    void emitsMetrics(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(
+            get(
+                urlEqualTo(
+                    "/reverse-etl-models/model-123/syncs/sync-metrics"
+                )
+            ).willReturn(okJson("""
+                {
+                  "data": {
+                    "reverseETLSyncStatus": {
+                      "syncId": "sync-metrics",
+                      "syncStatus": "SUCCESS",
+                      "sourceId": "source-1",
+                      "modelId": "model-123",
+                      "startedAt": "2025-01-01T00:00:00Z",
+                      "finishedAt": "2025-01-01T00:01:30Z",
+                      "extractPhase": { "addedCount": "10", "updatedCount": "5", "deletedCount": "1", "extractCount": "16" },
+                      "loadPhase": { "deliverSuccessCount": "15", "deliverFailureCount": "1" }
+                    }
+                  }
+                }
+                """))
+        );
+
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        Status task = Status.builder()
+            .token(Property.ofValue("test-token"))
+            .modelId(Property.ofValue("model-123"))
+            .syncId(Property.ofValue("sync-metrics"))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .build();
+
+        ReverseEtlSyncStatus status = task.run(runContext).getStatus();
+
+        assertThat(status.getExtractPhase().getAddedCount(), is("10"));
+        assertThat(status.getLoadPhase().getDeliverFailureCount(), is("1"));
+        assertThat(status.elapsed().orElseThrow(), is(Duration.ofSeconds(90)));
+
+        assertThat(metricValue(runContext, "extract.added"), is(10D));
+        assertThat(metricValue(runContext, "load.failed"), is(1D));
+        assertThat(metricValue(runContext, "sync.duration"), is(Duration.ofSeconds(90)));
+    }
+
+    private static Object metricValue(RunContext runContext, String name) {
+        return runContext.metrics().stream()
+            .filter(metric -> metric.getName().equals(name))
+            .findFirst()
+            .orElseThrow()
+            .getValue();
+    }
+
     private static final String STATUS_RESPONSE = """
         {
           "data": {
@@ -0,0 +1,81 @@
+package io.kestra.plugin.twilio.segment;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.plugin.twilio.segment.profiles.Traits;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@WireMockTest
+class TraitsTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(
+            get(urlPathMatching("/v1/spaces/spa_1/collections/users/profiles/.*user_1/traits"))
+                .willReturn(okJson("""
+                    {
+                      "traits": { "first_name": "Ada", "phone": "+15555550100" },
+                      "cursor": { "has_more": false }
+                    }
+                    """))
+        );
+
+        stubFor(
+            get(urlPathMatching("/v1/spaces/spa_1/collections/users/profiles/.*user_2/traits"))
+                .willReturn(aResponse().withStatus(404).withBody("{\"error\": \"Resource not found\"}"))
+        );
+
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        Traits task = Traits.builder()
+            .token(Property.ofValue("profiles-token"))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .spaceId(Property.ofValue("spa_1"))
+            .userIds(Property.ofValue(List.of("user_1", "user_2")))
+            .build();
+
+        Traits.Output output = task.run(runContext);
+
+        assertThat(output.getSize(), is(1L));
+        assertThat(output.getTraits().get("user_1").get("first_name"), is("Ada"));
+        assertThat(output.getTraits().containsKey("user_2"), is(false));
+
+        verify(getRequestedFor(urlPathMatching(".*user_1/traits")).withHeader("Authorization", equalTo("Basic cHJvZmlsZXMtdG9rZW46")));
+
+        // the second run is served from the worker cache, only the missing profile is requested again
+        Traits.Output cached = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(cached.getTraits().get("user_1").get("phone"), is("+15555550100"));
+        verify(1, getRequestedFor(urlPathMatching(".*user_1/traits")));
+        verify(2, getRequestedFor(urlPathMatching(".*user_2/traits")));
+
+        // traits cached with one token are not served to a task using another one
+        Traits otherToken = Traits.builder()
+            .token(Property.ofValue("other-token"))
+            .uri(Property.ofValue(wireMockRuntimeInfo.getHttpBaseUrl()))
+            .spaceId(Property.ofValue("spa_1"))
+            .userIds(Property.ofValue(List.of("user_1")))
+            .build();
+
+        otherToken.run(runContextFactory.of(Map.of()));
+        verify(2, getRequestedFor(urlPathMatching(".*user_1/traits")));
+    }
+}
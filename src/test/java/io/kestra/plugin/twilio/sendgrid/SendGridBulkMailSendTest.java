@@ -0,0 +1,254 @@
+package io.kestra.plugin.twilio.sendgrid;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.sendgrid.SendGrid;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.twilio.utils.BulkCheckpoint;
+
+import jakarta.inject.Inject;
+import lombok.experimental.SuperBuilder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@WireMockTest
+class SendGridBulkMailSendTest {
+    private static final String PATH = "/v3/mail/send";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void packsThousandPersonalizationsPerRequest(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).willReturn(aResponse().withStatus(202)));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "newsletter", "namespace", "company.team")));
+        List<Object> rows = IntStream.range(0, 2500).mapToObj(i -> (Object) ("reader" + i + "@example.com")).toList();
+
+        SendGridBulkMailSend.Output output = bulkMailSend(wireMock, runContext, rows).build().run(runContext);
+
+        assertThat(output.getRecipients(), is(2500L));
+        assertThat(output.getRequests(), is(3L));
+
+        List<LoggedRequest> requests = findAll(postRequestedFor(urlPathEqualTo(PATH)));
+        assertThat(requests.stream().map(SendGridBulkMailSendTest::personalizations).toList(), containsInAnyOrder(1000, 1000, 500));
+    }
+
+    @Test
+    void retriesThrottledAndFailedRequests(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("overload")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withStatus(429).withBody("{\"errors\": [{\"message\": \"too many requests\"}]}"))
+            .willSetStateTo("unavailable"));
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("overload")
+            .whenScenarioStateIs("unavailable")
+            .willReturn(aResponse().withStatus(503))
+            .willSetStateTo("recovered"));
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("overload")
+            .whenScenarioStateIs("recovered")
+            .willReturn(aResponse().withStatus(202)));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "newsletter", "namespace", "company.team")));
+
+        SendGridBulkMailSend.Output output = bulkMailSend(wireMock, runContext, List.of("reader@example.com"))
+            .concurrency(Property.ofValue(1))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getRecipients(), is(1L));
+        assertThat(output.getRequests(), is(1L));
+        assertThat(metricValue(runContext, "retries"), is(2D));
+        verify(3, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void reportsRejectedBatches(WireMockRuntimeInfo wireMock) throws Exception {
+        // the SendGrid client returns non-2xx answers as a response, only network errors are thrown
+        stubFor(post(urlPathEqualTo(PATH)).willReturn(aResponse().withStatus(202)));
+        stubFor(post(urlPathEqualTo(PATH))
+            .withRequestBody(containing("reader2@example.com"))
+            .willReturn(aResponse().withStatus(400).withBody("{\"errors\": [{\"field\": \"from.email\", \"message\": \"does not contain a valid address\"}]}")));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "newsletter", "namespace", "company.team")));
+        List<Object> rows = IntStream.range(0, 6).mapToObj(i -> (Object) ("reader" + i + "@example.com")).toList();
+
+        SendGridBulkMailSend.Output output = resumable(wireMock, runContext, rows, IdUtils.create()).run(runContext);
+
+        // the rejected batch fails its two recipients, the other batches are still sent
+        assertThat(output.getRecipients(), is(4L));
+        assertThat(output.getFailed(), is(2L));
+        assertThat(output.getRequests(), is(3L));
+
+        List<Map<String, Object>> failures = failures(runContext, output.getUri());
+        assertThat(failures.stream().map(failure -> failure.get("email")).toList(), containsInAnyOrder("reader2@example.com", "reader3@example.com"));
+        assertThat((String) failures.getFirst().get("error"), containsString("status code: 400"));
+        assertThat((String) failures.getFirst().get("error"), containsString("does not contain a valid address"));
+        // a client error is not retried
+        verify(1, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("reader2@example.com")));
+    }
+
+    @Test
+    void retriesNetworkErrors(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("network")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER))
+            .willSetStateTo("recovered"));
+        stubFor(post(urlPathEqualTo(PATH)).inScenario("network")
+            .whenScenarioStateIs("recovered")
+            .willReturn(aResponse().withStatus(202)));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "newsletter", "namespace", "company.team")));
+
+        SendGridBulkMailSend.Output output = bulkMailSend(wireMock, runContext, List.of("reader@example.com"))
+            .concurrency(Property.ofValue(1))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getRecipients(), is(1L));
+        assertThat(output.getFailed(), is(0L));
+        assertThat(metricValue(runContext, "retries"), is(1D));
+        verify(2, postRequestedFor(urlPathEqualTo(PATH)));
+    }
+
+    @Test
+    void reportsRowsWithoutEmail(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).willReturn(aResponse().withStatus(202)));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "newsletter", "namespace", "company.team")));
+        List<Object> rows = List.of("reader0@example.com", Map.of("name", "Reader"), "reader2@example.com");
+
+        SendGridBulkMailSend.Output output = bulkMailSend(wireMock, runContext, rows).build().run(runContext);
+
+        assertThat(output.getRecipients(), is(2L));
+        assertThat(output.getInvalid(), is(1L));
+
+        List<Map<String, Object>> failures = failures(runContext, output.getUri());
+        assertThat(failures, hasSize(1));
+        assertThat(((Number) failures.getFirst().get("index")).longValue(), is(1L));
+        assertThat((String) failures.getFirst().get("error"), startsWith("Invalid row"));
+    }
+
+    @Test
+    void resumesFromCheckpoint(WireMockRuntimeInfo wireMock) throws Exception {
+        stubFor(post(urlPathEqualTo(PATH)).willReturn(aResponse().withStatus(202)));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "newsletter", "namespace", "company.team")));
+        String checkpointKey = IdUtils.create();
+        List<Object> rows = IntStream.range(0, 6).mapToObj(i -> (Object) ("reader" + i + "@example.com")).toList();
+
+        // an earlier attempt that stopped after sending the first batch of 2
+        BulkCheckpoint earlier = BulkCheckpoint.load(runContext, checkpointKey, Duration.ZERO);
+        for (int i = 0; i < 2; i++) {
+            earlier.complete(i, BulkCheckpoint.hash(i, rows.get(i)), true);
+        }
+        earlier.save();
+        assertThat(runContext.namespaceKv("company.team").getValue("twilio-checkpoint_" + checkpointKey).isPresent(), is(true));
+
+        SendGridBulkMailSend.Output output = resumable(wireMock, runContext, rows, checkpointKey).run(runContext);
+
+        assertThat(output.getRecipients(), is(6L));
+        assertThat(output.getResumed(), is(2L));
+        assertThat(output.getRequests(), is(2L));
+
+        verify(0, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("reader0@example.com")));
+        verify(0, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("reader1@example.com")));
+        verify(1, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("reader2@example.com")));
+        verify(1, postRequestedFor(urlPathEqualTo(PATH)).withRequestBody(containing("reader5@example.com")));
+
+        // once done, the checkpoint is dropped
+        assertThat(runContext.namespaceKv("company.team").getValue("twilio-checkpoint_" + checkpointKey).isPresent(), is(false));
+    }
+
+    private static SendGridBulkMailSend resumable(WireMockRuntimeInfo wireMock, RunContext runContext, List<Object> rows, String checkpointKey) throws Exception {
+        return bulkMailSend(wireMock, runContext, rows)
+            .batchSize(Property.ofValue(2))
+            .concurrency(Property.ofValue(1))
+            .checkpointKey(Property.ofValue(checkpointKey))
+            .build();
+    }
+
+    private static TestBulkMailSend.TestBulkMailSendBuilder<?, ?> bulkMailSend(WireMockRuntimeInfo wireMock, RunContext runContext, List<Object> rows) throws Exception {
+        return TestBulkMailSend.builder()
+            .port(wireMock.getHttpPort())
+            .sendgridApiKey("SG.test")
+            .from("hello@example.com")
+            .recipients(Property.ofValue(recipients(runContext, rows).toString()))
+            .subject(Property.ofValue("Newsletter"))
+            .textContent(Property.ofValue("Hello"));
+    }
+
+    private static URI recipients(RunContext runContext, List<Object> rows) throws Exception {
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (OutputStream output = new FileOutputStream(file)) {
+            for (Object row : rows) {
+                FileSerde.write(output, row);
+            }
+        }
+
+        return runContext.storage().putFile(file);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> failures(RunContext runContext, URI uri) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+        }
+    }
+
+    private static int personalizations(LoggedRequest request) {
+        try {
+            return JacksonMapper.ofJson().readTree(request.getBodyAsString()).get("personalizations").size();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object metricValue(RunContext runContext, String name) {
+        return runContext.metrics().stream()
+            .filter(metric -> metric.getName().equals(name))
+            .findFirst()
+            .orElseThrow()
+            .getValue();
+    }
+
+    @SuperBuilder
+    static class TestBulkMailSend extends SendGridBulkMailSend {
+        private final int port;
+
+        @Override
+        protected SendGrid sendGrid(RunContext runContext) {
+            SendGrid sendGrid = new SendGrid("SG.test", true);
+            sendGrid.setHost("localhost:" + port);
+
+            return sendGrid;
+        }
+    }
+}
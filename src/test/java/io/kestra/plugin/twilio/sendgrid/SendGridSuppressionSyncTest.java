@@ -0,0 +1,133 @@
+package io.kestra.plugin.twilio.sendgrid;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.sendgrid.SendGrid;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+
+import jakarta.inject.Inject;
+import lombok.experimental.SuperBuilder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+@WireMockTest
+class SendGridSuppressionSyncTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void syncsEveryPage(WireMockRuntimeInfo wireMock) throws Exception {
+        stubSuppressions();
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "suppressions", "namespace", "company.team")));
+
+        SendGridSuppressionSync.Output output = TestSync.builder()
+            .port(wireMock.getHttpPort())
+            .sendgridApiKey(Property.ofValue("SG.test"))
+            .suppressionList(Property.ofValue(IdUtils.create()))
+            .pageSize(Property.ofValue(2))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getSize(), is(3L));
+        assertThat(output.getCounts(), is(Map.of("BOUNCES", 3L, "BLOCKS", 0L, "UNSUBSCRIBES", 1L)));
+        verify(2, getRequestedFor(urlPathEqualTo("/v3/suppression/bounces")));
+    }
+
+    @Test
+    void bulkSendSkipsSuppressedAddresses(WireMockRuntimeInfo wireMock) throws Exception {
+        stubSuppressions();
+        stubFor(post(urlPathEqualTo("/v3/mail/send")).willReturn(aResponse().withStatus(202)));
+
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "newsletter", "namespace", "company.team")));
+        String list = IdUtils.create();
+
+        TestSync.builder()
+            .port(wireMock.getHttpPort())
+            .sendgridApiKey(Property.ofValue("SG.test"))
+            .suppressionList(Property.ofValue(list))
+            .build()
+            .run(runContext);
+
+        File file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (OutputStream output = new FileOutputStream(file)) {
+            FileSerde.write(output, "kept@example.com");
+            FileSerde.write(output, "Bounced@Example.com");
+            FileSerde.write(output, Map.of("email", "unsubscribed@example.com", "name", "Jane"));
+            FileSerde.write(output, "other@example.com");
+        }
+
+        SendGridBulkMailSend.Output output = TestBulkMailSend.builder()
+            .port(wireMock.getHttpPort())
+            .sendgridApiKey("SG.test")
+            .from("hello@example.com")
+            .recipients(Property.ofValue(runContext.storage().putFile(file).toString()))
+            .textContent(Property.ofValue("Hello"))
+            .suppressionList(Property.ofValue(list))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getRecipients(), is(2L));
+        assertThat(output.getSuppressed(), is(2L));
+        verify(1, postRequestedFor(urlPathEqualTo("/v3/mail/send"))
+            .withRequestBody(containing("kept@example.com"))
+            .withRequestBody(containing("other@example.com"))
+            .withRequestBody(notContaining("ounced@")));
+    }
+
+    private static void stubSuppressions() {
+        stubFor(get(urlPathEqualTo("/v3/suppression/bounces")).withQueryParam("offset", equalTo("0"))
+            .willReturn(okJson("[{\"email\": \"bounced@example.com\", \"created\": 1}, {\"email\": \"old@example.com\", \"created\": 2}]")));
+        stubFor(get(urlPathEqualTo("/v3/suppression/bounces")).withQueryParam("offset", equalTo("2"))
+            .willReturn(okJson("[{\"email\": \"OLD@example.com\", \"created\": 3}]")));
+        stubFor(get(urlPathEqualTo("/v3/suppression/bounces")).withQueryParam("offset", equalTo("500"))
+            .willReturn(okJson("[]")));
+        stubFor(get(urlPathEqualTo("/v3/suppression/blocks")).willReturn(okJson("[]")));
+        stubFor(get(urlPathEqualTo("/v3/suppression/unsubscribes"))
+            .willReturn(okJson("[{\"email\": \"unsubscribed@example.com\", \"created\": 4}]")));
+    }
+
+    private static SendGrid mockClient(int port) {
+        SendGrid sendGrid = new SendGrid("SG.test", true);
+        sendGrid.setHost("localhost:" + port);
+
+        return sendGrid;
+    }
+
+    @SuperBuilder
+    static class TestSync extends SendGridSuppressionSync {
+        private final int port;
+
+        @Override
+        protected SendGrid sendGrid(RunContext runContext) {
+            return mockClient(port);
+        }
+    }
+
+    @SuperBuilder
+    static class TestBulkMailSend extends SendGridBulkMailSend {
+        private final int port;
+
+        @Override
+        protected SendGrid sendGrid(RunContext runContext) {
+            return mockClient(port);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long FAST = Duration.ofMillis(50).toNanos();
+
+    @Test
+    void increasesWhileHealthy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+
+        // one more slot per `limit` healthy responses
+        for (int i = 0; i < 2 + 3; i++) {
+            limiter.onResponse(FAST, false);
+        }
+        assertThat(limiter.limit(), is(4));
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onResponse(FAST, false);
+        }
+        assertThat(limiter.limit(), is(4));
+    }
+
+    @Test
+    void halvesOnOverload() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16);
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+
+        limiter.onResponse(FAST, true);
+        assertThat(limiter.limit(), is(4));
+
+        // the other requests in flight were sent under the old limit
+        limiter.onResponse(FAST, true);
+        limiter.onResponse(FAST, true);
+        limiter.onResponse(FAST, true);
+        assertThat(limiter.limit(), is(4));
+
+        limiter.onResponse(FAST, true);
+        assertThat(limiter.limit(), is(2));
+    }
+
+    @Test
+    void halvesOnLatencySpike() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16);
+
+        limiter.onResponse(FAST, false);
+        limiter.onResponse(FAST * 3, false);
+
+        assertThat(limiter.limit(), is(4));
+    }
+
+    @Test
+    void fixed() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.fixed(3);
+
+        limiter.onResponse(FAST, true);
+        for (int i = 0; i < 10; i++) {
+            limiter.onResponse(FAST, false);
+        }
+
+        assertThat(limiter.limit(), is(3));
+        assertThat(AdaptiveConcurrencyLimiter.isOverload(429), is(true));
+        assertThat(AdaptiveConcurrencyLimiter.isOverload(503), is(true));
+        assertThat(AdaptiveConcurrencyLimiter.isOverload(400), is(false));
+    }
+}
@@ -0,0 +1,69 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class BulkCheckpointTest {
+    private static final List<String> ROWS = List.of("+15555550100", "+15555550101", "+15555550102", "+15555550103", "+15555550104");
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void resumesOutOfOrderCompletions() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        String name = IdUtils.create();
+
+        BulkCheckpoint first = BulkCheckpoint.load(runContext, name, Duration.ofSeconds(10));
+        first.complete(0, BulkCheckpoint.hash(0, ROWS.get(0)), true);
+        first.complete(2, BulkCheckpoint.hash(2, ROWS.get(2)), false);
+        first.complete(1, BulkCheckpoint.hash(1, ROWS.get(1)), true);
+        first.complete(4, BulkCheckpoint.hash(4, ROWS.get(4)), true);
+        first.save();
+
+        BulkCheckpoint second = BulkCheckpoint.load(runContext, name, Duration.ofSeconds(10));
+        assertThat(second.resumedRows(), is(4L));
+        assertThat(second.sent(), is(3L));
+        assertThat(second.failed(), is(1L));
+
+        for (int i = 0; i < ROWS.size(); i++) {
+            assertThat(second.skip(i, BulkCheckpoint.hash(i, ROWS.get(i))), is(i != 3));
+        }
+
+        second.complete(3, BulkCheckpoint.hash(3, ROWS.get(3)), true);
+        assertThat(second.sent(), is(4L));
+
+        second.clear();
+        assertThat(BulkCheckpoint.load(runContext, name, Duration.ofSeconds(10)).resumedRows(), is(0L));
+    }
+
+    @Test
+    void detectsChangedFile() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "campaign", "namespace", "company.team")));
+        String name = IdUtils.create();
+
+        BulkCheckpoint first = BulkCheckpoint.load(runContext, name, Duration.ofSeconds(10));
+        first.complete(0, BulkCheckpoint.hash(0, ROWS.get(0)), true);
+        first.complete(1, BulkCheckpoint.hash(1, ROWS.get(1)), true);
+        first.save();
+
+        BulkCheckpoint second = BulkCheckpoint.load(runContext, name, Duration.ofSeconds(10));
+        assertThat(second.skip(0, BulkCheckpoint.hash(0, ROWS.get(0))), is(true));
+        assertThrows(IllegalStateException.class, () -> second.skip(1, BulkCheckpoint.hash(1, "+15555550199")));
+    }
+}
@@ -0,0 +1,82 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class DistributedRateLimiterTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void sharesRateAcrossInstances() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "rate", "namespace", "company.team")));
+        String name = IdUtils.create();
+
+        // two limiters on the same key, as two tasks would create, share the same 5 permits per second
+        DistributedRateLimiter first = new DistributedRateLimiter(runContext, name, 5);
+        DistributedRateLimiter second = new DistributedRateLimiter(runContext, name, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 8; i++) {
+            first.acquire();
+            second.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // at most 5 permits per one-second window, so 16 permits span at least 4 windows, the first one possibly partial
+        assertThat(elapsedMillis, greaterThanOrEqualTo(2000L));
+        // one KV key per slot of the window
+        assertThat(runContext.namespaceKv("company.team").getValue("twilio-rate-limit_" + name + "_0").isPresent(), is(true));
+        assertThat(runContext.namespaceKv("company.team").getValue("twilio-rate-limit_" + name + "_4").isPresent(), is(true));
+        assertThat(runContext.namespaceKv("company.team").getValue("twilio-rate-limit_" + name + "_5").isPresent(), is(false));
+    }
+
+    @Test
+    void criticalPreemptsBulk() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "rate", "namespace", "company.team")));
+        String name = IdUtils.create();
+
+        DistributedRateLimiter campaign = new DistributedRateLimiter(runContext, name, 2);
+        DistributedRateLimiter alert = new DistributedRateLimiter(runContext, name, 2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        campaign.acquire(DistributedRateLimiter.Priority.BULK);
+                    }
+                    return null;
+                });
+            }
+
+            // let the campaign take every slot of the window
+            Thread.sleep(1500);
+
+            long start = System.nanoTime();
+            alert.acquire(DistributedRateLimiter.Priority.CRITICAL);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // a bulk caller would wait up to half a second for the next token
+            assertThat(elapsedMillis, lessThan(250L));
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
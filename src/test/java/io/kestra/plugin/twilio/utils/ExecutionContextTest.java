@@ -0,0 +1,62 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ExecutionContextTest {
+    @SuppressWarnings("unchecked")
+    @Test
+    void bounded() {
+        List<Map<String, Object>> taskRuns = IntStream.range(0, 1000)
+            .mapToObj(i -> Map.<String, Object>of(
+                "taskId", "task-" + i,
+                "state", Map.of("current", i % 100 == 0 ? "FAILED" : "SUCCESS"),
+                "outputs", Map.of("value", i)
+            ))
+            .toList();
+
+        Map<String, Object> context = ExecutionContext.bounded(
+            Map.of(
+                "link", "http://localhost:8080/ui/executions/company.team/flow/1",
+                "firstFailed", taskRuns.getFirst(),
+                "execution", Map.of("id", "1", "namespace", "company.team", "taskRunList", taskRuns)
+            ),
+            3
+        );
+
+        assertThat(context.get("link"), is("http://localhost:8080/ui/executions/company.team/flow/1"));
+        assertThat(context.get("taskRunCount"), is(1000));
+        assertThat(context.containsKey("customMessage"), is(false));
+
+        Map<String, Object> execution = (Map<String, Object>) context.get("execution");
+        assertThat(execution.get("namespace"), is("company.team"));
+
+        List<Map<String, Object>> taskRunList = (List<Map<String, Object>>) execution.get("taskRunList");
+        assertThat(taskRunList.stream().map(taskRun -> taskRun.get("taskId")).toList(), contains("task-997", "task-998", "task-999"));
+        assertThat(taskRunList.getFirst().containsKey("outputs"), is(false));
+
+        List<Map<String, Object>> failedTasks = (List<Map<String, Object>>) context.get("failedTasks");
+        assertThat(failedTasks.stream().map(taskRun -> taskRun.get("taskId")).toList(), contains("task-700", "task-800", "task-900"));
+        assertThat(failedTasks.stream().noneMatch(taskRun -> taskRun.containsKey("outputs")), is(true));
+        assertThat(failedTasks.getFirst(), not(sameInstance(taskRuns.get(700))));
+
+        Map<String, Object> firstFailed = (Map<String, Object>) context.get("firstFailed");
+        assertThat(firstFailed.get("taskId"), is("task-0"));
+        assertThat(firstFailed.containsKey("outputs"), is(false));
+    }
+
+    @Test
+    void unbounded() {
+        Map<String, Object> executionMap = Map.of(
+            "execution", Map.of("id", "1", "taskRunList", List.of(Map.of("taskId", "task-0", "outputs", Map.of("value", 0))))
+        );
+
+        assertThat(ExecutionContext.bounded(executionMap, null), sameInstance(executionMap));
+    }
+}
@@ -0,0 +1,159 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExecutionMapCacheTest {
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnMissAndServesHits() throws Exception {
+        ExecutionMapCache cache = new ExecutionMapCache(TTL, 4, clock::get);
+
+        Map<String, Object> first = cache.get("execution-1", () -> load("execution-1"));
+        Map<String, Object> second = cache.get("execution-1", () -> load("execution-1"));
+        Map<String, Object> other = cache.get("execution-2", () -> load("execution-2"));
+
+        assertThat(second, sameInstance(first));
+        assertThat(other.get("id"), is("execution-2"));
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    void reloadsOnceExpired() throws Exception {
+        ExecutionMapCache cache = new ExecutionMapCache(TTL, 4, clock::get);
+
+        Map<String, Object> first = cache.get("execution-1", () -> load("execution-1"));
+
+        clock.addAndGet(TTL.minusSeconds(1).toNanos());
+        assertThat(cache.get("execution-1", () -> load("execution-1")), sameInstance(first));
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(cache.get("execution-1", () -> load("execution-1")), not(sameInstance(first)));
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws Exception {
+        ExecutionMapCache cache = new ExecutionMapCache(TTL, 2, clock::get);
+
+        cache.get("execution-1", () -> load("execution-1"));
+        cache.get("execution-2", () -> load("execution-2"));
+        // touching the first entry makes the second one the eldest
+        cache.get("execution-1", () -> load("execution-1"));
+        cache.get("execution-3", () -> load("execution-3"));
+        assertThat(loads.get(), is(3));
+
+        cache.get("execution-1", () -> load("execution-1"));
+        assertThat(loads.get(), is(3));
+
+        cache.get("execution-2", () -> load("execution-2"));
+        assertThat(loads.get(), is(4));
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        ExecutionMapCache cache = new ExecutionMapCache(TTL, 4, clock::get);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            Future<Map<String, Object>> owner = executor.submit(() -> cache.get("execution-1", () -> {
+                loading.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return load("execution-1");
+            }));
+            assertThat(loading.await(10, TimeUnit.SECONDS), is(true));
+
+            List<Future<Map<String, Object>>> waiters = IntStream.range(0, 7)
+                .mapToObj(i -> executor.submit(() -> cache.get("execution-1", () -> load("execution-1"))))
+                .toList();
+
+            Thread.sleep(100);
+            release.countDown();
+
+            Map<String, Object> loaded = owner.get(10, TimeUnit.SECONDS);
+            for (Future<Map<String, Object>> waiter : waiters) {
+                assertThat(waiter.get(10, TimeUnit.SECONDS), sameInstance(loaded));
+            }
+            assertThat(loads.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadIsNotCached() throws Exception {
+        ExecutionMapCache cache = new ExecutionMapCache(TTL, 4, clock::get);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> cache.get("execution-1", () -> {
+            throw new IllegalStateException("Execution not found");
+        }));
+        assertThat(e.getMessage(), is("Execution not found"));
+
+        assertThat(cache.get("execution-1", () -> load("execution-1")).get("id"), is("execution-1"));
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    void reloadsRunningExecutions() throws Exception {
+        ExecutionMapCache cache = new ExecutionMapCache(TTL, 4, clock::get, ExecutionMapCache::isTerminated);
+
+        // the execution moves on between two notifications sent within the TTL
+        Map<String, Object> running = cache.get("execution-1", () -> load("execution-1", "RUNNING", 1));
+        Map<String, Object> failed = cache.get("execution-1", () -> load("execution-1", "FAILED", 3));
+
+        assertThat(state(running), is("RUNNING"));
+        assertThat(state(failed), is("FAILED"));
+        assertThat(taskRunList(failed), hasSize(3));
+
+        // once terminated, the execution doesn't change anymore and is served from the cache
+        assertThat(cache.get("execution-1", () -> load("execution-1", "SUCCESS", 4)), sameInstance(failed));
+        assertThat(loads.get(), is(2));
+    }
+
+    private Map<String, Object> load(String executionId, String state, int taskRuns) {
+        loads.incrementAndGet();
+
+        return Map.of("execution", Map.of(
+            "id", executionId,
+            "state", Map.of("current", state),
+            "taskRunList", IntStream.range(0, taskRuns).mapToObj(i -> Map.of("id", "taskrun-" + i)).toList()
+        ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object state(Map<String, Object> executionMap) {
+        return ((Map<String, Map<String, Object>>) executionMap.get("execution")).get("state").get("current");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> taskRunList(Map<String, Object> executionMap) {
+        return (List<Object>) ((Map<String, Object>) executionMap.get("execution")).get("taskRunList");
+    }
+
+    private Map<String, Object> load(String executionId) {
+        loads.incrementAndGet();
+
+        return Map.of("id", executionId);
+    }
+}
@@ -0,0 +1,50 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongHashSetTest {
+    @Test
+    void matchesHashSet() {
+        LongHashSet set = new LongHashSet(10);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        // sized for 10 values, so the set grows several times
+        for (int i = 0; i < 100_000; i++) {
+            long value = 10_000_000_000L + random.nextInt(50_000);
+            assertThat(set.add(value), is(expected.add(value)));
+        }
+
+        assertThat(set.size(), is((long) expected.size()));
+        for (long value = 10_000_000_000L; value < 10_000_000_000L + 50_000; value++) {
+            assertThat(set.contains(value), is(expected.contains(value)));
+        }
+    }
+
+    @Test
+    void storesSevenBytesPerSlot() {
+        LongHashSet set = new LongHashSet(10_000_000);
+
+        assertThat(set.memoryBytes(), lessThan(100L * 1024 * 1024));
+    }
+
+    @Test
+    void boundaries() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertThat(set.add(0), is(true));
+        assertThat(set.add(LongHashSet.MAX_VALUE), is(true));
+        assertThat(set.contains(0), is(true));
+        assertThat(set.contains(LongHashSet.MAX_VALUE), is(true));
+        assertThat(set.contains(-1), is(false));
+        assertThrows(IllegalArgumentException.class, () -> set.add(LongHashSet.MAX_VALUE + 1));
+    }
+}
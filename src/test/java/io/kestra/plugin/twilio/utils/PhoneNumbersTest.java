@@ -0,0 +1,46 @@
+package io.kestra.plugin.twilio.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PhoneNumbersTest {
+    @Test
+    void normalizesInternationalNumbers() {
+        assertThat(PhoneNumbers.normalize("+1 (555) 555-0100", null).number(), is("+15555550100"));
+        assertThat(PhoneNumbers.normalize("0044 20 7946 0958", null).number(), is("+442079460958"));
+        assertThat(PhoneNumbers.normalize("+44 (0)20 7946 0958", null).number(), is("+442079460958"));
+        assertThat(PhoneNumbers.normalize("whatsapp:+1 555 555 0100", null).number(), is("whatsapp:+15555550100"));
+        assertThat(PhoneNumbers.normalize("messenger:1234567890", null).number(), is("messenger:1234567890"));
+    }
+
+    @Test
+    void normalizesNationalNumbers() {
+        assertThat(PhoneNumbers.normalize("(555) 555-0100", "1").number(), is("+15555550100"));
+        assertThat(PhoneNumbers.normalize("1-555-555-0100", "+1").number(), is("+15555550100"));
+        assertThat(PhoneNumbers.normalize("020 7946 0958", "44").number(), is("+442079460958"));
+        assertThat(PhoneNumbers.normalize("06 12 34 56 78", "+33").number(), is("+33612345678"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumbers.normalize("020 7946 0958", "044"));
+    }
+
+    @Test
+    void rejectsInvalidNumbers() {
+        assertThat(PhoneNumbers.normalize("5555550100", null).error(), containsString("no country code"));
+        assertThat(PhoneNumbers.normalize("+1555", null).error(), is("too short"));
+        assertThat(PhoneNumbers.normalize("+1234567890123456", null).error(), startsWith("too long"));
+        assertThat(PhoneNumbers.normalize("+1 055 555 0100", null).error(), is("not a valid North American number"));
+        assertThat(PhoneNumbers.normalize("+1 555 555 01OO", null).error(), is("unexpected character 'O'"));
+        assertThat(PhoneNumbers.normalize(" ", null).valid(), is(false));
+    }
+
+    @Test
+    void keys() {
+        assertThat(PhoneNumbers.key("+1 (555) 555-0100"), is(15555550100L));
+        assertThat(PhoneNumbers.key("001.555.555.0100"), is(15555550100L));
+        assertThat(PhoneNumbers.key("whatsapp:+15555550100"), not(15555550100L));
+        assertThat(PhoneNumbers.key("whatsapp:+15555550100"), lessThanOrEqualTo(LongHashSet.MAX_VALUE));
+        assertThat(PhoneNumbers.e164("5555550100").isPresent(), is(false));
+    }
+}
@@ -0,0 +1,92 @@
+package io.kestra.plugin.twilio.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.utils.IdUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class SuppressionIndexTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void exactLookups() {
+        SuppressionIndex index = SuppressionIndex.of(LongStream.range(0, 100_000).map(i -> 15550000000L + i * 2).toArray());
+
+        assertThat(index.size(), is(100_000));
+        // the bloom filter lets some odd keys through, the sorted keys must reject them all
+        assertThat(LongStream.range(0, 100_000).filter(i -> index.contains(15550000000L + i * 2)).count(), is(100_000L));
+        assertThat(LongStream.range(0, 100_000).filter(i -> index.contains(15550000001L + i * 2)).count(), is(0L));
+    }
+
+    @Test
+    void mergesAndRemoves() {
+        SuppressionIndex index = SuppressionIndex.of(new long[]{3, 1, 2, 2})
+            .with(new long[]{4, 1})
+            .without(new long[]{2, 9});
+
+        assertThat(index.size(), is(3));
+        assertThat(index.contains(1), is(true));
+        assertThat(index.contains(2), is(false));
+        assertThat(index.contains(4), is(true));
+    }
+
+    @Test
+    void savesLatestVersion() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "opt_out", "namespace", "company.team")));
+        String kvKey = "suppressions_" + IdUtils.create();
+
+        assertThat(SuppressionIndex.load(runContext, kvKey).size(), is(0));
+
+        SuppressionIndex.of(new long[]{15555550100L}).save(runContext, kvKey, "test");
+        SuppressionIndex.of(new long[]{15555550100L, 15555550101L}).save(runContext, kvKey, "test");
+
+        SuppressionIndex loaded = SuppressionIndex.load(runContext, kvKey);
+        assertThat(loaded.size(), is(2));
+        assertThat(loaded.contains(15555550101L), is(true));
+
+        // only the chunks of the latest version are kept
+        KVStore kvStore = runContext.namespaceKv("company.team");
+        assertThat(kvStore.list().stream().filter(entry -> entry.key().startsWith(kvKey + "_v")).count(), is(1L));
+    }
+
+    @Test
+    void outlivesTheExecutionStorage() throws Exception {
+        RunContext runContext = runContextFactory.of(Map.of("flow", Map.of("id", "opt_out", "namespace", "company.team")));
+        String kvKey = "suppressions_" + IdUtils.create();
+
+        // about 2 MB, so more than one chunk
+        SuppressionIndex.of(LongStream.range(0, 200_000).map(i -> 15550000000L + i * 2).toArray()).save(runContext, kvKey, "test");
+
+        // the index is read back from the KV values alone
+        KVStore kvStore = runContext.namespaceKv("company.team");
+        SuppressionIndex.Manifest manifest = JacksonMapper.ofJson().readValue(kvStore.getValue(kvKey).orElseThrow().value().toString(), SuppressionIndex.Manifest.class);
+        assertThat(manifest.chunks(), greaterThan(1));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < manifest.chunks(); i++) {
+            bytes.write(Base64.getDecoder().decode(kvStore.getValue(SuppressionIndex.chunkKey(kvKey, manifest.version(), i)).orElseThrow().value().toString()));
+        }
+
+        SuppressionIndex read = SuppressionIndex.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThat(read.size(), is(200_000));
+        assertThat(read.contains(15550000002L), is(true));
+        assertThat(read.contains(15550000001L), is(false));
+    }
+}